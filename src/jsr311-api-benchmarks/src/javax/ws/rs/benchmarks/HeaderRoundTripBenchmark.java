@@ -0,0 +1,134 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.StandardHeaderDelegates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse and serialize round trips of the header value types through the
+ * reference header delegates, plus the regular expression baselines for
+ * media types and Cache-Control. The media type benchmarks call the delegate
+ * directly since MediaType.valueOf is served from the media type cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeaderRoundTripBenchmark {
+
+    private static final String CACHE_CONTROL = "private=\"Set-Cookie, Authorization\", no-cache, max-age=600, s-maxage=60";
+    private static final String ENTITY_TAG = "W/\"686897696a7c876b7e\"";
+    private static final String COOKIE = "$Version=1; JSESSIONID=\"c2VjcmV0\"; $Path=/app; $Domain=.example.com";
+    private static final String NEW_COOKIE = "JSESSIONID=c2VjcmV0;Version=1;Domain=.example.com;Path=/app;Max-Age=3600;Secure";
+    private static final String MEDIA_TYPE = "text/html;charset=ISO-8859-1";
+
+    private HeaderDelegate<MediaType> mediaTypeDelegate;
+
+    @Setup
+    public void setUp() {
+        BenchmarkRuntimeDelegate.install();
+        mediaTypeDelegate = StandardHeaderDelegates.get(MediaType.class);
+    }
+
+    @Benchmark
+    public String mediaType() {
+        return mediaTypeDelegate.toString(mediaTypeDelegate.fromString(MEDIA_TYPE));
+    }
+
+    @Benchmark
+    public MediaType mediaTypeParse() {
+        return mediaTypeDelegate.fromString(MEDIA_TYPE);
+    }
+
+    @Benchmark
+    public MediaType mediaTypeParseRegex() {
+        return RegexHeaderParsers.parseMediaType(MEDIA_TYPE);
+    }
+
+    @Benchmark
+    public String cacheControl() {
+        return CacheControl.valueOf(CACHE_CONTROL).toString();
+    }
+
+    @Benchmark
+    public CacheControl cacheControlParse() {
+        return CacheControl.valueOf(CACHE_CONTROL);
+    }
+
+    @Benchmark
+    public CacheControl cacheControlParseRegex() {
+        return RegexHeaderParsers.parseCacheControl(CACHE_CONTROL);
+    }
+
+    @Benchmark
+    public String entityTag() {
+        return EntityTag.valueOf(ENTITY_TAG).toString();
+    }
+
+    @Benchmark
+    public String cookie() {
+        return Cookie.valueOf(COOKIE).toString();
+    }
+
+    @Benchmark
+    public String newCookie() {
+        return NewCookie.valueOf(NEW_COOKIE).toString();
+    }
+}
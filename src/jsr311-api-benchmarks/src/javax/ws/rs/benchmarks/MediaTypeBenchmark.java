@@ -0,0 +1,134 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.StandardHeaderDelegates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MediaType} construction, comparison and parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MediaTypeBenchmark {
+
+    private static final String HEADER = "application/atom+xml; charset=\"UTF-8\"; type=entry";
+
+    private Map<String, String> parameters;
+    private MediaType json;
+    private MediaType jsonUpper;
+    private MediaType wildcardSubtype;
+    private HeaderDelegate<MediaType> delegate;
+
+    @Setup
+    public void setUp() {
+        BenchmarkRuntimeDelegate.install();
+        parameters = new HashMap<String, String>();
+        parameters.put("charset", "UTF-8");
+        json = new MediaType("application", "json");
+        jsonUpper = new MediaType("Application", "JSON");
+        wildcardSubtype = new MediaType("application", "*");
+        delegate = StandardHeaderDelegates.get(MediaType.class);
+    }
+
+    @Benchmark
+    public MediaType construct() {
+        return new MediaType("application", "json");
+    }
+
+    @Benchmark
+    public MediaType constructWithParameters() {
+        return new MediaType("text", "plain", parameters);
+    }
+
+    @Benchmark
+    public boolean equalsIgnoringCase() {
+        return json.equals(jsonUpper);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return jsonUpper.hashCode();
+    }
+
+    @Benchmark
+    public boolean isCompatible() {
+        return json.isCompatible(jsonUpper);
+    }
+
+    @Benchmark
+    public boolean isCompatibleWildcard() {
+        return wildcardSubtype.isCompatible(json);
+    }
+
+    @Benchmark
+    public MediaType valueOfCached() {
+        return MediaType.valueOf(HEADER);
+    }
+
+    @Benchmark
+    public MediaType parse() {
+        return delegate.fromString(HEADER);
+    }
+
+    @Benchmark
+    public MediaType parseRegex() {
+        return RegexHeaderParsers.parseMediaType(HEADER);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.ext.ParamExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for converting the ten parameters of a resource method with
+ * prebuilt {@link ParamExtractor}s compared with resolving the conversion
+ * reflectively for each request, as described in
+ * {@link javax.ws.rs.QueryParam}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParamExtractorBenchmark {
+
+    public enum Sort {
+        NAME, DATE
+    }
+
+    public static class Id {
+        final String value;
+
+        public Id(String value) {
+            this.value = value;
+        }
+    }
+
+    public void search(int page, int size, long since, boolean active, String q, Sort sort,
+            Id owner, List<String> tags, Double min, Integer limit) {
+    }
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+    static {
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(boolean.class, Boolean.class);
+    }
+
+    private static final String[] DEFAULTS = {"1", "20", "0", "true", null, "NAME", null, null, null, "100"};
+
+    private final Object[] args = new Object[DEFAULTS.length];
+    private final List<List<String>> values = new ArrayList<List<String>>();
+    private Type[] types;
+    private ParamExtractor<?>[] extractors;
+
+    @Setup
+    public void setUp() throws Exception {
+        for (Method m : getClass().getMethods()) {
+            if (m.getName().equals("search"))
+                types = m.getGenericParameterTypes();
+        }
+        extractors = new ParamExtractor<?>[types.length];
+        for (int i = 0; i < types.length; i++)
+            extractors[i] = ParamExtractor.create(types[i], DEFAULTS[i], 404);
+        values.add(Arrays.asList("3"));
+        values.add(null);
+        values.add(Arrays.asList("1300000000000"));
+        values.add(Arrays.asList("false"));
+        values.add(Arrays.asList("jax rs"));
+        values.add(Arrays.asList("DATE"));
+        values.add(Arrays.asList("u-42"));
+        values.add(Arrays.asList("a", "b", "c"));
+        values.add(Arrays.asList("2.5"));
+        values.add(null);
+    }
+
+    @Benchmark
+    public Object[] extractors() {
+        for (int i = 0; i < extractors.length; i++)
+            args[i] = extractors[i].extract(values.get(i));
+        return args;
+    }
+
+    @Benchmark
+    public Object[] reflective() throws Exception {
+        for (int i = 0; i < types.length; i++) {
+            List<String> v = values.get(i);
+            if (v == null)
+                v = DEFAULTS[i] == null ? Collections.<String>emptyList() : Collections.singletonList(DEFAULTS[i]);
+            Type t = types[i];
+            if (t instanceof ParameterizedType) {
+                Class<?> element = (Class<?>) ((ParameterizedType) t).getActualTypeArguments()[0];
+                List<Object> l = new ArrayList<Object>(v.size());
+                for (String s : v)
+                    l.add(reflectiveConvert(element, s));
+                args[i] = Collections.unmodifiableList(l);
+            } else {
+                args[i] = v.isEmpty() ? null : reflectiveConvert((Class<?>) t, v.get(0));
+            }
+        }
+        return args;
+    }
+
+    private static Object reflectiveConvert(Class<?> c, String s) throws Exception {
+        if (c == String.class)
+            return s;
+        if (c.isPrimitive())
+            c = WRAPPERS.get(c);
+        try {
+            return c.getConstructor(String.class).newInstance(s);
+        } catch (NoSuchMethodException e) {
+            return c.getMethod("valueOf", String.class).invoke(null, s);
+        }
+    }
+}
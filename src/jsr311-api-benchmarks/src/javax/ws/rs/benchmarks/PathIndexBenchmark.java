@@ -0,0 +1,138 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.PathIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for matching request paths with a {@link PathIndex} compared
+ * with trying the regular expression of each template in turn. Each root
+ * resource has a literal, a parameter and a regular expression template.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathIndexBenchmark {
+
+    @Param({"10", "100", "1400"})
+    public int resources;
+
+    private final PathIndex<Integer> index = new PathIndex<Integer>();
+    private final List<Pattern> patterns = new ArrayList<Pattern>();
+    private String literalPath;
+    private String parameterPath;
+    private String regexPath;
+
+    @Setup
+    public void setUp() {
+        // in the order of the specification's sort: most literal characters
+        // first, so the regex templates are tried last
+        for (int i = 0; i < resources; i++) {
+            index.add("resource" + i + "/items", i);
+            patterns.add(Pattern.compile("/resource" + i + "/items(/.*)?"));
+        }
+        for (int i = 0; i < resources; i++) {
+            index.add("resource" + i + "/{id}", i);
+            patterns.add(Pattern.compile("/resource" + i + "/([^/]+?)(/.*)?"));
+        }
+        for (int i = 0; i < resources; i++) {
+            index.add("resource" + i + "/{id: [0-9]+}/history", i);
+            patterns.add(Pattern.compile("/resource" + i + "/([0-9]+)/history(/.*)?"));
+        }
+        int last = resources - 1;
+        literalPath = "/resource" + last + "/items";
+        parameterPath = "/resource" + last + "/abc";
+        regexPath = "/resource" + last + "/123/history";
+    }
+
+    private int linear(String path) {
+        for (int i = 0; i < patterns.size(); i++) {
+            Matcher m = patterns.get(i).matcher(path);
+            if (m.matches())
+                return i;
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public PathIndex.Match<Integer> indexLiteral() {
+        return index.match(literalPath);
+    }
+
+    @Benchmark
+    public PathIndex.Match<Integer> indexParameter() {
+        return index.match(parameterPath);
+    }
+
+    @Benchmark
+    public PathIndex.Match<Integer> indexRegex() {
+        return index.match(regexPath);
+    }
+
+    @Benchmark
+    public int linearLiteral() {
+        return linear(literalPath);
+    }
+
+    @Benchmark
+    public int linearParameter() {
+        return linear(parameterPath);
+    }
+}
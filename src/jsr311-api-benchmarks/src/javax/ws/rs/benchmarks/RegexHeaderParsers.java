@@ -0,0 +1,128 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Regular expression based parsers in the style used by several JAX-RS
+ * runtimes. Used as the baseline the reference header delegates are
+ * compared against.
+ */
+final class RegexHeaderParsers {
+
+    private static final String TOKEN = "[^\\x00-\\x20()<>@,;:\\\\\"/\\[\\]?={}\\x7f]+";
+    private static final String VALUE = "(" + TOKEN + ")|\"((?:[^\"\\\\]|\\\\.)*)\"";
+
+    private static final Pattern MEDIA_TYPE = Pattern.compile(
+            "\\s*(" + TOKEN + ")\\s*/\\s*(" + TOKEN + ")\\s*((?:;.*)?)");
+    private static final Pattern PARAMETER = Pattern.compile(
+            ";\\s*(" + TOKEN + ")\\s*=\\s*(?:" + VALUE + ")\\s*");
+    private static final Pattern DIRECTIVE = Pattern.compile(
+            "\\s*(" + TOKEN + ")\\s*(?:=\\s*(?:" + VALUE + "))?\\s*(?:,|$)");
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+
+    private RegexHeaderParsers() {
+    }
+
+    static MediaType parseMediaType(String value) {
+        Matcher m = MEDIA_TYPE.matcher(value);
+        if (!m.matches())
+            throw new IllegalArgumentException(value);
+        Map<String, String> parameters = null;
+        String rest = m.group(3);
+        if (rest.length() > 0) {
+            parameters = new HashMap<String, String>();
+            Matcher p = PARAMETER.matcher(rest);
+            int end = 0;
+            while (p.lookingAt()) {
+                parameters.put(p.group(1), p.group(2) != null ? p.group(2) : p.group(3).replaceAll("\\\\(.)", "$1"));
+                end = p.end();
+                p.region(end, rest.length());
+            }
+            if (end != rest.length())
+                throw new IllegalArgumentException(value);
+        }
+        return new MediaType(m.group(1), m.group(2), parameters);
+    }
+
+    static CacheControl parseCacheControl(String value) {
+        CacheControl cc = new CacheControl();
+        cc.setNoTransform(false);
+        Matcher m = DIRECTIVE.matcher(value);
+        while (m.regionStart() < value.length() && m.lookingAt()) {
+            String directive = m.group(1).toLowerCase();
+            String v = m.group(2) != null ? m.group(2) : m.group(3);
+            if (directive.equals("private")) {
+                cc.setPrivate(true);
+                if (v != null)
+                    for (String f : COMMA.split(v.trim()))
+                        cc.getPrivateFields().add(f);
+            } else if (directive.equals("no-cache")) {
+                cc.setNoCache(true);
+                if (v != null)
+                    for (String f : COMMA.split(v.trim()))
+                        cc.getNoCacheFields().add(f);
+            } else if (directive.equals("no-store")) {
+                cc.setNoStore(true);
+            } else if (directive.equals("no-transform")) {
+                cc.setNoTransform(true);
+            } else if (directive.equals("must-revalidate")) {
+                cc.setMustRevalidate(true);
+            } else if (directive.equals("proxy-revalidate")) {
+                cc.setProxyRevalidate(true);
+            } else if (directive.equals("max-age")) {
+                cc.setMaxAge(Integer.parseInt(v));
+            } else if (directive.equals("s-maxage")) {
+                cc.setSMaxAge(Integer.parseInt(v));
+            } else {
+                cc.getCacheExtension().put(m.group(1), v);
+            }
+            m.region(m.end(), value.length());
+        }
+        return cc;
+    }
+}
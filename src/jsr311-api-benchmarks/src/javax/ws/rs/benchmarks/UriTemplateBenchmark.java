@@ -0,0 +1,126 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.UriBuffer;
+import javax.ws.rs.core.UriTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for expanding a compiled {@link UriTemplate}. The batch
+ * benchmarks report the time per URI of a batch of 10,000 URIs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UriTemplateBenchmark {
+
+    private static final String TEMPLATE = "http://example.com/customers/{id: [0-9]+}/orders/{order}?expand={expand}";
+
+    private static final int ITEMS = 10000;
+
+    private final UriTemplate template = UriTemplate.compile(TEMPLATE);
+    private final UriTemplate itemTemplate = UriTemplate.compile("http://example.com/customers/{id}");
+    private final StringBuilder b = new StringBuilder(128);
+    private final UriBuffer buffer = new UriBuffer(ITEMS, 40);
+    private final List<Integer> ids = new ArrayList<Integer>(ITEMS);
+    private final List<Object[]> tuples = new ArrayList<Object[]>(ITEMS);
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEMS; i++) {
+            ids.add(i);
+            tuples.add(new Object[] {i, "A-" + i, "items"});
+        }
+    }
+
+    @Benchmark
+    public String expand() {
+        return template.expand(12345, "A-99 7", "items");
+    }
+
+    @Benchmark
+    public StringBuilder appendTo() {
+        b.setLength(0);
+        return template.appendTo(b, false, 12345, "A-99 7", "items");
+    }
+
+    @Benchmark
+    public URI build() {
+        return template.build(12345, "A-99 7", "items");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public UriBuffer expandEach10k() {
+        buffer.clear();
+        return itemTemplate.expandEach(ids, buffer);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public UriBuffer expandAll10k() {
+        buffer.clear();
+        return template.expandAll(tuples, buffer);
+    }
+
+    @Benchmark
+    public String compileCachedAndExpand() {
+        return UriTemplate.compile(TEMPLATE).expand(12345, "A-99 7", "items");
+    }
+}
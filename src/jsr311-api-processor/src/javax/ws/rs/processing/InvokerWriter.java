@@ -0,0 +1,235 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+import javax.ws.rs.ext.InvokerFactory;
+import javax.ws.rs.ext.MethodInvoker;
+
+/**
+ * Writes the source of the invokers of a resource class: a subclass of
+ * {@link InvokerFactory} named with {@link InvokerFactory#GENERATED_CLASS_SUFFIX}
+ * in the package of the resource class with a
+ * {@link MethodInvoker} for each method that calls the
+ * method directly. Methods that declare a checked Throwable that is not an
+ * Exception, and the methods of private classes, are left to the reflective
+ * invoker.
+ */
+final class InvokerWriter {
+
+    private final ProcessingEnvironment env;
+
+    InvokerWriter(ProcessingEnvironment env) {
+        this.env = env;
+    }
+
+    /**
+     * Write the invokers of a resource class.
+     * @param t the resource class
+     * @param binaryName the binary name of the resource class
+     * @param methods the public methods of the resource class to invoke
+     */
+    void write(TypeElement t, String binaryName, List<ExecutableElement> methods) throws IOException {
+        List<ExecutableElement> invocable = new ArrayList<ExecutableElement>();
+        for (ExecutableElement m : methods) {
+            if (throwsOnlyExceptions(m))
+                invocable.add(m);
+        }
+        if (invocable.isEmpty() || !isAccessible(t))
+            return;
+
+        String packageName = env.getElementUtils().getPackageOf(t).getQualifiedName().toString();
+        String simpleName = (packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1))
+                + InvokerFactory.GENERATED_CLASS_SUFFIX;
+        String resource = t.getQualifiedName().toString();
+        JavaFileObject f = env.getFiler().createSourceFile(
+                packageName.length() == 0 ? simpleName : packageName + "." + simpleName, t);
+        PrintWriter out = new PrintWriter(f.openWriter());
+        try {
+            if (packageName.length() > 0) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Invokers for the methods of {@link " + resource + "}, generated by");
+            out.println(" * " + ResourceModelProcessor.class.getName() + ".");
+            out.println(" */");
+            out.println("@SuppressWarnings(\"unchecked\")");
+            out.println("public final class " + simpleName + " extends javax.ws.rs.ext.InvokerFactory {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public javax.ws.rs.ext.MethodInvoker createInvoker(Class<?> resourceClass,");
+            out.println("            java.lang.reflect.Method method) {");
+            out.println("        if (resourceClass != " + resource + ".class)");
+            out.println("            return null;");
+            out.println("        String name = method.getName();");
+            out.println("        Class<?>[] types = method.getParameterTypes();");
+            for (int i = 0; i < invocable.size(); i++) {
+                ExecutableElement m = invocable.get(i);
+                StringBuilder types = new StringBuilder();
+                for (VariableElement p : m.getParameters()) {
+                    if (types.length() > 0)
+                        types.append(", ");
+                    types.append(erasure(p.asType())).append(".class");
+                }
+                out.println("        if (name.equals(\"" + m.getSimpleName() + "\") && java.util.Arrays.equals(types,");
+                out.println("                new Class<?>[] {" + types + "}))");
+                out.println("            return new Invoker" + i + "(method);");
+            }
+            out.println("        return null;");
+            out.println("    }");
+            for (int i = 0; i < invocable.size(); i++)
+                writeInvoker(out, "Invoker" + i, t, invocable.get(i));
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeInvoker(PrintWriter out, String name, TypeElement t, ExecutableElement m) {
+        // the parameter types with the type arguments of the resource class
+        List<? extends TypeMirror> parameterTypes = ((ExecutableType) env.getTypeUtils().asMemberOf(
+                (DeclaredType) t.asType(), m)).getParameterTypes();
+        int n = parameterTypes.size();
+        StringBuilder call = new StringBuilder();
+        call.append("((").append(t.getQualifiedName()).append(") resource).").append(m.getSimpleName()).append('(');
+        StringBuilder fixedCall = new StringBuilder(call);
+        StringBuilder parameters = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            String cast = "(" + boxedErasure(parameterTypes.get(i)) + ") ";
+            if (i > 0) {
+                call.append(", ");
+                fixedCall.append(", ");
+            }
+            call.append(cast).append("arguments[").append(i).append(']');
+            fixedCall.append(cast).append("arg").append(i);
+            parameters.append(", Object arg").append(i);
+        }
+        call.append(')');
+        fixedCall.append(')');
+        boolean isVoid = m.getReturnType().getKind() == TypeKind.VOID;
+
+        out.println();
+        out.println("    private static final class " + name + " extends javax.ws.rs.ext.MethodInvoker {");
+        out.println();
+        out.println("        " + name + "(java.lang.reflect.Method method) {");
+        out.println("            super(method);");
+        out.println("        }");
+        if (n <= MethodInvoker.MAX_FIXED_ARITY) {
+            out.println();
+            out.println("        @Override");
+            out.println("        public Object invoke(Object resource" + parameters + ") throws Exception {");
+            writeReturn(out, fixedCall, isVoid);
+            out.println("        }");
+        }
+        out.println();
+        out.println("        @Override");
+        out.println("        public Object invokeWithArguments(Object resource, Object[] arguments) throws Exception {");
+        out.println("            checkArgumentCount(arguments, " + n + ");");
+        writeReturn(out, call, isVoid);
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private static void writeReturn(PrintWriter out, CharSequence call, boolean isVoid) {
+        if (isVoid) {
+            out.println("            " + call + ";");
+            out.println("            return null;");
+        } else {
+            out.println("            return " + call + ";");
+        }
+    }
+
+    /**
+     * Check that a class can be named from its package
+     */
+    private static boolean isAccessible(TypeElement t) {
+        for (Element e = t; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean throwsOnlyExceptions(ExecutableElement m) {
+        Types types = env.getTypeUtils();
+        TypeMirror exception = env.getElementUtils().getTypeElement("java.lang.Exception").asType();
+        TypeMirror error = env.getElementUtils().getTypeElement("java.lang.Error").asType();
+        for (TypeMirror thrown : m.getThrownTypes()) {
+            if (!types.isAssignable(thrown, exception) && !types.isAssignable(thrown, error))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the source form of the erasure of a type
+     */
+    private String erasure(TypeMirror type) {
+        return env.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Get the source form of the erasure of a type, using the wrapper of a
+     * primitive type
+     */
+    private String boxedErasure(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return env.getTypeUtils().boxedClass(env.getTypeUtils().getPrimitiveType(type.getKind()))
+                    .getQualifiedName().toString();
+        return erasure(type);
+    }
+}
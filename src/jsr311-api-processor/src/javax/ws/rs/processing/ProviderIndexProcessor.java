@@ -0,0 +1,211 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ProviderIndex;
+import javax.ws.rs.ext.ProviderIndex.Entry;
+import javax.ws.rs.ext.ProviderIndex.Kind;
+
+/**
+ * Writes a {@link ProviderIndex} of the provider classes being compiled to
+ * {@link ProviderIndex#RESOURCE_NAME} in the class output directory.
+ *
+ * <p>Every public, concrete class annotated with {@link Provider} gets an
+ * entry for each provider interface it implements, directly or through a
+ * superclass or another interface. The type argument of the interface is
+ * resolved through the type hierarchy; if the class leaves it unbound its
+ * erasure is recorded. A class annotated with {@code Provider} that
+ * implements none of the provider interfaces is reported as a warning.</p>
+ *
+ * <p>An index left in the class output directory by a previous build is
+ * merged with the classes being compiled, so an incremental build that
+ * compiles only some classes keeps the other providers. The entries of a
+ * class that is compiled again are replaced and the entries of classes
+ * that no longer exist are dropped. The processor therefore runs for every
+ * compilation, so that it sees a class whose {@code Provider} annotation
+ * was removed, but does not claim any annotations.</p>
+ */
+@SupportedAnnotationTypes("*")
+public class ProviderIndexProcessor extends AbstractProcessor {
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * The binary names of the classes compiled, providers or not
+     */
+    private final Set<String> compiled = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement t : ElementFilter.typesIn(roundEnv.getRootElements()))
+            addCompiled(t);
+        for (Element e : roundEnv.getElementsAnnotatedWith(Provider.class)) {
+            if (e.getKind() != ElementKind.CLASS || !e.getModifiers().contains(Modifier.PUBLIC)
+                    || e.getModifiers().contains(Modifier.ABSTRACT))
+                continue;
+            add((TypeElement) e);
+        }
+        if (roundEnv.processingOver())
+            write();
+        return false;
+    }
+
+    private void addCompiled(TypeElement t) {
+        compiled.add(processingEnv.getElementUtils().getBinaryName(t).toString());
+        for (TypeElement nested : ElementFilter.typesIn(t.getEnclosedElements()))
+            addCompiled(nested);
+    }
+
+    private void add(TypeElement t) {
+        String className = processingEnv.getElementUtils().getBinaryName(t).toString();
+        Produces produces = t.getAnnotation(Produces.class);
+        Consumes consumes = t.getAnnotation(Consumes.class);
+        boolean found = false;
+        for (Kind kind : Kind.values()) {
+            DeclaredType i = findSupertype(t.asType(), kind.getInterface().getName());
+            if (i == null)
+                continue;
+            found = true;
+            TypeMirror argument = i.getTypeArguments().isEmpty()
+                    ? processingEnv.getElementUtils().getTypeElement("java.lang.Object").asType()
+                    : i.getTypeArguments().get(0);
+            if (argument.getKind() == TypeKind.WILDCARD)
+                argument = processingEnv.getElementUtils().getTypeElement("java.lang.Object").asType();
+            entries.add(new Entry(className, kind, TypeNames.getName(processingEnv, argument),
+                    produces == null ? null : Arrays.asList(produces.value()),
+                    consumes == null ? null : Arrays.asList(consumes.value())));
+        }
+        if (!found)
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    className + " is annotated with Provider but implements no provider interface", t);
+    }
+
+    /**
+     * Find the parameterization of a generic interface among the
+     * supertypes of a type, breadth first
+     */
+    private DeclaredType findSupertype(TypeMirror type, String interfaceName) {
+        LinkedList<TypeMirror> queue = new LinkedList<TypeMirror>();
+        Set<String> visited = new HashSet<String>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            TypeMirror t = queue.removeFirst();
+            if (t.getKind() != TypeKind.DECLARED)
+                continue;
+            TypeElement e = (TypeElement) ((DeclaredType) t).asElement();
+            String name = e.getQualifiedName().toString();
+            if (name.equals(interfaceName))
+                return (DeclaredType) t;
+            if (visited.add(name))
+                queue.addAll(processingEnv.getTypeUtils().directSupertypes(t));
+        }
+        return null;
+    }
+
+    private void write() {
+        List<Entry> merged = new ArrayList<Entry>();
+        boolean previous = false;
+        try {
+            FileObject f = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    ProviderIndex.RESOURCE_NAME);
+            InputStream in = f.openInputStream();
+            try {
+                for (Entry e : ProviderIndex.read(in).getEntries()) {
+                    if (!compiled.contains(e.getClassName()) && TypeNames.exists(processingEnv, e.getClassName()))
+                        merged.add(e);
+                }
+            } finally {
+                in.close();
+            }
+            previous = true;
+        } catch (IOException e) {
+            // there is no index from a previous build
+        }
+        merged.addAll(entries);
+        if (merged.isEmpty() && !previous)
+            return;
+        try {
+            FileObject f = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ProviderIndex.RESOURCE_NAME);
+            OutputStream out = f.openOutputStream();
+            try {
+                new ProviderIndex(merged).write(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + ProviderIndex.RESOURCE_NAME + ": " + e);
+        }
+    }
+}
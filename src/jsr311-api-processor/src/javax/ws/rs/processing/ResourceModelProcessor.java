@@ -0,0 +1,395 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.Encoded;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.ResourceModel;
+import javax.ws.rs.ext.ResourceModel.Parameter;
+import javax.ws.rs.ext.ResourceModel.Parameter.Source;
+import javax.ws.rs.ext.ResourceModel.ResourceClass;
+import javax.ws.rs.ext.ResourceModel.ResourceMethod;
+
+/**
+ * Writes a {@link ResourceModel} of the resource classes being compiled to
+ * {@link ResourceModel#RESOURCE_NAME} in the class output directory.
+ *
+ * <p>A public, concrete, top level or static nested class is included if it
+ * is annotated with {@link Path} or one of its public methods, including
+ * inherited ones, is annotated with {@code Path} or a request method
+ * designator. Annotations on a method of a superclass or an implemented
+ * interface apply to a method that has no JAX-RS annotations of its own.
+ * The processor does not claim any annotations.</p>
+ *
+ * <p>For each resource class the processor also generates a
+ * {@link javax.ws.rs.ext.InvokerFactory} that calls the methods of the
+ * model directly, which the default factory uses instead of reflection.
+ * Set the {@link #INVOKERS_OPTION} option to {@code false} to disable
+ * this.</p>
+ *
+ * <p>A model left in the class output directory by a previous build is
+ * merged with the classes being compiled, so an incremental build that
+ * compiles only some classes keeps the other resource classes. A class that
+ * is compiled again replaces its previous entry, or removes it if it is no
+ * longer a resource class, and the entries of classes that no longer exist
+ * are dropped.</p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ResourceModelProcessor.INVOKERS_OPTION)
+public class ResourceModelProcessor extends AbstractProcessor {
+
+    /**
+     * The processor option that disables the generation of invokers when
+     * set to {@code false}.
+     */
+    public static final String INVOKERS_OPTION = "javax.ws.rs.invokers";
+
+    private final Map<String, ResourceClass> resourceClasses = new LinkedHashMap<String, ResourceClass>();
+
+    /**
+     * The binary names of the classes compiled, resource classes or not
+     */
+    private final Set<String> compiled = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement t : ElementFilter.typesIn(roundEnv.getRootElements()))
+            scan(t);
+        if (roundEnv.processingOver())
+            write();
+        return false;
+    }
+
+    private void scan(TypeElement t) {
+        compiled.add(processingEnv.getElementUtils().getBinaryName(t).toString());
+        for (TypeElement nested : ElementFilter.typesIn(t.getEnclosedElements())) {
+            if (nested.getModifiers().contains(Modifier.STATIC))
+                scan(nested);
+        }
+        if (t.getKind() != ElementKind.CLASS || !t.getModifiers().contains(Modifier.PUBLIC)
+                || t.getModifiers().contains(Modifier.ABSTRACT))
+            return;
+        Path path = t.getAnnotation(Path.class);
+        boolean encoded = t.getAnnotation(Encoded.class) != null;
+        List<ResourceMethod> methods = new ArrayList<ResourceMethod>();
+        List<ExecutableElement> invocable = new ArrayList<ExecutableElement>();
+        boolean resource = path != null;
+        for (ExecutableElement m : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(t))) {
+            if (!m.getModifiers().contains(Modifier.PUBLIC) || m.getModifiers().contains(Modifier.STATIC))
+                continue;
+            ExecutableElement annotated = findAnnotatedMethod(t, m);
+            if (annotated == null)
+                continue;
+            ResourceMethod rm = toResourceMethod(annotated, m, encoded);
+            if (rm != null) {
+                methods.add(rm);
+                invocable.add(m);
+                resource |= rm.getHttpMethod() != null || rm.getPath() != null;
+            }
+        }
+        if (!resource)
+            return;
+        List<ResourceMethod> constructors = new ArrayList<ResourceMethod>();
+        for (ExecutableElement c : ElementFilter.constructorsIn(t.getEnclosedElements())) {
+            if (c.getModifiers().contains(Modifier.PUBLIC))
+                constructors.add(new ResourceMethod("<init>", null, null, null, null,
+                        parameters(c, c, encoded || c.getAnnotation(Encoded.class) != null)));
+        }
+        String name = processingEnv.getElementUtils().getBinaryName(t).toString();
+        resourceClasses.put(name, new ResourceClass(name, path == null ? null : path.value(),
+                values(t.getAnnotation(Produces.class)), values(t.getAnnotation(Consumes.class)),
+                fields(t, encoded), constructors, methods));
+        if (!"false".equals(processingEnv.getOptions().get(INVOKERS_OPTION))) {
+            try {
+                new InvokerWriter(processingEnv).write(t, name, invocable);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to write the invokers of " + name + ": " + e, t);
+            }
+        }
+    }
+
+    /**
+     * Find the method whose annotations apply to a method of a class: the
+     * method itself if it has JAX-RS annotations, otherwise the nearest
+     * annotated method it overrides or implements
+     */
+    private ExecutableElement findAnnotatedMethod(TypeElement t, ExecutableElement m) {
+        if (hasJaxrsAnnotations(m))
+            return m;
+        List<TypeElement> supertypes = new ArrayList<TypeElement>();
+        addSupertypes((TypeElement) m.getEnclosingElement(), supertypes);
+        for (TypeElement s : supertypes) {
+            for (ExecutableElement candidate : ElementFilter.methodsIn(s.getEnclosedElements())) {
+                if (candidate.getSimpleName().equals(m.getSimpleName())
+                        && processingEnv.getElementUtils().overrides(m, candidate, t)
+                        && hasJaxrsAnnotations(candidate))
+                    return candidate;
+            }
+        }
+        return null;
+    }
+
+    private void addSupertypes(TypeElement t, List<TypeElement> supertypes) {
+        List<TypeMirror> direct = new ArrayList<TypeMirror>();
+        direct.add(t.getSuperclass());
+        direct.addAll(t.getInterfaces());
+        for (TypeMirror s : direct) {
+            if (s.getKind() != TypeKind.DECLARED)
+                continue;
+            TypeElement e = (TypeElement) ((DeclaredType) s).asElement();
+            if (!supertypes.contains(e)) {
+                supertypes.add(e);
+                addSupertypes(e, supertypes);
+            }
+        }
+    }
+
+    private static boolean hasJaxrsAnnotations(ExecutableElement m) {
+        if (hasJaxrsAnnotations(m.getAnnotationMirrors()))
+            return true;
+        for (VariableElement p : m.getParameters()) {
+            if (hasJaxrsAnnotations(p.getAnnotationMirrors()))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean hasJaxrsAnnotations(List<? extends AnnotationMirror> mirrors) {
+        for (AnnotationMirror a : mirrors) {
+            TypeElement type = (TypeElement) a.getAnnotationType().asElement();
+            String name = type.getQualifiedName().toString();
+            if (name.startsWith("javax.ws.rs.") || type.getAnnotation(HttpMethod.class) != null)
+                return true;
+        }
+        return false;
+    }
+
+    private static String httpMethod(Element e) {
+        for (AnnotationMirror a : e.getAnnotationMirrors()) {
+            HttpMethod h = a.getAnnotationType().asElement().getAnnotation(HttpMethod.class);
+            if (h != null)
+                return h.value();
+        }
+        return null;
+    }
+
+    /**
+     * Create the model of a method from the annotations of the method that
+     * declares them and the signature of the method of the class
+     * @return the model or null if the method is not a resource method,
+     * sub-resource locator or annotated setter
+     */
+    private ResourceMethod toResourceMethod(ExecutableElement annotated, ExecutableElement m, boolean encoded) {
+        String httpMethod = httpMethod(annotated);
+        Path path = annotated.getAnnotation(Path.class);
+        String name = m.getSimpleName().toString();
+        encoded |= annotated.getAnnotation(Encoded.class) != null;
+        if (httpMethod == null && path == null) {
+            // a bean property setter annotated with a parameter annotation
+            if (!name.startsWith("set") || m.getParameters().size() != 1)
+                return null;
+            Parameter p = parameter(null, m.getParameters().get(0).asType(), annotated, encoded, false);
+            if (p == null)
+                return null;
+            return new ResourceMethod(name, null, null, null, null, Arrays.asList(p));
+        }
+        return new ResourceMethod(name, httpMethod, path == null ? null : path.value(),
+                values(annotated.getAnnotation(Produces.class)), values(annotated.getAnnotation(Consumes.class)),
+                parameters(annotated, m, encoded));
+    }
+
+    private List<Parameter> parameters(ExecutableElement annotated, ExecutableElement m, boolean encoded) {
+        List<Parameter> l = new ArrayList<Parameter>();
+        List<? extends VariableElement> types = m.getParameters();
+        List<? extends VariableElement> annotations = annotated.getParameters();
+        for (int i = 0; i < types.size(); i++)
+            l.add(parameter(null, types.get(i).asType(), annotations.get(i), encoded, true));
+        return l;
+    }
+
+    private List<Parameter> fields(TypeElement t, boolean encoded) {
+        List<Parameter> l = new ArrayList<Parameter>();
+        for (TypeElement c = t; c != null; c = superclass(c)) {
+            for (VariableElement f : ElementFilter.fieldsIn(c.getEnclosedElements())) {
+                if (f.getModifiers().contains(Modifier.STATIC))
+                    continue;
+                Parameter p = parameter(f.getSimpleName().toString(), f.asType(), f, encoded, false);
+                if (p != null)
+                    l.add(p);
+            }
+        }
+        return l;
+    }
+
+    private static TypeElement superclass(TypeElement t) {
+        TypeMirror s = t.getSuperclass();
+        return s.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) s).asElement() : null;
+    }
+
+    /**
+     * Create the model of a parameter, field or setter
+     * @param entity if true an unannotated element is an entity parameter,
+     * otherwise null is returned for it
+     */
+    private Parameter parameter(String member, TypeMirror type, Element e, boolean encoded, boolean entity) {
+        Source source;
+        String name = null;
+        if (e.getAnnotation(PathParam.class) != null) {
+            source = Source.PATH;
+            name = e.getAnnotation(PathParam.class).value();
+        } else if (e.getAnnotation(QueryParam.class) != null) {
+            source = Source.QUERY;
+            name = e.getAnnotation(QueryParam.class).value();
+        } else if (e.getAnnotation(MatrixParam.class) != null) {
+            source = Source.MATRIX;
+            name = e.getAnnotation(MatrixParam.class).value();
+        } else if (e.getAnnotation(HeaderParam.class) != null) {
+            source = Source.HEADER;
+            name = e.getAnnotation(HeaderParam.class).value();
+        } else if (e.getAnnotation(CookieParam.class) != null) {
+            source = Source.COOKIE;
+            name = e.getAnnotation(CookieParam.class).value();
+        } else if (e.getAnnotation(FormParam.class) != null) {
+            source = Source.FORM;
+            name = e.getAnnotation(FormParam.class).value();
+        } else if (e.getAnnotation(Context.class) != null) {
+            source = Source.CONTEXT;
+        } else if (entity) {
+            source = Source.ENTITY;
+        } else {
+            return null;
+        }
+        DefaultValue d = e.getAnnotation(DefaultValue.class);
+        return new Parameter(member, TypeNames.getName(processingEnv, type), source, name,
+                d == null ? null : d.value(), encoded || e.getAnnotation(Encoded.class) != null);
+    }
+
+    private static List<String> values(Produces p) {
+        return p == null ? null : Arrays.asList(p.value());
+    }
+
+    private static List<String> values(Consumes c) {
+        return c == null ? null : Arrays.asList(c.value());
+    }
+
+    private void write() {
+        Map<String, ResourceClass> merged = new LinkedHashMap<String, ResourceClass>();
+        boolean previous = false;
+        try {
+            FileObject f = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    ResourceModel.RESOURCE_NAME);
+            InputStream in = f.openInputStream();
+            try {
+                for (ResourceClass c : ResourceModel.read(in).getResourceClasses()) {
+                    if (!compiled.contains(c.getName()) && TypeNames.exists(processingEnv, c.getName()))
+                        merged.put(c.getName(), c);
+                }
+            } finally {
+                in.close();
+            }
+            previous = true;
+        } catch (IOException e) {
+            // there is no model from a previous build
+        }
+        merged.putAll(resourceClasses);
+        if (merged.isEmpty() && !previous)
+            return;
+        try {
+            FileObject f = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    ResourceModel.RESOURCE_NAME);
+            OutputStream out = f.openOutputStream();
+            try {
+                new ResourceModel(merged.values()).write(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + ResourceModel.RESOURCE_NAME + ": " + e);
+        }
+    }
+}
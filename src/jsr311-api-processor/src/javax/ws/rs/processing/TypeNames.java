@@ -0,0 +1,98 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.util.Locale;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Converts types to the names returned by {@link Class#getName}.
+ */
+final class TypeNames {
+
+    private TypeNames() {
+    }
+
+    /**
+     * Get the name of the erasure of a type as returned by Class.getName
+     */
+    static String getName(ProcessingEnvironment env, TypeMirror type) {
+        type = env.getTypeUtils().erasure(type);
+        switch (type.getKind()) {
+            case ARRAY:
+                return "[" + descriptor(env, ((ArrayType) type).getComponentType());
+            case DECLARED:
+                return env.getElementUtils().getBinaryName(
+                        (TypeElement) ((DeclaredType) type).asElement()).toString();
+            default:
+                // the keyword of a primitive type, whatever the default locale
+                return type.getKind().name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * Check whether a class named in an index written by a previous build
+     * still exists. A '$' in the binary name is taken to separate the name
+     * of a nested class.
+     */
+    static boolean exists(ProcessingEnvironment env, String binaryName) {
+        return env.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+
+    private static String descriptor(ProcessingEnvironment env, TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return "Z";
+            case BYTE: return "B";
+            case CHAR: return "C";
+            case SHORT: return "S";
+            case INT: return "I";
+            case LONG: return "J";
+            case FLOAT: return "F";
+            case DOUBLE: return "D";
+            case ARRAY: return getName(env, type);
+            default: return "L" + getName(env, type) + ";";
+        }
+    }
+}
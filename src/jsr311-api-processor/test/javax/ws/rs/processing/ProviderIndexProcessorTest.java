@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.ext.ProviderIndex;
+import javax.ws.rs.ext.ProviderIndex.Entry;
+import javax.ws.rs.ext.ProviderIndex.Kind;
+import junit.framework.TestCase;
+
+public class ProviderIndexProcessorTest extends TestCase {
+
+    private static final String BASE =
+            "package com.example;\n"
+            + "import java.io.*;\n"
+            + "import java.lang.annotation.Annotation;\n"
+            + "import java.lang.reflect.Type;\n"
+            + "import javax.ws.rs.core.*;\n"
+            + "import javax.ws.rs.ext.*;\n"
+            + "public abstract class AbstractReader<T> implements MessageBodyReader<T> {\n"
+            + "    public boolean isReadable(Class<?> c, Type t, Annotation[] a, MediaType m) { return true; }\n"
+            + "    public T readFrom(Class<T> c, Type t, Annotation[] a, MediaType m,\n"
+            + "            MultivaluedMap<String, String> h, InputStream in) { return null; }\n"
+            + "}\n";
+
+    private static final String PROVIDERS =
+            "package com.example;\n"
+            + "import java.io.*;\n"
+            + "import java.lang.annotation.Annotation;\n"
+            + "import java.lang.reflect.Type;\n"
+            + "import java.util.List;\n"
+            + "import javax.ws.rs.*;\n"
+            + "import javax.ws.rs.core.*;\n"
+            + "import javax.ws.rs.ext.*;\n"
+            + "@Provider @Consumes({\"application/json\", \"text/json\"}) @Produces(\"application/json\")\n"
+            + "public class JsonProvider extends AbstractReader<List<String>> implements MessageBodyWriter<Object> {\n"
+            + "    public boolean isWriteable(Class<?> c, Type t, Annotation[] a, MediaType m) { return true; }\n"
+            + "    public long getSize(Object o, Class<?> c, Type t, Annotation[] a, MediaType m) { return -1; }\n"
+            + "    public void writeTo(Object o, Class<?> c, Type t, Annotation[] a, MediaType m,\n"
+            + "            MultivaluedMap<String, Object> h, OutputStream out) { }\n"
+            + "    @Provider public static class Mapper implements ExceptionMapper<IllegalStateException> {\n"
+            + "        public Response toResponse(IllegalStateException e) { return null; }\n"
+            + "    }\n"
+            + "    @Provider public static class Resolver<T extends CharSequence> implements ContextResolver<T[]> {\n"
+            + "        public T[] getContext(Class<?> c) { return null; }\n"
+            + "    }\n"
+            + "    @Provider public static abstract class Abstract implements ContextResolver<String> { }\n"
+            + "}\n";
+
+    public ProviderIndexProcessorTest(String testName) {
+        super(testName);
+    }
+
+    private static ProviderIndex read(File dir) throws IOException {
+        InputStream in = new FileInputStream(new File(dir, ProviderIndex.RESOURCE_NAME));
+        try {
+            return ProviderIndex.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public void testProcessor() throws Exception {
+        System.out.println("testProcessor");
+        File dir = TestCompiler.compile(new ProviderIndexProcessor(),
+                "com.example.AbstractReader", BASE, "com.example.JsonProvider", PROVIDERS);
+        try {
+            ProviderIndex index = read(dir);
+            assertEquals(4, index.getEntries().size());
+            List<Entry> readers = index.getEntries(Kind.MESSAGE_BODY_READER);
+            assertEquals("[com.example.JsonProvider MESSAGE_BODY_READER<java.util.List>]", readers.toString());
+            assertEquals(Arrays.asList("application/json", "text/json"), readers.get(0).getConsumes());
+            List<Entry> writers = index.getEntries(Kind.MESSAGE_BODY_WRITER);
+            assertEquals("[com.example.JsonProvider MESSAGE_BODY_WRITER<java.lang.Object>]", writers.toString());
+            assertEquals(Arrays.asList("application/json"), writers.get(0).getProduces());
+            assertEquals("[com.example.JsonProvider$Mapper EXCEPTION_MAPPER<java.lang.IllegalStateException>]",
+                    index.getEntries(Kind.EXCEPTION_MAPPER).toString());
+            assertEquals("[com.example.JsonProvider$Resolver CONTEXT_RESOLVER<[Ljava.lang.CharSequence;>]",
+                    index.getEntries(Kind.CONTEXT_RESOLVER).toString());
+            assertTrue(index.getEntries(Kind.EXCEPTION_MAPPER).get(0).getProduces().isEmpty());
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+
+    public void testIncremental() throws Exception {
+        System.out.println("testIncremental");
+        File dir = TestCompiler.compile(new ProviderIndexProcessor(),
+                "com.example.AbstractReader", BASE, "com.example.JsonProvider", PROVIDERS);
+        try {
+            TestCompiler.compile(dir, new ProviderIndexProcessor(), "com.example.Other",
+                    "package com.example;\n"
+                    + "@javax.ws.rs.ext.Provider\n"
+                    + "public class Other implements javax.ws.rs.ext.ContextResolver<Integer> {\n"
+                    + "    public Integer getContext(Class<?> c) { return null; }\n"
+                    + "}\n");
+            assertEquals(5, read(dir).getEntries().size());
+
+            TestCompiler.compile(dir, new ProviderIndexProcessor(), "com.example.JsonProvider",
+                    "package com.example;\n"
+                    + "public class JsonProvider { }\n");
+            assertEquals("[com.example.Other CONTEXT_RESOLVER<java.lang.Integer>]",
+                    read(dir).getEntries().toString());
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.ext.InvokerFactory;
+import javax.ws.rs.ext.MethodInvoker;
+import javax.ws.rs.ext.ResourceModel;
+import javax.ws.rs.ext.ResourceModel.Parameter;
+import javax.ws.rs.ext.ResourceModel.Parameter.Source;
+import javax.ws.rs.ext.ResourceModel.ResourceClass;
+import javax.ws.rs.ext.ResourceModel.ResourceMethod;
+import junit.framework.TestCase;
+
+public class ResourceModelProcessorTest extends TestCase {
+
+    private static final String API =
+            "package com.example;\n"
+            + "import javax.ws.rs.*;\n"
+            + "public interface CustomersApi {\n"
+            + "    @GET @Path(\"{id}\") @Produces({\"application/xml\", \"application/json\"})\n"
+            + "    String get(@PathParam(\"id\") int id, @QueryParam(\"expand\") @DefaultValue(\"none\") String expand);\n"
+            + "}\n";
+
+    private static final String BASE =
+            "package com.example;\n"
+            + "import javax.ws.rs.*;\n"
+            + "public abstract class Base {\n"
+            + "    @HeaderParam(\"X-Tenant\") protected String tenant;\n"
+            + "    @Path(\"orders\") public Orders orders() { return new Orders(); }\n"
+            + "}\n";
+
+    private static final String CUSTOMERS =
+            "package com.example;\n"
+            + "import java.util.List;\n"
+            + "import javax.ws.rs.*;\n"
+            + "import javax.ws.rs.core.*;\n"
+            + "@Path(\"customers\") @Encoded @Consumes(\"application/xml\")\n"
+            + "public class Customers extends Base implements CustomersApi {\n"
+            + "    @Context UriInfo uriInfo;\n"
+            + "    private String ignored;\n"
+            + "    public Customers() { }\n"
+            + "    public Customers(@CookieParam(\"session\") String session) { }\n"
+            + "    public String get(int id, String expand) { return null; }\n"
+            + "    @POST public void create(byte[] entity, @FormParam(\"tags\") List<String>[] tags) { }\n"
+            + "    @QueryParam(\"limit\") public void setLimit(int limit) { }\n"
+            + "    public void setOther(int other) { }\n"
+            + "    public void helper() { }\n"
+            + "}\n";
+
+    private static final String ORDERS =
+            "package com.example;\n"
+            + "import javax.ws.rs.*;\n"
+            + "public class Orders {\n"
+            + "    @GET public String list(@MatrixParam(\"status\") String status) { return null; }\n"
+            + "    public static class Item {\n"
+            + "        @DELETE @Path(\"{item}\") public void delete(@PathParam(\"item\") long item) { }\n"
+            + "    }\n"
+            + "    public static class NotAResource { public void run() { } }\n"
+            + "}\n";
+
+    private static final String ACCOUNTS =
+            "package com.example;\n"
+            + "import java.io.IOException;\n"
+            + "import javax.ws.rs.*;\n"
+            + "@Path(\"accounts\")\n"
+            + "public class Accounts {\n"
+            + "    public int deleted;\n"
+            + "    @GET @Path(\"{id}\") public String get(@PathParam(\"id\") int id, @QueryParam(\"q\") String q) {\n"
+            + "        return id + q;\n"
+            + "    }\n"
+            + "    @DELETE public void delete() { deleted++; }\n"
+            + "    @PUT public String put(byte[] a, @QueryParam(\"b\") long b, @QueryParam(\"c\") char c,\n"
+            + "            @QueryParam(\"d\") boolean d) throws IOException {\n"
+            + "        if (!d) throw new IOException(\"d\");\n"
+            + "        return a.length + \"\" + b + c;\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String GENERIC_BASE =
+            "package com.example;\n"
+            + "import javax.ws.rs.*;\n"
+            + "public class GenericBase<T> {\n"
+            + "    @POST public String post(T entity) { return \"post \" + entity; }\n"
+            + "}\n";
+
+    private static final String NOTES =
+            "package com.example;\n"
+            + "import javax.ws.rs.*;\n"
+            + "@Path(\"notes\")\n"
+            + "public class Notes extends GenericBase<String> {\n"
+            + "}\n";
+
+    public ResourceModelProcessorTest(String testName) {
+        super(testName);
+    }
+
+    private static String[] signatures(List<ResourceMethod> methods) {
+        String[] s = new String[methods.size()];
+        for (int i = 0; i < s.length; i++)
+            s[i] = methods.get(i).toString();
+        Arrays.sort(s);
+        return s;
+    }
+
+    private static ResourceMethod method(ResourceClass c, String name) {
+        for (ResourceMethod m : c.getMethods()) {
+            if (m.getName().equals(name))
+                return m;
+        }
+        fail("No method " + name);
+        return null;
+    }
+
+    private static ResourceModel read(File dir) throws IOException {
+        InputStream in = new FileInputStream(new File(dir, ResourceModel.RESOURCE_NAME));
+        try {
+            return ResourceModel.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String[] names(ResourceModel model) {
+        String[] s = new String[model.getResourceClasses().size()];
+        for (int i = 0; i < s.length; i++)
+            s[i] = model.getResourceClasses().get(i).getName();
+        Arrays.sort(s);
+        return s;
+    }
+
+    public void testProcessor() throws Exception {
+        System.out.println("testProcessor");
+        File dir = TestCompiler.compile(new ResourceModelProcessor(),
+                "com.example.CustomersApi", API, "com.example.Base", BASE,
+                "com.example.Customers", CUSTOMERS, "com.example.Orders", ORDERS);
+        try {
+            ResourceModel model = read(dir);
+            assertEquals(3, model.getResourceClasses().size());
+            assertNull(model.getResourceClass("com.example.Base"));
+            assertNull(model.getResourceClass("com.example.Orders$NotAResource"));
+
+            ResourceClass c = model.getResourceClass("com.example.Customers");
+            assertEquals("customers", c.getPath());
+            assertEquals(Arrays.asList("application/xml"), c.getConsumes());
+            assertTrue(c.getProduces().isEmpty());
+            assertEquals("[CONTEXT javax.ws.rs.core.UriInfo uriInfo, HEADER(X-Tenant) java.lang.String tenant]",
+                    c.getFields().toString());
+            assertEquals(2, c.getConstructors().size());
+            assertEquals(Arrays.asList("create([B,[Ljava.util.List;)", "get(int,java.lang.String)",
+                    "orders()", "setLimit(int)"), Arrays.asList(signatures(c.getMethods())));
+
+            ResourceMethod get = method(c, "get");
+            assertEquals("GET", get.getHttpMethod());
+            assertEquals("{id}", get.getPath());
+            assertEquals(Arrays.asList("application/xml", "application/json"), get.getProduces());
+            Parameter expand = get.getParameters().get(1);
+            assertEquals(Source.QUERY, expand.getSource());
+            assertEquals("expand", expand.getName());
+            assertEquals("none", expand.getDefaultValue());
+            assertTrue(expand.isEncoded());
+
+            ResourceMethod create = method(c, "create");
+            assertEquals("POST", create.getHttpMethod());
+            assertEquals(Source.ENTITY, create.getParameters().get(0).getSource());
+            assertEquals(Source.FORM, create.getParameters().get(1).getSource());
+            assertTrue(method(c, "orders").isSubResourceLocator());
+            ResourceMethod setter = method(c, "setLimit");
+            assertNull(setter.getHttpMethod());
+            assertEquals("[QUERY(limit) int]", setter.getParameters().toString());
+
+            ResourceClass orders = model.getResourceClass("com.example.Orders");
+            assertNull(orders.getPath());
+            assertEquals(Source.MATRIX, method(orders, "list").getParameters().get(0).getSource());
+            assertFalse(method(orders, "list").getParameters().get(0).isEncoded());
+            ResourceMethod delete = method(model.getResourceClass("com.example.Orders$Item"), "delete");
+            assertEquals("DELETE", delete.getHttpMethod());
+            assertEquals("long", delete.getParameters().get(0).getType());
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+
+    public void testInvokers() throws Exception {
+        System.out.println("testInvokers");
+        File dir = TestCompiler.compile(new ResourceModelProcessor(), "com.example.Accounts", ACCOUNTS);
+        try {
+            ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, getClass().getClassLoader());
+            Class<?> c = loader.loadClass("com.example.Accounts");
+            assertNotNull(loader.loadClass("com.example.Accounts" + InvokerFactory.GENERATED_CLASS_SUFFIX));
+            Object resource = c.newInstance();
+            InvokerFactory factory = InvokerFactory.getInstance();
+
+            MethodInvoker get = factory.createInvoker(c, c.getMethod("get", int.class, String.class));
+            assertTrue(get.getClass().getName().startsWith("com.example.Accounts$$Invokers$"));
+            assertEquals("7x", get.invoke(resource, 7, "x"));
+            assertEquals("8y", get.invokeWithArguments(resource, new Object[] {8, "y"}));
+
+            MethodInvoker delete = factory.createInvoker(c, c.getMethod("delete"));
+            assertNull(delete.invoke(resource));
+            assertNull(delete.invokeWithArguments(resource, new Object[0]));
+            assertEquals(2, c.getField("deleted").getInt(resource));
+
+            Method m = c.getMethod("put", byte[].class, long.class, char.class, boolean.class);
+            MethodInvoker put = factory.createInvoker(c, m);
+            assertSame(m, put.getMethod());
+            assertEquals("3" + "4z", put.invokeWithArguments(resource, new Object[] {new byte[3], 4L, 'z', true}));
+            assertEquals("2" + "5y", put.invoke(resource, new byte[2], 5L, 'y', true));
+            try {
+                put.invokeWithArguments(resource, new Object[] {new byte[3], 4L, 'z', false});
+                fail();
+            } catch (IOException e) {
+                assertEquals("d", e.getMessage());
+            }
+            try {
+                put.invokeWithArguments(resource, new Object[] {new byte[3]});
+                fail();
+            } catch (IllegalArgumentException e) {
+            }
+
+            MethodInvoker toString = factory.createInvoker(c, c.getMethod("toString"));
+            assertFalse(toString.getClass().getName().startsWith("com.example.Accounts$$Invokers$"));
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+
+    public void testGenericBaseClass() throws Exception {
+        System.out.println("testGenericBaseClass");
+        File dir = TestCompiler.compile(new ResourceModelProcessor(),
+                "com.example.GenericBase", GENERIC_BASE, "com.example.Notes", NOTES);
+        try {
+            ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, getClass().getClassLoader());
+            Class<?> c = loader.loadClass("com.example.Notes");
+            MethodInvoker post = InvokerFactory.getInstance().createInvoker(c, c.getMethod("post", Object.class));
+            assertTrue(post.getClass().getName().startsWith("com.example.Notes$$Invokers$"));
+            assertEquals("post x", post.invoke(c.newInstance(), "x"));
+            try {
+                post.invoke(c.newInstance(), 1);
+                fail("Expected ClassCastException");
+            } catch (ClassCastException e) {
+            }
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+
+    public void testIncremental() throws Exception {
+        System.out.println("testIncremental");
+        File dir = TestCompiler.compile(new ResourceModelProcessor(),
+                "com.example.CustomersApi", API, "com.example.Base", BASE,
+                "com.example.Customers", CUSTOMERS, "com.example.Orders", ORDERS);
+        try {
+            TestCompiler.compile(dir, new ResourceModelProcessor(), "com.example.Accounts", ACCOUNTS);
+            assertEquals(Arrays.asList("com.example.Accounts", "com.example.Customers", "com.example.Orders",
+                    "com.example.Orders$Item"), Arrays.asList(names(read(dir))));
+
+            TestCompiler.compile(dir, new ResourceModelProcessor(), "com.example.Orders",
+                    "package com.example;\n"
+                    + "public class Orders {\n"
+                    + "    public static class Item {\n"
+                    + "        @javax.ws.rs.GET public String get() { return null; }\n"
+                    + "    }\n"
+                    + "}\n");
+            ResourceModel model = read(dir);
+            assertEquals(Arrays.asList("com.example.Accounts", "com.example.Customers", "com.example.Orders$Item"),
+                    Arrays.asList(names(model)));
+            assertEquals("get()", model.getResourceClass("com.example.Orders$Item").getMethods().get(0).toString());
+        } finally {
+            TestCompiler.delete(dir);
+        }
+    }
+}
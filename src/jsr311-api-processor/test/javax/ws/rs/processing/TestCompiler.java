@@ -0,0 +1,118 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.processing;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles in-memory sources with an annotation processor.
+ */
+class TestCompiler {
+
+    private TestCompiler() {
+    }
+
+    /**
+     * Compile sources into a new temporary directory.
+     * @param processor the processor to run
+     * @param sources pairs of class name and source code
+     * @return the class output directory
+     */
+    static File compile(Processor processor, String... sources) throws Exception {
+        File dir = File.createTempFile("classes", "");
+        dir.delete();
+        dir.mkdirs();
+        compile(dir, processor, sources);
+        return dir;
+    }
+
+    /**
+     * Compile sources into an existing directory, which is also on the class
+     * path, as an incremental build does.
+     * @param dir the class output directory
+     * @param processor the processor to run
+     * @param sources pairs of class name and source code
+     */
+    static void compile(File dir, Processor processor, String... sources) throws Exception {
+        List<JavaFileObject> files = new ArrayList<JavaFileObject>();
+        for (int i = 0; i < sources.length; i += 2) {
+            final String code = sources[i + 1];
+            files.add(new SimpleJavaFileObject(URI.create("string:///" + sources[i].replace('.', '/') + ".java"),
+                    JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return code;
+                }
+            });
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StringWriter messages = new StringWriter();
+        JavaCompiler.CompilationTask task = compiler.getTask(messages, null, null,
+                Arrays.asList("-d", dir.getPath(), "-classpath",
+                        System.getProperty("java.class.path") + File.pathSeparator + dir.getPath()),
+                null, files);
+        task.setProcessors(Arrays.asList(processor));
+        if (!task.call())
+            throw new AssertionError("Compilation failed: " + messages);
+    }
+
+    /**
+     * Delete a directory created by compile.
+     */
+    static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children)
+                delete(c);
+        }
+        f.delete();
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The parsed Accept and Accept-Language headers of a request. Each header
+ * is parsed the first time it is required and the result is retained, so a
+ * runtime that creates one instance per request, e.g. to implement
+ * {@link HttpHeaders#getAcceptableMediaTypes}, {@link Request#selectVariant}
+ * and provider selection, and makes it available to applications via
+ * {@link Context}, parses each header at most once however often it is
+ * consulted.
+ *
+ * <p>Unlike the lists returned by {@link HttpHeaders}, the lists returned by
+ * {@link #getAcceptableMediaTypes} and {@link #getAcceptableLanguages}
+ * expose the quality value of each range. Media ranges are sorted by
+ * quality, highest first, then by specificity, most specific first.
+ * Language ranges are sorted by quality. Ranges of equal rank retain the
+ * order in which they appear in the header.</p>
+ *
+ * <p>Instances are intended to be confined to the thread processing the
+ * request and are not thread-safe.</p>
+ */
+public final class AcceptHeaders {
+
+    /**
+     * The quality value, in thousandths, of a range without a {@code q}
+     * parameter.
+     */
+    public static final int MAX_QUALITY = 1000;
+
+    private static final Comparator<AcceptableMediaType> mediaTypeOrder =
+            new Comparator<AcceptableMediaType>() {
+        public int compare(AcceptableMediaType m1, AcceptableMediaType m2) {
+            if (m1.getQuality() != m2.getQuality())
+                return m2.getQuality() - m1.getQuality();
+            return m2.getSpecificity() - m1.getSpecificity();
+        }
+    };
+
+    private static final Comparator<AcceptableLanguage> languageOrder =
+            new Comparator<AcceptableLanguage>() {
+        public int compare(AcceptableLanguage l1, AcceptableLanguage l2) {
+            return l2.getQuality() - l1.getQuality();
+        }
+    };
+
+    private final MultivaluedMap<String, String> requestHeaders;
+
+    private List<AcceptableMediaType> acceptableMediaTypes;
+    private List<AcceptableLanguage> acceptableLanguages;
+    private List<MediaType> mediaTypes;
+    private List<Locale> locales;
+
+    /**
+     * Create a new instance, no headers are parsed until required.
+     * @param requestHeaders the request headers, keys must be compared
+     * without regard to case
+     * @throws IllegalArgumentException if requestHeaders is null
+     */
+    public AcceptHeaders(MultivaluedMap<String, String> requestHeaders) {
+        if (requestHeaders == null)
+            throw new IllegalArgumentException("requestHeaders is null");
+        this.requestHeaders = requestHeaders;
+    }
+
+    /**
+     * Get the acceptable media ranges. If the request has no Accept header
+     * the list contains the single range {@code *}{@code /*}.
+     * @return a read-only list of media ranges sorted by quality and
+     * specificity
+     * @throws IllegalArgumentException if the Accept header cannot be parsed
+     */
+    public List<AcceptableMediaType> getAcceptableMediaTypes() {
+        if (acceptableMediaTypes == null)
+            acceptableMediaTypes = parseMediaTypes(requestHeaders.get(HttpHeaders.ACCEPT));
+        return acceptableMediaTypes;
+    }
+
+    /**
+     * Get the acceptable language ranges. If the request has no
+     * Accept-Language header the list contains the single range {@code *}.
+     * @return a read-only list of language ranges sorted by quality
+     * @throws IllegalArgumentException if the Accept-Language header cannot
+     * be parsed
+     */
+    public List<AcceptableLanguage> getAcceptableLanguages() {
+        if (acceptableLanguages == null)
+            acceptableLanguages = parseLanguages(requestHeaders.get(HttpHeaders.ACCEPT_LANGUAGE));
+        return acceptableLanguages;
+    }
+
+    /**
+     * Get the media ranges whose quality is greater than zero, in the form
+     * returned by {@link HttpHeaders#getAcceptableMediaTypes}.
+     * @return a read-only list of media types sorted by quality and
+     * specificity
+     * @throws IllegalArgumentException if the Accept header cannot be parsed
+     */
+    public List<MediaType> getMediaTypes() {
+        if (mediaTypes == null) {
+            List<MediaType> l = new ArrayList<MediaType>();
+            for (AcceptableMediaType m : getAcceptableMediaTypes()) {
+                if (m.getQuality() > 0)
+                    l.add(m);
+            }
+            mediaTypes = Collections.unmodifiableList(l);
+        }
+        return mediaTypes;
+    }
+
+    /**
+     * Get the locales of the language ranges whose quality is greater than
+     * zero, in the form returned by {@link HttpHeaders#getAcceptableLanguages}.
+     * @return a read-only list of locales sorted by quality
+     * @throws IllegalArgumentException if the Accept-Language header cannot
+     * be parsed
+     */
+    public List<Locale> getLocales() {
+        if (locales == null) {
+            List<Locale> l = new ArrayList<Locale>();
+            for (AcceptableLanguage a : getAcceptableLanguages()) {
+                if (a.getQuality() > 0)
+                    l.add(a.getLocale());
+            }
+            locales = Collections.unmodifiableList(l);
+        }
+        return locales;
+    }
+
+    /**
+     * Select the variant that best matches the Accept and Accept-Language
+     * headers. A variant whose most specific matching range has a quality of
+     * zero is not acceptable.
+     * @param selector the compiled variants
+     * @param acceptableEncodings the acceptable content encodings with
+     * highest preference first, null or empty means any encoding is
+     * acceptable
+     * @return the variant that best matches, or null if none of the variants
+     * are acceptable
+     * @throws IllegalArgumentException if selector is null or a header
+     * cannot be parsed
+     * @see VariantSelector#selectAcceptable
+     */
+    public Variant selectVariant(VariantSelector selector, List<String> acceptableEncodings) {
+        if (selector == null)
+            throw new IllegalArgumentException("selector is null");
+        return selector.selectAcceptable(getAcceptableMediaTypes(), getAcceptableLanguages(),
+                acceptableEncodings);
+    }
+
+    /**
+     * Parse the values of the Accept header.
+     * @param values the header values, null or empty is equivalent to
+     * {@code *}{@code /*}
+     * @return a read-only list of media ranges sorted by quality and
+     * specificity
+     * @throws IllegalArgumentException if a value cannot be parsed
+     */
+    public static List<AcceptableMediaType> parseMediaTypes(List<String> values) {
+        List<AcceptableMediaType> l = new ArrayList<AcceptableMediaType>();
+        if (values != null) {
+            for (String value : values) {
+                for (String element : split(value))
+                    l.add(AcceptableMediaType.valueOf(element));
+            }
+        }
+        if (l.isEmpty())
+            l.add(new AcceptableMediaType(null, null, null, MAX_QUALITY));
+        Collections.sort(l, mediaTypeOrder);
+        return Collections.unmodifiableList(l);
+    }
+
+    /**
+     * Parse the values of the Accept-Language header.
+     * @param values the header values, null or empty is equivalent to
+     * {@code *}
+     * @return a read-only list of language ranges sorted by quality
+     * @throws IllegalArgumentException if a value cannot be parsed
+     */
+    public static List<AcceptableLanguage> parseLanguages(List<String> values) {
+        List<AcceptableLanguage> l = new ArrayList<AcceptableLanguage>();
+        if (values != null) {
+            for (String value : values) {
+                for (String element : split(value))
+                    l.add(AcceptableLanguage.valueOf(element));
+            }
+        }
+        if (l.isEmpty())
+            l.add(new AcceptableLanguage("*", MAX_QUALITY));
+        Collections.sort(l, languageOrder);
+        return Collections.unmodifiableList(l);
+    }
+
+    /**
+     * Split a header value into its comma separated elements, ignoring
+     * commas in quoted strings and empty elements.
+     */
+    static List<String> split(String value) {
+        List<String> l = new ArrayList<String>(4);
+        if (value == null)
+            return l;
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0, n = value.length(); i <= n; i++) {
+            char c = i < n ? value.charAt(i) : ',';
+            if (quoted) {
+                if (c == '\\')
+                    i++;
+                else if (c == '"')
+                    quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                String element = value.substring(start, Math.min(i, n)).trim();
+                if (element.length() > 0)
+                    l.add(element);
+                start = i + 1;
+            }
+        }
+        if (quoted)
+            throw new IllegalArgumentException("Unterminated quoted string in header value: " + value);
+        return l;
+    }
+
+    /**
+     * Parse a quality value, e.g. {@code 0.5}, into thousandths.
+     * @throws IllegalArgumentException if the value is not a valid quality
+     * value
+     */
+    static int parseQuality(String value) {
+        int n = value == null ? 0 : value.length();
+        if (n == 0 || n > 5)
+            throw invalidQuality(value);
+        char first = value.charAt(0);
+        if (first != '0' && first != '1')
+            throw invalidQuality(value);
+        if (n > 1 && value.charAt(1) != '.')
+            throw invalidQuality(value);
+        int q = (first - '0') * MAX_QUALITY;
+        int scale = 100;
+        for (int i = 2; i < n; i++, scale /= 10) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9')
+                throw invalidQuality(value);
+            q += (c - '0') * scale;
+        }
+        if (q > MAX_QUALITY)
+            throw invalidQuality(value);
+        return q;
+    }
+
+    private static IllegalArgumentException invalidQuality(String value) {
+        return new IllegalArgumentException("Invalid quality value: " + value);
+    }
+
+    /**
+     * Format a quality value in thousandths, e.g. 500 is formatted as
+     * {@code 0.5}.
+     */
+    static String formatQuality(int quality) {
+        if (quality == MAX_QUALITY)
+            return "1";
+        if (quality == 0)
+            return "0";
+        StringBuilder b = new StringBuilder(5).append("0.");
+        int scale = 100;
+        while (quality > 0) {
+            b.append((char) ('0' + quality / scale));
+            quality %= scale;
+            scale /= 10;
+        }
+        return b.toString();
+    }
+
+    static int checkQuality(int quality) {
+        if (quality < 0 || quality > MAX_QUALITY)
+            throw new IllegalArgumentException("quality must be between 0 and " + MAX_QUALITY);
+        return quality;
+    }
+}
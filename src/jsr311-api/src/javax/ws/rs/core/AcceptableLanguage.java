@@ -0,0 +1,199 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Locale;
+
+/**
+ * A language range from an Accept-Language request header together with its
+ * quality value. The quality value is exposed as an integer in thousandths,
+ * e.g. {@code en-GB;q=0.8} has a quality of 800.
+ *
+ * @see AcceptHeaders
+ * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.4">HTTP/1.1 section 14.4</a>
+ */
+public final class AcceptableLanguage {
+
+    private final String tag;
+    private final Locale locale;
+    private final int quality;
+
+    /**
+     * Creates a new instance of AcceptableLanguage.
+     * @param tag the language range, e.g. {@code en-GB} or {@code *}
+     * @param quality the quality value in thousandths
+     * @throws IllegalArgumentException if tag is null or is not a valid
+     * language range or if quality is less than 0 or greater than
+     * {@link AcceptHeaders#MAX_QUALITY}
+     */
+    public AcceptableLanguage(String tag, int quality) {
+        this.tag = checkTag(tag);
+        this.quality = AcceptHeaders.checkQuality(quality);
+        int dash = tag.indexOf('-');
+        if (dash == -1) {
+            this.locale = new Locale(tag);
+        } else {
+            int end = tag.indexOf('-', dash + 1);
+            this.locale = new Locale(tag.substring(0, dash),
+                    tag.substring(dash + 1, end == -1 ? tag.length() : end));
+        }
+    }
+
+    private static String checkTag(String tag) {
+        if (tag == null)
+            throw new IllegalArgumentException("tag is null");
+        if (tag.equals("*"))
+            return tag;
+        int l = tag.length();
+        boolean start = true;
+        for (int i = 0; i < l; i++) {
+            char c = tag.charAt(i);
+            if (c == '-' && !start) {
+                start = true;
+                continue;
+            }
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'))
+                throw new IllegalArgumentException("Invalid language range: " + tag);
+            start = false;
+        }
+        if (start)
+            throw new IllegalArgumentException("Invalid language range: " + tag);
+        return tag;
+    }
+
+    /**
+     * Creates a new instance of AcceptableLanguage by parsing a single
+     * language range of an Accept-Language header.
+     * @param value the language range, e.g. {@code en-GB;q=0.8}
+     * @return the newly created AcceptableLanguage
+     * @throws IllegalArgumentException if the supplied string cannot be
+     * parsed or is null
+     */
+    public static AcceptableLanguage valueOf(String value) throws IllegalArgumentException {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        int semicolon = value.indexOf(';');
+        if (semicolon == -1)
+            return new AcceptableLanguage(value.trim(), AcceptHeaders.MAX_QUALITY);
+        String tag = value.substring(0, semicolon).trim();
+        int quality = AcceptHeaders.MAX_QUALITY;
+        for (String parameter : value.substring(semicolon + 1).split(";")) {
+            int eq = parameter.indexOf('=');
+            if (eq == -1)
+                throw new IllegalArgumentException("Invalid language range: " + value);
+            if (parameter.substring(0, eq).trim().equalsIgnoreCase("q"))
+                quality = AcceptHeaders.parseQuality(parameter.substring(eq + 1).trim());
+        }
+        return new AcceptableLanguage(tag, quality);
+    }
+
+    /**
+     * Get the language range as it appeared in the header.
+     * @return the language range
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Get the locale corresponding to the language range. The wildcard
+     * range is represented by a locale whose language is {@code *}.
+     * @return the locale
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Check whether this is the wildcard language range.
+     * @return true if the range is {@code *}
+     */
+    public boolean isWildcard() {
+        return tag.equals("*");
+    }
+
+    /**
+     * Get the quality value.
+     * @return the quality value in thousandths, from 0 to
+     * {@link AcceptHeaders#MAX_QUALITY}
+     */
+    public int getQuality() {
+        return quality;
+    }
+
+    /**
+     * Compares obj to this language range. Language ranges are compared
+     * without regard to case.
+     * @param obj the object to compare to
+     * @return true if the two language ranges and quality values are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof AcceptableLanguage))
+            return false;
+        AcceptableLanguage other = (AcceptableLanguage) obj;
+        return quality == other.quality && tag.equalsIgnoreCase(other.tag);
+    }
+
+    /**
+     * Generate a hashcode from the language range and quality value.
+     * @return a hashcode
+     */
+    @Override
+    public int hashCode() {
+        return tag.toLowerCase(Locale.ENGLISH).hashCode() * 31 + quality;
+    }
+
+    /**
+     * Convert the language range to a string suitable for use as the value
+     * of an Accept-Language header, including the quality value if it is
+     * less than {@link AcceptHeaders#MAX_QUALITY}.
+     * @return a string version of the language range
+     */
+    @Override
+    public String toString() {
+        if (quality == AcceptHeaders.MAX_QUALITY)
+            return tag;
+        return tag + ";q=" + AcceptHeaders.formatQuality(quality);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A media range from an Accept request header together with its quality
+ * value. The quality value is exposed as an integer in thousandths, e.g.
+ * {@code text/html;q=0.5} has a quality of 500. The {@code q} parameter is
+ * not included in {@link #getParameters}.
+ *
+ * <p>Quality is not considered by {@link #equals} and {@link #hashCode} so
+ * that an instance is interchangeable with the equivalent {@link MediaType}.
+ * </p>
+ *
+ * @see AcceptHeaders
+ * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.1">HTTP/1.1 section 14.1</a>
+ */
+public class AcceptableMediaType extends MediaType {
+
+    private final int quality;
+
+    /**
+     * Creates a new instance of AcceptableMediaType.
+     * @param type the primary type, null is equivalent to
+     * {@link #MEDIA_TYPE_WILDCARD}
+     * @param subtype the subtype, null is equivalent to
+     * {@link #MEDIA_TYPE_WILDCARD}
+     * @param parameters a map of media type parameters, null is the same as
+     * an empty map
+     * @param quality the quality value in thousandths
+     * @throws IllegalArgumentException if quality is less than 0 or greater
+     * than {@link AcceptHeaders#MAX_QUALITY}
+     */
+    public AcceptableMediaType(String type, String subtype, Map<String, String> parameters,
+            int quality) {
+        super(type, subtype, parameters);
+        this.quality = AcceptHeaders.checkQuality(quality);
+    }
+
+    /**
+     * Creates a new instance of AcceptableMediaType by parsing a single media
+     * range of an Accept header.
+     * @param value the media range, e.g. {@code text/html;level=1;q=0.5}
+     * @return the newly created AcceptableMediaType
+     * @throws IllegalArgumentException if the supplied string cannot be
+     * parsed or is null
+     */
+    public static AcceptableMediaType valueOf(String value) throws IllegalArgumentException {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        MediaType m = MediaType.valueOf(value.trim());
+        Map<String, String> parameters = m.getParameters();
+        String q = parameters.get("q");
+        if (q == null)
+            return new AcceptableMediaType(m.getType(), m.getSubtype(), parameters,
+                    AcceptHeaders.MAX_QUALITY);
+        Map<String, String> others = new LinkedHashMap<String, String>(parameters);
+        others.remove("q");
+        return new AcceptableMediaType(m.getType(), m.getSubtype(), others,
+                AcceptHeaders.parseQuality(q));
+    }
+
+    /**
+     * Get the quality value.
+     * @return the quality value in thousandths, from 0 to
+     * {@link AcceptHeaders#MAX_QUALITY}
+     */
+    public int getQuality() {
+        return quality;
+    }
+
+    /**
+     * Get the number of properties that restrict the range: 0 for
+     * {@code *}{@code /*}, 1 for {@code type/*}, 2 for a concrete type and
+     * 3 for a concrete type with parameters.
+     */
+    int getSpecificity() {
+        if (isWildcardType())
+            return 0;
+        if (isWildcardSubtype())
+            return 1;
+        return getParameters().isEmpty() ? 2 : 3;
+    }
+
+    /**
+     * Convert the media range to a string suitable for use as the value of
+     * an Accept header, including the quality value if it is less than
+     * {@link AcceptHeaders#MAX_QUALITY}.
+     * @return a string version of the media range
+     */
+    @Override
+    public String toString() {
+        String s = super.toString();
+        if (quality == AcceptHeaders.MAX_QUALITY)
+            return s;
+        return s + ";q=" + AcceptHeaders.formatQuality(quality);
+    }
+}
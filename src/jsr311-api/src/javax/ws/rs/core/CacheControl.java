@@ -50,8 +50,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.ws.rs.ext.RuntimeDelegate;
-import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.HeaderDelegateTable;
 
 /**
  * An abstraction for the value of a HTTP Cache-Control response header.
@@ -70,10 +69,6 @@ public class CacheControl {
     private int sMaxAge = -1;
     private Map<String, String> cacheExtension;
     
-    private static final HeaderDelegate<CacheControl> delegate = 
-            RuntimeDelegate.getInstance().createHeaderDelegate(CacheControl.class);
-
-    
     /**
      * Create a new instance of CacheControl. The new instance will have the 
      * following default settings:
@@ -107,7 +102,7 @@ public class CacheControl {
      * or is null
      */
     public static CacheControl valueOf(String value) throws IllegalArgumentException {
-        return delegate.fromString(value);
+        return HeaderDelegateTable.getHeaderDelegate(CacheControl.class).fromString(value);
     }
     
     /**
@@ -320,7 +315,7 @@ public class CacheControl {
      */
     @Override
     public String toString() {
-        return delegate.toString(this);
+        return HeaderDelegateTable.getHeaderDelegate(CacheControl.class).toString(this);
     }
 
     /**
@@ -0,0 +1,484 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact {@link MultivaluedMap} whose keys are compared without regard to
+ * case, suitable for holding HTTP headers.
+ *
+ * <p>Most headers have exactly one value so a key's first value is stored
+ * inline and a list is only created when a second value is added or when the
+ * values are requested as a list via {@link #get}. Entries are held in flat
+ * arrays in insertion order and located through an open addressing index
+ * keyed by a case-insensitive hash of the key. Consequently
+ * {@link #getFirst} never allocates and {@link #putSingle} only allocates when
+ * the map needs to grow.</p>
+ *
+ * <p>Keys retain the case in which they were first added. Lists returned by
+ * {@link #get} are live until the key's values are replaced by
+ * {@link #putSingle} or {@link #put}. Null keys are not supported. This class
+ * is not thread-safe.</p>
+ *
+ * @param <V> the type of the values
+ */
+public class CaseInsensitiveMultivaluedMap<V> extends AbstractMap<String, List<V>>
+        implements MultivaluedMap<String, V> {
+
+    private static final int EMPTY = -1;
+    private static final int DELETED = -2;
+    private static final int MIN_INDEX_LENGTH = 8;
+
+    /**
+     * Open addressing index, each slot is EMPTY, DELETED or an entry position
+     */
+    private int[] index;
+
+    /**
+     * Entries in insertion order, a removed entry has a null key
+     */
+    private String[] keys;
+    private int[] hashes;
+    private Object[] values;
+    private boolean[] inline;
+
+    /**
+     * Number of entry positions used, including removed entries
+     */
+    private int used;
+    private int size;
+
+    /**
+     * Create a new empty map.
+     */
+    public CaseInsensitiveMultivaluedMap() {
+        this(MIN_INDEX_LENGTH * 3 / 4);
+    }
+
+    /**
+     * Create a new empty map sized to hold the expected number of keys
+     * without growing.
+     * @param expectedSize the expected number of keys
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public CaseInsensitiveMultivaluedMap(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expectedSize < 0");
+        allocate(indexLengthFor(expectedSize));
+    }
+
+    /**
+     * Create a new map containing the keys and values of the supplied map.
+     * Keys that differ only by case are merged.
+     * @param m the map whose keys and values are copied
+     * @throws IllegalArgumentException if m is null or contains a null key
+     */
+    public CaseInsensitiveMultivaluedMap(Map<String, ? extends List<V>> m) {
+        this(m == null ? 0 : m.size());
+        if (m == null)
+            throw new IllegalArgumentException("m is null");
+        for (Map.Entry<String, ? extends List<V>> e : m.entrySet()) {
+            List<V> l = e.getValue();
+            if (l == null)
+                continue;
+            for (V v : l)
+                add(e.getKey(), v);
+        }
+    }
+
+    private static int indexLengthFor(int expectedSize) {
+        int n = MIN_INDEX_LENGTH;
+        while (n * 3 / 4 < expectedSize)
+            n <<= 1;
+        return n;
+    }
+
+    private void allocate(int indexLength) {
+        index = new int[indexLength];
+        Arrays.fill(index, EMPTY);
+        int capacity = indexLength * 3 / 4;
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        inline = new boolean[capacity];
+    }
+
+    /**
+     * Compute a hash of the key that is consistent with
+     * {@link String#equalsIgnoreCase}.
+     */
+    static int hash(String key) {
+        int h = 0;
+        for (int i = 0, n = key.length(); i < n; i++) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            else if (c >= 0x80)
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Find the entry position of a key.
+     * @return the position or -1 if the key is not present
+     */
+    private int find(Object key) {
+        if (!(key instanceof String))
+            return -1;
+        String k = (String) key;
+        int h = hash(k);
+        int mask = index.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int e = index[i];
+            if (e == EMPTY)
+                return -1;
+            if (e >= 0 && hashes[e] == h && keys[e].equalsIgnoreCase(k))
+                return e;
+        }
+    }
+
+    /**
+     * Add a new key, the caller must have checked that the key is not
+     * already present.
+     * @return the entry position of the key
+     */
+    private int insert(String key) {
+        if (key == null)
+            throw new IllegalArgumentException("key is null");
+        if (used == keys.length)
+            resize(size >= keys.length / 2 ? index.length << 1 : index.length);
+        int h = hash(key);
+        int mask = index.length - 1;
+        int i = h & mask;
+        while (index[i] >= 0)
+            i = (i + 1) & mask;
+        int e = used++;
+        index[i] = e;
+        keys[e] = key;
+        hashes[e] = h;
+        size++;
+        return e;
+    }
+
+    /**
+     * Rebuild the index and compact the entries, dropping removed entries.
+     */
+    private void resize(int indexLength) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        boolean[] oldInline = inline;
+        int oldUsed = used;
+        allocate(indexLength);
+        int mask = index.length - 1;
+        int e = 0;
+        for (int j = 0; j < oldUsed; j++) {
+            if (oldKeys[j] == null)
+                continue;
+            keys[e] = oldKeys[j];
+            hashes[e] = oldHashes[j];
+            values[e] = oldValues[j];
+            inline[e] = oldInline[j];
+            int i = hashes[e] & mask;
+            while (index[i] != EMPTY)
+                i = (i + 1) & mask;
+            index[i] = e;
+            e++;
+        }
+        used = e;
+    }
+
+    private void removeAt(int e) {
+        int mask = index.length - 1;
+        int i = hashes[e] & mask;
+        while (index[i] != e)
+            i = (i + 1) & mask;
+        index[i] = DELETED;
+        keys[e] = null;
+        values[e] = null;
+        inline[e] = false;
+        size--;
+    }
+
+    /**
+     * Get the values at an entry position as a list, converting an inline
+     * value to a list so that the returned list is live.
+     */
+    @SuppressWarnings("unchecked")
+    private List<V> listAt(int e) {
+        if (inline[e]) {
+            List<V> l = new ArrayList<V>(2);
+            l.add((V) values[e]);
+            values[e] = l;
+            inline[e] = false;
+            return l;
+        }
+        return (List<V>) values[e];
+    }
+
+    /**
+     * Get the values at an entry position without converting an inline
+     * value.
+     */
+    @SuppressWarnings("unchecked")
+    private List<V> snapshotAt(int e) {
+        return inline[e] ? Collections.singletonList((V) values[e]) : (List<V>) values[e];
+    }
+
+    public void putSingle(String key, V value) {
+        int e = find(key);
+        if (e < 0)
+            e = insert(key);
+        values[e] = value;
+        inline[e] = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void add(String key, V value) {
+        int e = find(key);
+        if (e < 0) {
+            e = insert(key);
+            values[e] = value;
+            inline[e] = true;
+        } else if (inline[e]) {
+            List<V> l = new ArrayList<V>(4);
+            l.add((V) values[e]);
+            l.add(value);
+            values[e] = l;
+            inline[e] = false;
+        } else {
+            ((List<V>) values[e]).add(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getFirst(String key) {
+        int e = find(key);
+        if (e < 0)
+            return null;
+        if (inline[e])
+            return (V) values[e];
+        List<V> l = (List<V>) values[e];
+        return l.isEmpty() ? null : l.get(0);
+    }
+
+    @Override
+    public List<V> get(Object key) {
+        int e = find(key);
+        return e < 0 ? null : listAt(e);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Replace the values of a key. The supplied list is stored as is and
+     * subsequently returned by {@link #get}.
+     * @param key the key
+     * @param value the list of values
+     * @return the previous values of the key or null if the key was not
+     * present
+     * @throws IllegalArgumentException if key or value is null
+     */
+    @Override
+    public List<V> put(String key, List<V> value) {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        int e = find(key);
+        List<V> previous = null;
+        if (e < 0)
+            e = insert(key);
+        else
+            previous = snapshotAt(e);
+        values[e] = value;
+        inline[e] = false;
+        return previous;
+    }
+
+    @Override
+    public List<V> remove(Object key) {
+        int e = find(key);
+        if (e < 0)
+            return null;
+        List<V> previous = snapshotAt(e);
+        removeAt(e);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(index, EMPTY);
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        Arrays.fill(inline, 0, used, false);
+        used = 0;
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<V>>> entrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, List<V>>> {
+
+        @Override
+        public Iterator<Map.Entry<String, List<V>>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CaseInsensitiveMultivaluedMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, List<V>>> {
+        private int next = advance(0);
+        private int current = -1;
+
+        private int advance(int e) {
+            while (e < used && keys[e] == null)
+                e++;
+            return e;
+        }
+
+        public boolean hasNext() {
+            return next < used;
+        }
+
+        public Map.Entry<String, List<V>> next() {
+            if (next >= used)
+                throw new NoSuchElementException();
+            current = next;
+            next = advance(next + 1);
+            return new Entry(current);
+        }
+
+        public void remove() {
+            if (current < 0 || keys[current] == null)
+                throw new IllegalStateException();
+            removeAt(current);
+            current = -1;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, List<V>> {
+        private final int e;
+        private final String key;
+
+        Entry(int e) {
+            this.e = e;
+            this.key = keys[e];
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public List<V> getValue() {
+            checkPresent();
+            return listAt(e);
+        }
+
+        public List<V> setValue(List<V> value) {
+            if (value == null)
+                throw new IllegalArgumentException("value is null");
+            checkPresent();
+            List<V> previous = snapshotAt(e);
+            values[e] = value;
+            inline[e] = false;
+            return previous;
+        }
+
+        private void checkPresent() {
+            if (e >= used || keys[e] != key)
+                throw new IllegalStateException("Entry has been removed");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -47,8 +47,7 @@
 
 package javax.ws.rs.core;
 
-import javax.ws.rs.ext.RuntimeDelegate;
-import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.HeaderDelegateTable;
 
 /**
  * Represents the value of a HTTP cookie, transferred in a request. 
@@ -63,9 +62,6 @@ public class Cookie {
      */
     public static final int DEFAULT_VERSION = 1;
     
-    private static final HeaderDelegate<Cookie> delegate = 
-            RuntimeDelegate.getInstance().createHeaderDelegate(Cookie.class);
-    
     private String name;
     private String value;
     private int version;
@@ -121,7 +117,7 @@ public class Cookie {
      * or is null
      */
     public static Cookie valueOf(String value) throws IllegalArgumentException {
-        return delegate.fromString(value);
+        return HeaderDelegateTable.getHeaderDelegate(Cookie.class).fromString(value);
     }
     
     /**
@@ -171,7 +167,7 @@ public class Cookie {
      */
     @Override
     public String toString() {
-        return delegate.toString(this);
+        return HeaderDelegateTable.getHeaderDelegate(Cookie.class).toString(this);
     }
 
     /**
@@ -47,8 +47,7 @@
 
 package javax.ws.rs.core;
 
-import javax.ws.rs.ext.RuntimeDelegate;
-import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.HeaderDelegateTable;
 
 /**
  * An abstraction for the value of a HTTP Entity Tag, used as the value 
@@ -59,9 +58,6 @@ public class EntityTag {
     
     private String value;
     private boolean weak;
-    
-    private static final HeaderDelegate<EntityTag> delegate = 
-            RuntimeDelegate.getInstance().createHeaderDelegate(EntityTag.class);
 
     /**
      * Creates a new instance of a strong EntityTag. 
@@ -93,7 +89,7 @@ public class EntityTag {
      * or is null
      */
     public static EntityTag valueOf(String value) throws IllegalArgumentException {
-        return delegate.fromString(value);
+        return HeaderDelegateTable.getHeaderDelegate(EntityTag.class).fromString(value);
     }
     
     /**
@@ -149,6 +145,6 @@ public class EntityTag {
      */
     @Override
     public String toString() {
-        return delegate.toString(this);
+        return HeaderDelegateTable.getHeaderDelegate(EntityTag.class).toString(this);
     }
 }
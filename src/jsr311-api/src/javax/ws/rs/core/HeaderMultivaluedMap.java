@@ -0,0 +1,444 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link MultivaluedMap} of HTTP headers that holds the headers declared by
+ * {@link HttpHeaders} in slots indexed by their {@link HeaderNames}
+ * identifier and all other headers in a {@link CaseInsensitiveMultivaluedMap}.
+ *
+ * <p>In addition to the methods of {@code MultivaluedMap}, well-known headers
+ * may be accessed by identifier, e.g.
+ * {@code getFirst(HeaderNames.CONTENT_TYPE)}, which involves neither hashing
+ * nor case-folding. Access by name resolves the name with
+ * {@link HeaderNames#idOf(String)} first.</p>
+ *
+ * <p>Well-known headers are reported under the name declared by
+ * {@link HttpHeaders} and are iterated in identifier order before all other
+ * headers. As with {@link CaseInsensitiveMultivaluedMap} a single value is
+ * held inline until a second value is added or the values are requested as
+ * a list. Null keys are not supported. This class is not thread-safe.</p>
+ *
+ * @param <V> the type of the values
+ * @see HeaderNames
+ */
+public class HeaderMultivaluedMap<V> extends AbstractMap<String, List<V>>
+        implements MultivaluedMap<String, V> {
+
+    private static final byte ABSENT = 0;
+    private static final byte INLINE = 1;
+    private static final byte LIST = 2;
+
+    private final Object[] known = new Object[HeaderNames.COUNT];
+    private final byte[] state = new byte[HeaderNames.COUNT];
+    private int knownSize;
+
+    /**
+     * Headers that are not declared by HttpHeaders, created on demand
+     */
+    private CaseInsensitiveMultivaluedMap<V> others;
+
+    /**
+     * Create a new empty map.
+     */
+    public HeaderMultivaluedMap() {
+    }
+
+    private CaseInsensitiveMultivaluedMap<V> others() {
+        if (others == null)
+            others = new CaseInsensitiveMultivaluedMap<V>();
+        return others;
+    }
+
+    private static void checkId(int id) {
+        if (id < 0 || id >= HeaderNames.COUNT)
+            throw new IllegalArgumentException("Unknown header id " + id);
+    }
+
+    /**
+     * Set the value of a well-known header, replacing any existing values.
+     * @param id the header identifier
+     * @param value the single value of the header
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public void putSingle(int id, V value) {
+        checkId(id);
+        if (state[id] == ABSENT)
+            knownSize++;
+        known[id] = value;
+        state[id] = INLINE;
+    }
+
+    /**
+     * Add a value to a well-known header.
+     * @param id the header identifier
+     * @param value the value to be added
+     * @throws IllegalArgumentException if id is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public void add(int id, V value) {
+        checkId(id);
+        switch (state[id]) {
+            case ABSENT:
+                knownSize++;
+                known[id] = value;
+                state[id] = INLINE;
+                break;
+            case INLINE:
+                List<V> l = new ArrayList<V>(4);
+                l.add((V) known[id]);
+                l.add(value);
+                known[id] = l;
+                state[id] = LIST;
+                break;
+            default:
+                ((List<V>) known[id]).add(value);
+        }
+    }
+
+    /**
+     * Get the first value of a well-known header.
+     * @param id the header identifier
+     * @return the first value or null if the header is not present
+     * @throws IllegalArgumentException if id is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public V getFirst(int id) {
+        checkId(id);
+        switch (state[id]) {
+            case ABSENT:
+                return null;
+            case INLINE:
+                return (V) known[id];
+            default:
+                List<V> l = (List<V>) known[id];
+                return l.isEmpty() ? null : l.get(0);
+        }
+    }
+
+    /**
+     * Get the values of a well-known header.
+     * @param id the header identifier
+     * @return the live list of values or null if the header is not present
+     * @throws IllegalArgumentException if id is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> get(int id) {
+        checkId(id);
+        switch (state[id]) {
+            case ABSENT:
+                return null;
+            case INLINE:
+                List<V> l = new ArrayList<V>(2);
+                l.add((V) known[id]);
+                known[id] = l;
+                state[id] = LIST;
+                return l;
+            default:
+                return (List<V>) known[id];
+        }
+    }
+
+    /**
+     * Determine whether a well-known header is present.
+     * @param id the header identifier
+     * @return true if the header is present
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public boolean containsKey(int id) {
+        checkId(id);
+        return state[id] != ABSENT;
+    }
+
+    /**
+     * Remove a well-known header.
+     * @param id the header identifier
+     * @return the previous values or null if the header was not present
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public List<V> remove(int id) {
+        checkId(id);
+        if (state[id] == ABSENT)
+            return null;
+        List<V> previous = snapshot(id);
+        known[id] = null;
+        state[id] = ABSENT;
+        knownSize--;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> snapshot(int id) {
+        return state[id] == INLINE ? Collections.singletonList((V) known[id]) : (List<V>) known[id];
+    }
+
+    private void set(int id, List<V> value) {
+        if (state[id] == ABSENT)
+            knownSize++;
+        known[id] = value;
+        state[id] = LIST;
+    }
+
+    public void putSingle(String key, V value) {
+        int id = HeaderNames.idOf(key);
+        if (id >= 0)
+            putSingle(id, value);
+        else
+            others().putSingle(key, value);
+    }
+
+    public void add(String key, V value) {
+        int id = HeaderNames.idOf(key);
+        if (id >= 0)
+            add(id, value);
+        else
+            others().add(key, value);
+    }
+
+    public V getFirst(String key) {
+        int id = HeaderNames.idOf(key);
+        if (id >= 0)
+            return getFirst(id);
+        return others == null ? null : others.getFirst(key);
+    }
+
+    @Override
+    public List<V> get(Object key) {
+        if (!(key instanceof String))
+            return null;
+        int id = HeaderNames.idOf((String) key);
+        if (id >= 0)
+            return get(id);
+        return others == null ? null : others.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String))
+            return false;
+        int id = HeaderNames.idOf((String) key);
+        if (id >= 0)
+            return state[id] != ABSENT;
+        return others != null && others.containsKey(key);
+    }
+
+    /**
+     * Replace the values of a header. The supplied list is stored as is and
+     * subsequently returned by {@link #get}.
+     * @param key the header name
+     * @param value the list of values
+     * @return the previous values of the header or null if the header was
+     * not present
+     * @throws IllegalArgumentException if key or value is null
+     */
+    @Override
+    public List<V> put(String key, List<V> value) {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        int id = HeaderNames.idOf(key);
+        if (id < 0)
+            return others().put(key, value);
+        List<V> previous = state[id] == ABSENT ? null : snapshot(id);
+        set(id, value);
+        return previous;
+    }
+
+    @Override
+    public List<V> remove(Object key) {
+        if (!(key instanceof String))
+            return null;
+        int id = HeaderNames.idOf((String) key);
+        if (id >= 0)
+            return remove(id);
+        return others == null ? null : others.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return knownSize + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int id = 0; id < HeaderNames.COUNT; id++) {
+            known[id] = null;
+            state[id] = ABSENT;
+        }
+        knownSize = 0;
+        if (others != null)
+            others.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<V>>> entrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, List<V>>> {
+
+        @Override
+        public Iterator<Map.Entry<String, List<V>>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return HeaderMultivaluedMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            HeaderMultivaluedMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, List<V>>> {
+        private int next = advance(0);
+        private int current = -1;
+        private boolean currentIsOther;
+        private Iterator<Map.Entry<String, List<V>>> othersIterator;
+
+        private int advance(int id) {
+            while (id < HeaderNames.COUNT && state[id] == ABSENT)
+                id++;
+            return id;
+        }
+
+        public boolean hasNext() {
+            if (next < HeaderNames.COUNT)
+                return true;
+            if (othersIterator == null) {
+                if (others == null)
+                    return false;
+                othersIterator = others.entrySet().iterator();
+            }
+            return othersIterator.hasNext();
+        }
+
+        public Map.Entry<String, List<V>> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            if (next < HeaderNames.COUNT) {
+                current = next;
+                next = advance(next + 1);
+                return new KnownEntry(current);
+            }
+            current = -1;
+            Map.Entry<String, List<V>> e = othersIterator.next();
+            currentIsOther = true;
+            return e;
+        }
+
+        public void remove() {
+            if (currentIsOther) {
+                othersIterator.remove();
+                currentIsOther = false;
+                return;
+            }
+            if (current < 0 || state[current] == ABSENT)
+                throw new IllegalStateException();
+            HeaderMultivaluedMap.this.remove(current);
+            current = -1;
+        }
+    }
+
+    private final class KnownEntry implements Map.Entry<String, List<V>> {
+        private final int id;
+
+        KnownEntry(int id) {
+            this.id = id;
+        }
+
+        public String getKey() {
+            return HeaderNames.nameOf(id);
+        }
+
+        public List<V> getValue() {
+            return get(id);
+        }
+
+        public List<V> setValue(List<V> value) {
+            if (value == null)
+                throw new IllegalArgumentException("value is null");
+            if (state[id] == ABSENT)
+                throw new IllegalStateException("Entry has been removed");
+            List<V> previous = snapshot(id);
+            set(id, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            List<V> value = getValue();
+            return getKey().equals(other.getKey())
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            List<V> value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
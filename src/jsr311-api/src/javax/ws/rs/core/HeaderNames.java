@@ -0,0 +1,331 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Assigns small integer identifiers to the header names declared by
+ * {@link HttpHeaders}. A runtime can resolve a header name to its identifier
+ * once, when the name is read from the request, and subsequently access the
+ * header through the identifier, e.g. using {@link HeaderMultivaluedMap},
+ * without hashing and case-folding the name again.
+ *
+ * <p>Identifiers are assigned in the order the constants are declared in
+ * {@link HttpHeaders} and range from 0 to {@link #COUNT} - 1.</p>
+ *
+ * @see HeaderMultivaluedMap
+ */
+public final class HeaderNames {
+
+    /**
+     * The identifier of {@link HttpHeaders#ACCEPT}.
+     */
+    public static final int ACCEPT = 0;
+
+    /**
+     * The identifier of {@link HttpHeaders#ACCEPT_CHARSET}.
+     */
+    public static final int ACCEPT_CHARSET = 1;
+
+    /**
+     * The identifier of {@link HttpHeaders#ACCEPT_ENCODING}.
+     */
+    public static final int ACCEPT_ENCODING = 2;
+
+    /**
+     * The identifier of {@link HttpHeaders#ACCEPT_LANGUAGE}.
+     */
+    public static final int ACCEPT_LANGUAGE = 3;
+
+    /**
+     * The identifier of {@link HttpHeaders#AUTHORIZATION}.
+     */
+    public static final int AUTHORIZATION = 4;
+
+    /**
+     * The identifier of {@link HttpHeaders#CACHE_CONTROL}.
+     */
+    public static final int CACHE_CONTROL = 5;
+
+    /**
+     * The identifier of {@link HttpHeaders#CONTENT_ENCODING}.
+     */
+    public static final int CONTENT_ENCODING = 6;
+
+    /**
+     * The identifier of {@link HttpHeaders#CONTENT_LANGUAGE}.
+     */
+    public static final int CONTENT_LANGUAGE = 7;
+
+    /**
+     * The identifier of {@link HttpHeaders#CONTENT_LENGTH}.
+     */
+    public static final int CONTENT_LENGTH = 8;
+
+    /**
+     * The identifier of {@link HttpHeaders#CONTENT_LOCATION}.
+     */
+    public static final int CONTENT_LOCATION = 9;
+
+    /**
+     * The identifier of {@link HttpHeaders#CONTENT_TYPE}.
+     */
+    public static final int CONTENT_TYPE = 10;
+
+    /**
+     * The identifier of {@link HttpHeaders#DATE}.
+     */
+    public static final int DATE = 11;
+
+    /**
+     * The identifier of {@link HttpHeaders#ETAG}.
+     */
+    public static final int ETAG = 12;
+
+    /**
+     * The identifier of {@link HttpHeaders#EXPIRES}.
+     */
+    public static final int EXPIRES = 13;
+
+    /**
+     * The identifier of {@link HttpHeaders#HOST}.
+     */
+    public static final int HOST = 14;
+
+    /**
+     * The identifier of {@link HttpHeaders#IF_MATCH}.
+     */
+    public static final int IF_MATCH = 15;
+
+    /**
+     * The identifier of {@link HttpHeaders#IF_MODIFIED_SINCE}.
+     */
+    public static final int IF_MODIFIED_SINCE = 16;
+
+    /**
+     * The identifier of {@link HttpHeaders#IF_NONE_MATCH}.
+     */
+    public static final int IF_NONE_MATCH = 17;
+
+    /**
+     * The identifier of {@link HttpHeaders#IF_UNMODIFIED_SINCE}.
+     */
+    public static final int IF_UNMODIFIED_SINCE = 18;
+
+    /**
+     * The identifier of {@link HttpHeaders#LAST_MODIFIED}.
+     */
+    public static final int LAST_MODIFIED = 19;
+
+    /**
+     * The identifier of {@link HttpHeaders#LOCATION}.
+     */
+    public static final int LOCATION = 20;
+
+    /**
+     * The identifier of {@link HttpHeaders#USER_AGENT}.
+     */
+    public static final int USER_AGENT = 21;
+
+    /**
+     * The identifier of {@link HttpHeaders#VARY}.
+     */
+    public static final int VARY = 22;
+
+    /**
+     * The identifier of {@link HttpHeaders#WWW_AUTHENTICATE}.
+     */
+    public static final int WWW_AUTHENTICATE = 23;
+
+    /**
+     * The identifier of {@link HttpHeaders#COOKIE}.
+     */
+    public static final int COOKIE = 24;
+
+    /**
+     * The identifier of {@link HttpHeaders#SET_COOKIE}.
+     */
+    public static final int SET_COOKIE = 25;
+
+    private static final String[] names = {
+        HttpHeaders.ACCEPT,
+        HttpHeaders.ACCEPT_CHARSET,
+        HttpHeaders.ACCEPT_ENCODING,
+        HttpHeaders.ACCEPT_LANGUAGE,
+        HttpHeaders.AUTHORIZATION,
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.CONTENT_ENCODING,
+        HttpHeaders.CONTENT_LANGUAGE,
+        HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.CONTENT_LOCATION,
+        HttpHeaders.CONTENT_TYPE,
+        HttpHeaders.DATE,
+        HttpHeaders.ETAG,
+        HttpHeaders.EXPIRES,
+        HttpHeaders.HOST,
+        HttpHeaders.IF_MATCH,
+        HttpHeaders.IF_MODIFIED_SINCE,
+        HttpHeaders.IF_NONE_MATCH,
+        HttpHeaders.IF_UNMODIFIED_SINCE,
+        HttpHeaders.LAST_MODIFIED,
+        HttpHeaders.LOCATION,
+        HttpHeaders.USER_AGENT,
+        HttpHeaders.VARY,
+        HttpHeaders.WWW_AUTHENTICATE,
+        HttpHeaders.COOKIE,
+        HttpHeaders.SET_COOKIE
+    };
+
+    /**
+     * The number of well-known header names.
+     */
+    public static final int COUNT = names.length;
+
+    /**
+     * Lower case names as bytes, used to match names read from the wire
+     */
+    private static final byte[][] lowerNames = new byte[COUNT][];
+
+    /**
+     * Open addressing table of identifiers keyed by case-insensitive hash,
+     * -1 marks an empty slot
+     */
+    private static final int[] table = new int[64];
+
+    static {
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        for (int id = 0; id < COUNT; id++) {
+            String lower = names[id].toLowerCase(Locale.ENGLISH);
+            byte[] b = new byte[lower.length()];
+            for (int i = 0; i < b.length; i++)
+                b[i] = (byte) lower.charAt(i);
+            lowerNames[id] = b;
+            int slot = CaseInsensitiveMultivaluedMap.hash(names[id]) & mask;
+            while (table[slot] >= 0)
+                slot = (slot + 1) & mask;
+            table[slot] = id;
+        }
+    }
+
+    private HeaderNames() {
+    }
+
+    /**
+     * Get the identifier of a header name.
+     * @param name the header name, case insensitive
+     * @return the identifier or -1 if name is null or is not one of the names
+     * declared by {@link HttpHeaders}
+     */
+    public static int idOf(String name) {
+        if (name == null)
+            return -1;
+        int mask = table.length - 1;
+        for (int slot = CaseInsensitiveMultivaluedMap.hash(name) & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id < 0)
+                return -1;
+            if (names[id] == name || names[id].equalsIgnoreCase(name))
+                return id;
+        }
+    }
+
+    /**
+     * Get the identifier of a header name held as US-ASCII bytes, e.g. in a
+     * buffer the request was read into. The name is case-folded as it is
+     * hashed so no intermediate string is created.
+     * @param b the buffer
+     * @param off the offset of the name in the buffer
+     * @param len the length of the name
+     * @return the identifier or -1 if the name is not one of the names
+     * declared by {@link HttpHeaders}
+     * @throws IndexOutOfBoundsException if off or len are out of range
+     */
+    public static int idOf(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length)
+            throw new IndexOutOfBoundsException();
+        int h = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            int c = b[i];
+            if (c < 0)
+                return -1;
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            h = 31 * h + c;
+        }
+        h ^= h >>> 16;
+        int mask = table.length - 1;
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id < 0)
+                return -1;
+            if (matches(lowerNames[id], b, off, len))
+                return id;
+        }
+    }
+
+    private static boolean matches(byte[] lower, byte[] b, int off, int len) {
+        if (lower.length != len)
+            return false;
+        for (int i = 0; i < len; i++) {
+            int c = b[off + i];
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            if (c != lower[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the header name with the supplied identifier.
+     * @param id the identifier
+     * @return the name as declared by {@link HttpHeaders}
+     * @throws IllegalArgumentException if id is out of range
+     */
+    public static String nameOf(int id) {
+        if (id < 0 || id >= COUNT)
+            throw new IllegalArgumentException("Unknown header id " + id);
+        return names[id];
+    }
+}
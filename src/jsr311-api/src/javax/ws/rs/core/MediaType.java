@@ -49,10 +49,10 @@ package javax.ws.rs.core;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
-import javax.ws.rs.ext.RuntimeDelegate;
-import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.HeaderDelegateTable;
 
 /**
  * An abstraction for a media type. Instances are immutable.
@@ -64,13 +64,20 @@ public class MediaType {
     private String subtype;
     private Map<String, String> parameters;
 
+    /**
+     * Lower case forms of type and subtype, wildcard flags and hash code
+     * computed once at construction so that comparisons do not allocate
+     */
+    final String lowerType;
+    final String lowerSubtype;
+    private final boolean wildcardType;
+    private final boolean wildcardSubtype;
+    private final int hash;
+
     /**
      * Empty immutable map used for all instances without parameters
      */
     private static final Map<String, String> emptyMap = Collections.emptyMap();
-    
-    private static final HeaderDelegate<MediaType> delegate = 
-            RuntimeDelegate.getInstance().createHeaderDelegate(MediaType.class);
 
     /** The value of a type or subtype wildcard: "*" */
     public static final String MEDIA_TYPE_WILDCARD = "*";
@@ -138,13 +145,17 @@ public class MediaType {
 
     /**
      * Creates a new instance of MediaType by parsing the supplied string.
+     * Parsed instances are shared via the {@link MediaTypeCache} of the
+     * current runtime delegate so repeated calls with the same string may
+     * return the same instance.
      * @param type the media type string
      * @return the newly created MediaType
      * @throws IllegalArgumentException if the supplied string cannot be parsed
      * or is null
      */
     public static MediaType valueOf(String type) throws IllegalArgumentException {
-        return delegate.fromString(type);
+        HeaderDelegateTable t = HeaderDelegateTable.getInstance();
+        return t.getMediaTypeCache().get(type, t.get(MediaType.class));
     }
 
     /**
@@ -173,6 +184,11 @@ public class MediaType {
             }
             this.parameters = Collections.unmodifiableMap(map);
         }
+        this.lowerType = this.type.toLowerCase(Locale.ENGLISH);
+        this.lowerSubtype = this.subtype.toLowerCase(Locale.ENGLISH);
+        this.wildcardType = this.type.equals(MEDIA_TYPE_WILDCARD);
+        this.wildcardSubtype = this.subtype.equals(MEDIA_TYPE_WILDCARD);
+        this.hash = (this.lowerType+this.lowerSubtype).hashCode()+this.parameters.hashCode();
     }
     
     /**
@@ -207,7 +223,7 @@ public class MediaType {
      * @return true if the primary type is a wildcard
      */
     public boolean isWildcardType() {
-        return this.getType().equals(MEDIA_TYPE_WILDCARD);
+        return wildcardType;
     }
     
     /**
@@ -223,7 +239,7 @@ public class MediaType {
      * @return true if the subtype is a wildcard  
      */
     public boolean isWildcardSubtype() {
-        return this.getSubtype().equals(MEDIA_TYPE_WILDCARD);
+        return wildcardSubtype;
     }
     
     /**
@@ -244,13 +260,14 @@ public class MediaType {
     public boolean isCompatible(MediaType other) {
         if (other == null)
             return false;
-        if (type.equals(MEDIA_TYPE_WILDCARD) || other.type.equals(MEDIA_TYPE_WILDCARD))
+        if (wildcardType || other.wildcardType)
             return true;
-        else if (type.equalsIgnoreCase(other.type) && (subtype.equals(MEDIA_TYPE_WILDCARD) || other.subtype.equals(MEDIA_TYPE_WILDCARD)))
+        else if (!lowerType.equals(other.lowerType))
+            return false;
+        else if (wildcardSubtype || other.wildcardSubtype)
             return true;
         else
-            return this.type.equalsIgnoreCase(other.type)
-                && this.subtype.equalsIgnoreCase(other.subtype);
+            return lowerSubtype.equals(other.lowerSubtype);
     }
     
     /**
@@ -264,13 +281,16 @@ public class MediaType {
      */
     @Override
     public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
         if (obj == null)
             return false;
         if (!(obj instanceof MediaType))
             return false;
         MediaType other = (MediaType)obj;
-        return (this.type.equalsIgnoreCase(other.type)
-                && this.subtype.equalsIgnoreCase(other.subtype)
+        return (this.hash == other.hash
+                && this.lowerType.equals(other.lowerType)
+                && this.lowerSubtype.equals(other.lowerSubtype)
                 && this.parameters.equals(other.parameters));
     }
     
@@ -280,7 +300,7 @@ public class MediaType {
      */
     @Override
     public int hashCode() {
-        return (this.type.toLowerCase()+this.subtype.toLowerCase()).hashCode()+this.parameters.hashCode();
+        return hash;
     }
     
     /**
@@ -290,6 +310,6 @@ public class MediaType {
      */
     @Override
     public String toString() {
-        return delegate.toString(this);
+        return HeaderDelegateTable.getHeaderDelegate(MediaType.class).toString(this);
     }
 }
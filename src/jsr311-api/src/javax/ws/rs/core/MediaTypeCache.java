@@ -0,0 +1,185 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.ext.HeaderDelegateTable;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * A bounded, thread-safe cache of {@link MediaType} instances keyed by the
+ * header string they were parsed from. {@link MediaType#valueOf} consults the
+ * cache before deferring to the runtime's
+ * {@link javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate} so that repeated
+ * values of the Content-Type and Accept headers share a single, immutable
+ * instance instead of being parsed again.
+ *
+ * <p>When the cache is full an arbitrary entry is evicted to make room for a
+ * new one. Hit, miss and eviction counts are maintained for monitoring
+ * purposes. Each {@link HeaderDelegateTable}, and hence each
+ * {@link javax.ws.rs.ext.RuntimeDelegate}, has its own cache, so instances
+ * parsed by a delegate are not returned once the runtime delegate has been
+ * replaced.</p>
+ *
+ * @see MediaType#valueOf
+ * @see HeaderDelegateTable#getMediaTypeCache
+ */
+public final class MediaTypeCache {
+
+    /**
+     * The maximum number of entries held by the cache of a
+     * {@link HeaderDelegateTable}.
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final int capacity;
+    private final ConcurrentMap<String, MediaType> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a new cache.
+     * @param capacity the maximum number of entries to hold
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public MediaTypeCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity < 1");
+        this.capacity = capacity;
+        this.cache = new ConcurrentHashMap<String, MediaType>(capacity);
+    }
+
+    /**
+     * Get the cache used by {@link MediaType#valueOf}, that of the current
+     * {@link javax.ws.rs.ext.RuntimeDelegate}.
+     * @return the media type cache of the current runtime delegate
+     */
+    public static MediaTypeCache getInstance() {
+        return HeaderDelegateTable.getInstance().getMediaTypeCache();
+    }
+
+    /**
+     * Obtain the media type for the supplied header value, parsing it with
+     * the supplied delegate if it is not already cached.
+     * @param value the media type string
+     * @param delegate the delegate used to parse uncached values
+     * @return the cached or newly parsed media type
+     * @throws IllegalArgumentException if the supplied string cannot be parsed
+     * or is null
+     */
+    MediaType get(String value, HeaderDelegate<MediaType> delegate) {
+        if (value == null)
+            return delegate.fromString(value);
+        MediaType m = cache.get(value);
+        if (m != null) {
+            hits.incrementAndGet();
+            return m;
+        }
+        misses.incrementAndGet();
+        m = delegate.fromString(value);
+        if (m == null)
+            return m;
+        if (cache.size() >= capacity)
+            evict();
+        MediaType existing = cache.putIfAbsent(value, m);
+        return existing == null ? m : existing;
+    }
+
+    private void evict() {
+        Iterator<String> i = cache.keySet().iterator();
+        while (i.hasNext() && cache.size() >= capacity) {
+            i.next();
+            i.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the maximum number of entries held by the cache.
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of entries currently held by the cache.
+     * @return the number of cached media types
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of lookups that were satisfied from the cache.
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of lookups that required the value to be parsed.
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of entries removed to make room for new ones.
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Remove all entries from the cache. The counters are not reset.
+     */
+    public void clear() {
+        cache.clear();
+    }
+}
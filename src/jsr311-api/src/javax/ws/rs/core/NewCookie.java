@@ -47,8 +47,7 @@
 
 package javax.ws.rs.core;
 
-import javax.ws.rs.ext.RuntimeDelegate;
-import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import javax.ws.rs.ext.HeaderDelegateTable;
 
 /**
  * Used to create a new HTTP cookie, transferred in a response.
@@ -60,9 +59,6 @@ public class NewCookie extends Cookie {
      * Specifies that the cookie expires with the current application/browser session.
      */
     public static final int DEFAULT_MAX_AGE = -1;
-    
-    private static final HeaderDelegate<NewCookie> delegate = 
-            RuntimeDelegate.getInstance().createHeaderDelegate(NewCookie.class);
 
     private String comment = null;
     private int maxAge = DEFAULT_MAX_AGE;
@@ -151,7 +147,7 @@ public class NewCookie extends Cookie {
      * or is null
      */
     public static NewCookie valueOf(String value) throws IllegalArgumentException {
-        return delegate.fromString(value);
+        return HeaderDelegateTable.getHeaderDelegate(NewCookie.class).fromString(value);
     }
     
     /**
@@ -203,7 +199,7 @@ public class NewCookie extends Cookie {
      */
     @Override
     public String toString() {
-        return delegate.toString(this);
+        return HeaderDelegateTable.getHeaderDelegate(NewCookie.class).toString(this);
     }
 
     /**
@@ -0,0 +1,167 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.ws.rs.Path;
+
+/**
+ * Resolves the {@link Path} values of resource classes and methods for
+ * {@link UriBuilder} implementations, see {@link UriBuilder#fromResource},
+ * {@link UriBuilder#path(Class)}, {@link UriBuilder#path(Class, String)} and
+ * {@link UriBuilder#path(Method)}. Finding a method by name requires a scan
+ * of the methods of the class, so the paths of the Path-annotated methods of
+ * a class are cached by name the first time a method of the class is looked
+ * up by name. The annotations of a single class or method are read directly,
+ * reflection already caches them.
+ *
+ * <p>Classes are held weakly and the cached values refer only to strings, so
+ * the cache does not prevent an application's classes from being garbage
+ * collected.</p>
+ */
+public final class PathAnnotations {
+
+    /**
+     * Marks a method name shared by more than one Path-annotated method
+     */
+    private static final String AMBIGUOUS = new String("ambiguous");
+
+    /**
+     * The paths of the Path-annotated public methods of each class, keyed by
+     * method name
+     */
+    private static final Map<Class<?>, Map<String, String>> methodPaths =
+            new WeakHashMap<Class<?>, Map<String, String>>();
+
+    private PathAnnotations() {
+    }
+
+    /**
+     * Get the {@link Path} value of a resource class.
+     * @param resource the resource class
+     * @return the value of the Path annotation or null if the class is not
+     * annotated with Path
+     * @throws IllegalArgumentException if resource is null
+     */
+    public static String getPath(Class<?> resource) throws IllegalArgumentException {
+        if (resource == null)
+            throw new IllegalArgumentException("resource is null");
+        Path p = resource.getAnnotation(Path.class);
+        return p == null ? null : p.value();
+    }
+
+    /**
+     * Get the {@link Path} value of a resource method.
+     * @param method the resource method
+     * @return the value of the Path annotation or null if the method is not
+     * annotated with Path
+     * @throws IllegalArgumentException if method is null
+     */
+    public static String getPath(Method method) throws IllegalArgumentException {
+        if (method == null)
+            throw new IllegalArgumentException("method is null");
+        Path p = method.getAnnotation(Path.class);
+        return p == null ? null : p.value();
+    }
+
+    /**
+     * Get the {@link Path} value of the single public method of a resource
+     * class that has the supplied name and is annotated with Path.
+     * @param resource the resource class
+     * @param method the name of the method
+     * @return the value of the Path annotation
+     * @throws IllegalArgumentException if resource or method is null, or
+     * there is more than or less than one public method with the name that is
+     * annotated with Path
+     */
+    public static String getPath(Class<?> resource, String method) throws IllegalArgumentException {
+        if (resource == null || method == null)
+            throw new IllegalArgumentException("resource or method is null");
+        String path = getMethodPaths(resource).get(method);
+        if (path == null)
+            throw new IllegalArgumentException("No method named '" + method + "' of "
+                    + resource.getName() + " is annotated with Path");
+        if (path == AMBIGUOUS)
+            throw new IllegalArgumentException("More than one method named '" + method + "' of "
+                    + resource.getName() + " is annotated with Path");
+        return path;
+    }
+
+    /**
+     * Discard all cached values.
+     */
+    public static void clear() {
+        synchronized (methodPaths) {
+            methodPaths.clear();
+        }
+    }
+
+    /**
+     * Get the paths of the Path-annotated public methods of a class keyed by
+     * method name, scanning the methods on first use
+     */
+    private static Map<String, String> getMethodPaths(Class<?> resource) {
+        synchronized (methodPaths) {
+            Map<String, String> m = methodPaths.get(resource);
+            if (m != null)
+                return m;
+        }
+        Map<String, String> m = new HashMap<String, String>();
+        for (Method method : resource.getMethods()) {
+            if (method.isSynthetic())
+                continue;
+            Path p = method.getAnnotation(Path.class);
+            if (p == null)
+                continue;
+            m.put(method.getName(), m.containsKey(method.getName()) ? AMBIGUOUS : p.value());
+        }
+        synchronized (methodPaths) {
+            Map<String, String> existing = methodPaths.get(resource);
+            if (existing != null)
+                return existing;
+            methodPaths.put(resource, m);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,573 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.UriCodec.Component;
+
+/**
+ * An index of {@link javax.ws.rs.Path} templates that finds the template
+ * matching a request path without trying the templates one after the other.
+ *
+ * <p>Templates that consist only of literal segments are looked up in a hash
+ * table keyed by the whole path. All templates are also entered in a trie of
+ * path segments: literal segments are found by hash lookup and segments that
+ * are a single template parameter without a regular expression, such as
+ * {@code {id}}, match any non-empty segment. Only the remainder of a template
+ * that declares a regular expression, has a parameter that shares a segment
+ * with literal characters, or repeats a parameter is matched with a regular
+ * expression, and only when the trie reaches the node of its leading literal
+ * segments. The cost of a match therefore depends on the number of segments
+ * in the request path and the number of templates that share a prefix with
+ * it, not on the number of templates in the index.</p>
+ *
+ * <p>As for root resources, a template matches a request path if it matches
+ * the whole path or the path up to a '/'; the unmatched part is available as
+ * {@link Match#getRemainder}. When more than one template matches, the one
+ * with the most literal characters wins, then the one with the most template
+ * parameters, then the one with the most parameters that declare a regular
+ * expression, then the one added first. Literal characters of templates are
+ * encoded as for {@link UriBuilder#path(String)}, request paths and
+ * parameter values are in encoded form.</p>
+ *
+ * <p>An index is not safe for modification by multiple threads. Once all
+ * templates have been added and the index has been safely published it may
+ * be used to match paths from any number of threads.</p>
+ *
+ * @param <T> the type of the values associated with the templates
+ * @see UriTemplate
+ */
+public final class PathIndex<T> {
+
+    private static final String DEFAULT_REGEX = "[^/]+?";
+
+    /**
+     * Routes that consist only of literal segments keyed by encoded path
+     */
+    private final Map<String, Route<T>> literals = new HashMap<String, Route<T>>();
+
+    /**
+     * Routes keyed by the template with each parameter replaced by its
+     * regular expression, used to reject equivalent templates
+     */
+    private final Map<String, Route<T>> shapes = new HashMap<String, Route<T>>();
+
+    private final Node<T> root = new Node<T>();
+
+    private int maxDepth;
+
+    private int regexRouteCount;
+
+    /**
+     * Create an empty index.
+     */
+    public PathIndex() {
+    }
+
+    /**
+     * Add a template to the index.
+     * @param template the path template, leading and trailing '/' characters
+     * are ignored
+     * @param value the value returned by {@link Match#getValue} when the
+     * template matches
+     * @throws IllegalArgumentException if template or value is null, the
+     * template is invalid or it is equivalent to a template already in the
+     * index
+     */
+    public void add(String template, T value) throws IllegalArgumentException {
+        if (template == null || value == null)
+            throw new IllegalArgumentException("template or value is null");
+        List<List<Object>> segments = parse(normalize(template), template);
+
+        // leading literal segments are entered in the trie, the rest of the
+        // template is either parameter segments or a regular expression
+        int literalCount = 0;
+        while (literalCount < segments.size() && isLiteral(segments.get(literalCount)))
+            literalCount++;
+        boolean useRegex = false;
+        List<String> names = new ArrayList<String>();
+        for (int i = literalCount; i < segments.size() && !useRegex; i++) {
+            List<Object> segment = segments.get(i);
+            if (segment.size() == 1 && segment.get(0) instanceof Param) {
+                Param p = (Param) segment.get(0);
+                useRegex = p.regex != null || names.contains(p.name);
+                names.add(p.name);
+            } else if (!isLiteral(segment)) {
+                useRegex = true;
+            }
+        }
+
+        Route<T> route = new Route<T>(template, value, shapes.size());
+        StringBuilder shape = new StringBuilder();
+        List<String> distinct = new ArrayList<String>();
+        for (List<Object> segment : segments) {
+            shape.append('/');
+            for (Object part : segment) {
+                if (part instanceof String) {
+                    shape.append((String) part);
+                    route.literalCharacters += ((String) part).length();
+                } else {
+                    Param p = (Param) part;
+                    shape.append('{').append(p.regex == null ? DEFAULT_REGEX : p.regex).append('}');
+                    if (!distinct.contains(p.name)) {
+                        distinct.add(p.name);
+                        if (p.regex != null)
+                            route.regexParameters++;
+                    }
+                }
+            }
+        }
+        route.literalCharacters += Math.max(segments.size() - 1, 0);
+        route.parameters = distinct.size();
+        Route<T> existing = shapes.get(shape.toString());
+        if (existing != null)
+            throw new IllegalArgumentException("Template " + template
+                    + " is equivalent to " + existing.template);
+
+        Node<T> node = root;
+        int depth = 0;
+        for (List<Object> segment : segments) {
+            if (useRegex && depth == literalCount)
+                break;
+            node = isLiteral(segment) ? node.literalChild((String) segment.get(0)) : node.parameterChild();
+            depth++;
+        }
+        if (useRegex) {
+            compileRegex(route, segments.subList(literalCount, segments.size()));
+            if (node.regexRoutes == null)
+                node.regexRoutes = new ArrayList<Route<T>>(2);
+            node.regexRoutes.add(route);
+            regexRouteCount++;
+        } else {
+            route.names = names.toArray(new String[names.size()]);
+            node.route = route;
+            if (route.names.length == 0)
+                literals.put(shape.toString(), route);
+        }
+        maxDepth = Math.max(maxDepth, depth);
+        shapes.put(shape.toString(), route);
+    }
+
+    /**
+     * Get the number of templates in the index.
+     * @return the number of templates
+     */
+    public int size() {
+        return shapes.size();
+    }
+
+    /**
+     * Find the template that matches a request path.
+     * @param path the encoded request path relative to the base URI, a
+     * leading '/' is optional
+     * @return the match or null if no template matches
+     * @throws IllegalArgumentException if path is null
+     */
+    public Match<T> match(String path) throws IllegalArgumentException {
+        if (path == null)
+            throw new IllegalArgumentException("path is null");
+        if (path.length() == 0 || path.charAt(0) != '/')
+            path = "/" + path;
+
+        // a literal template matching the whole path has at least as many
+        // literal characters as any other matching template, only a regular
+        // expression that matches empty text can rank ahead of it
+        int n = path.length();
+        int end = n;
+        Route<T> literal = literals.get(path);
+        if (literal == null) {
+            if (n > 1 && path.charAt(n - 1) == '/') {
+                end = n - 1;
+                literal = literals.get(path.substring(0, end));
+            } else if (n == 1) {
+                end = 0;
+                literal = literals.get("");
+            }
+        }
+        if (literal != null && regexRouteCount == 0)
+            return new Match<T>(literal, path, end, null, null);
+
+        Search<T> search = new Search<T>(path, maxDepth);
+        if (literal != null) {
+            search.best = literal;
+            search.bestEnd = end;
+        }
+        search.visit(root, 0, 0);
+        if (search.best == null)
+            return null;
+        return new Match<T>(search.best, path, search.bestEnd, search.bestCaptures, search.bestResult);
+    }
+
+    private static String normalize(String template) {
+        int start = 0;
+        int end = template.length();
+        if (start < end && template.charAt(start) == '/')
+            start++;
+        if (start < end && template.charAt(end - 1) == '/')
+            end--;
+        return template.substring(start, end);
+    }
+
+    /**
+     * Split a normalized template into segments, each a list of encoded
+     * literal strings and parameters
+     */
+    private static List<List<Object>> parse(String template, String original) {
+        List<List<Object>> segments = new ArrayList<List<Object>>();
+        if (template.length() == 0)
+            return segments;
+        List<Object> segment = new ArrayList<Object>(1);
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        int n = template.length();
+        while (i <= n) {
+            char c = i < n ? template.charAt(i) : '/';
+            if (c == '{') {
+                addLiteral(segment, literal);
+                int end = UriTemplate.closingBrace(template, i);
+                String content = template.substring(i + 1, end);
+                int colon = content.indexOf(':');
+                String name = (colon == -1 ? content : content.substring(0, colon)).trim();
+                if (name.length() == 0)
+                    throw new IllegalArgumentException("Empty template parameter name in " + original);
+                String regex = colon == -1 ? null : content.substring(colon + 1).trim();
+                segment.add(new Param(name, regex == null || regex.length() == 0 ? null : regex));
+                i = end + 1;
+            } else if (c == '/') {
+                addLiteral(segment, literal);
+                if (segment.isEmpty())
+                    segment.add("");
+                segments.add(segment);
+                segment = new ArrayList<Object>(1);
+                i++;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        return segments;
+    }
+
+    private static void addLiteral(List<Object> segment, StringBuilder literal) {
+        if (literal.length() > 0) {
+            segment.add(UriCodec.contextualEncode(literal.toString(), Component.PATH_SEGMENT));
+            literal.setLength(0);
+        }
+    }
+
+    private static boolean isLiteral(List<Object> segment) {
+        return segment.size() == 1 && segment.get(0) instanceof String;
+    }
+
+    /**
+     * Compile the segments following the node of a route into a regular
+     * expression matching '/' followed by the segments and an optional
+     * remainder
+     */
+    private static void compileRegex(Route<?> route, List<List<Object>> segments) {
+        StringBuilder regex = new StringBuilder();
+        List<String> names = new ArrayList<String>();
+        List<Integer> groups = new ArrayList<Integer>();
+        int group = 0;
+        for (List<Object> segment : segments) {
+            regex.append('/');
+            for (Object part : segment) {
+                if (part instanceof String) {
+                    regex.append(Pattern.quote((String) part));
+                    continue;
+                }
+                Param p = (Param) part;
+                int index = names.indexOf(p.name);
+                if (index != -1) {
+                    // a repeated parameter must match the same value
+                    regex.append("\\").append(groups.get(index)).append("(?:)");
+                    continue;
+                }
+                String r = p.regex == null ? DEFAULT_REGEX : p.regex;
+                names.add(p.name);
+                groups.add(++group);
+                regex.append('(').append(r).append(')');
+                group += Pattern.compile(r).matcher("").groupCount();
+            }
+        }
+        regex.append("(/.*)?");
+        route.pattern = Pattern.compile(regex.toString());
+        route.names = names.toArray(new String[names.size()]);
+        route.groups = new int[groups.size()];
+        for (int i = 0; i < route.groups.length; i++)
+            route.groups[i] = groups.get(i);
+    }
+
+    /**
+     * A template parameter
+     */
+    private static final class Param {
+        final String name;
+        final String regex;
+
+        Param(String name, String regex) {
+            this.name = name;
+            this.regex = regex;
+        }
+    }
+
+    private static final class Route<T> {
+        final String template;
+        final T value;
+        final int order;
+        int literalCharacters;
+        int parameters;
+        int regexParameters;
+
+        /**
+         * The parameter names, in the order of the parameter segments of a
+         * trie route or of the groups of a regular expression route
+         */
+        String[] names;
+        Pattern pattern;
+        int[] groups;
+
+        Route(String template, T value, int order) {
+            this.template = template;
+            this.value = value;
+            this.order = order;
+        }
+
+        boolean isBetterThan(Route<?> r) {
+            if (literalCharacters != r.literalCharacters)
+                return literalCharacters > r.literalCharacters;
+            if (parameters != r.parameters)
+                return parameters > r.parameters;
+            if (regexParameters != r.regexParameters)
+                return regexParameters > r.regexParameters;
+            return order < r.order;
+        }
+    }
+
+    private static final class Node<T> {
+        Map<String, Node<T>> literals;
+        Node<T> parameter;
+
+        /**
+         * The route whose segments end at this node
+         */
+        Route<T> route;
+
+        /**
+         * Routes whose leading literal segments end at this node and whose
+         * remaining segments are matched with a regular expression
+         */
+        List<Route<T>> regexRoutes;
+
+        Node<T> literalChild(String segment) {
+            if (literals == null)
+                literals = new HashMap<String, Node<T>>(4);
+            Node<T> child = literals.get(segment);
+            if (child == null) {
+                child = new Node<T>();
+                literals.put(segment, child);
+            }
+            return child;
+        }
+
+        Node<T> parameterChild() {
+            if (parameter == null)
+                parameter = new Node<T>();
+            return parameter;
+        }
+    }
+
+    /**
+     * The state of a depth-first search of the trie for the best route
+     */
+    private static final class Search<T> {
+        final String path;
+
+        /**
+         * Start and end offsets of the segments matched by parameter nodes
+         */
+        final int[] captures;
+
+        Route<T> best;
+        int bestEnd;
+        int[] bestCaptures;
+        MatchResult bestResult;
+
+        Search(String path, int maxDepth) {
+            this.path = path;
+            this.captures = new int[2 * maxDepth];
+        }
+
+        /**
+         * Visit a node whose segments match the path up to end, which is
+         * the length of the path or the offset of a '/'
+         */
+        void visit(Node<T> node, int end, int captured) {
+            Route<T> r = node.route;
+            if (r != null && (best == null || r.isBetterThan(best))) {
+                best = r;
+                bestEnd = end;
+                bestCaptures = captured == 0 ? null : captures.clone();
+                bestResult = null;
+            }
+            if (node.regexRoutes != null) {
+                for (Route<T> route : node.regexRoutes) {
+                    if (best != null && !route.isBetterThan(best))
+                        continue;
+                    Matcher m = route.pattern.matcher(path);
+                    m.region(end, path.length());
+                    if (m.matches()) {
+                        best = route;
+                        int remainder = m.groupCount();
+                        bestEnd = m.start(remainder) == -1 ? path.length() : m.start(remainder);
+                        bestCaptures = null;
+                        bestResult = m.toMatchResult();
+                    }
+                }
+            }
+            int n = path.length();
+            if (end == n)
+                return;
+            int start = end + 1;
+            int next = path.indexOf('/', start);
+            if (next == -1)
+                next = n;
+            if (node.literals != null) {
+                Node<T> child = node.literals.get(path.substring(start, next));
+                if (child != null)
+                    visit(child, next, captured);
+            }
+            if (node.parameter != null && next > start) {
+                captures[2 * captured] = start;
+                captures[2 * captured + 1] = next;
+                visit(node.parameter, next, captured + 1);
+            }
+        }
+    }
+
+    /**
+     * The result of matching a request path.
+     *
+     * @param <T> the type of the value associated with the template
+     */
+    public static final class Match<T> {
+        private final Route<T> route;
+        private final String path;
+        private final int end;
+        private final int[] captures;
+        private final MatchResult result;
+        private Map<String, String> parameters;
+
+        Match(Route<T> route, String path, int end, int[] captures, MatchResult result) {
+            this.route = route;
+            this.path = path;
+            this.end = end;
+            this.captures = captures;
+            this.result = result;
+        }
+
+        /**
+         * Get the value associated with the matching template.
+         * @return the value supplied to {@link PathIndex#add}
+         */
+        public T getValue() {
+            return route.value;
+        }
+
+        /**
+         * Get the matching template.
+         * @return the template as supplied to {@link PathIndex#add}
+         */
+        public String getTemplate() {
+            return route.template;
+        }
+
+        /**
+         * Get the part of the request path matched by the template.
+         * @return the matched path, starting with '/' unless empty
+         */
+        public String getMatched() {
+            return path.substring(0, end);
+        }
+
+        /**
+         * Get the part of the request path that follows the part matched by
+         * the template.
+         * @return the remainder, empty or starting with '/'
+         */
+        public String getRemainder() {
+            return path.substring(end);
+        }
+
+        /**
+         * Get the values of the template parameters.
+         * @return a read-only map of the encoded parameter values keyed by
+         * parameter name, in the order the parameters appear in the template
+         */
+        public Map<String, String> getParameters() {
+            Map<String, String> m = parameters;
+            if (m == null) {
+                String[] names = route.names;
+                if (names == null || names.length == 0) {
+                    m = Collections.emptyMap();
+                } else {
+                    m = new LinkedHashMap<String, String>(2 * names.length);
+                    for (int i = 0; i < names.length; i++) {
+                        m.put(names[i], result == null
+                                ? path.substring(captures[2 * i], captures[2 * i + 1])
+                                : result.group(route.groups[i]));
+                    }
+                    m = Collections.unmodifiableMap(m);
+                }
+                parameters = m;
+            }
+            return m;
+        }
+    }
+}
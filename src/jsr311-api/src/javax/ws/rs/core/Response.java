@@ -712,19 +712,49 @@ public abstract class Response {
          * An enumeration representing the class of status code. Family is used
          * here since class is overloaded in Java.
          */
-        public enum Family {INFORMATIONAL, SUCCESSFUL, REDIRECTION, CLIENT_ERROR, SERVER_ERROR, OTHER};
+        public enum Family {INFORMATIONAL, SUCCESSFUL, REDIRECTION, CLIENT_ERROR, SERVER_ERROR, OTHER;
+
+            /**
+             * Families indexed by the first digit of a status code
+             */
+            private static final Family[] families = {
+                OTHER, INFORMATIONAL, SUCCESSFUL, REDIRECTION, CLIENT_ERROR, SERVER_ERROR
+            };
+
+            /**
+             * Get the class of an arbitrary numerical status code
+             * @param statusCode the numerical status code
+             * @return the class of the status code, {@link #OTHER} if the
+             * code is outside the range 100-599
+             */
+            public static Family familyOf(final int statusCode) {
+                if (statusCode < 100 || statusCode > 599)
+                    return OTHER;
+                return families[statusCode/100];
+            }
+        };
+
+        /**
+         * Lowest status code held in the {@link #statuses} lookup table
+         */
+        private static final int MIN_CODE = 100;
+
+        /**
+         * Status values indexed by status code minus {@link #MIN_CODE}, null
+         * entries correspond to codes with no matching Status
+         */
+        private static final Status[] statuses = new Status[600 - MIN_CODE];
+
+        static {
+            for (Status s : values()) {
+                statuses[s.code - MIN_CODE] = s;
+            }
+        }
 
         Status(final int statusCode, final String reasonPhrase) {
             this.code = statusCode;
             this.reason = reasonPhrase;
-            switch(code/100) {
-                case 1: this.family = Family.INFORMATIONAL; break;
-                case 2: this.family = Family.SUCCESSFUL; break;
-                case 3: this.family = Family.REDIRECTION; break;
-                case 4: this.family = Family.CLIENT_ERROR; break;
-                case 5: this.family = Family.SERVER_ERROR; break;
-                default: this.family = Family.OTHER; break;
-            }
+            this.family = Family.familyOf(statusCode);
         }
         
         /**
@@ -766,12 +796,9 @@ public abstract class Response {
          * @return the matching Status or null is no matching Status is defined
          */
         public static Status fromStatusCode(final int statusCode) {
-            for (Status s : Status.values()) {
-                if (s.code == statusCode) {
-                    return s;
-                }
-            }
-            return null;
+            if (statusCode < MIN_CODE || statusCode >= MIN_CODE + statuses.length)
+                return null;
+            return statuses[statusCode - MIN_CODE];
         }
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A reusable buffer holding a sequence of URI strings, e.g. the links of
+ * the items of a paged collection, produced by {@link UriTemplate#expandAll}
+ * or {@link UriBuilder#buildAll}. The characters of all URIs are held in a
+ * single buffer and each URI is identified by its start and end offsets, so
+ * URIs may be copied to an output without creating a string per URI. The
+ * {@link java.util.List} view creates strings on demand.
+ *
+ * <p>Call {@link #clear} to reuse the buffer for another batch. Instances
+ * are not thread-safe.</p>
+ */
+public final class UriBuffer extends AbstractList<String> implements RandomAccess {
+
+    private final StringBuilder buffer;
+    private int[] ends;
+    private int size;
+
+    /**
+     * Create a new empty buffer.
+     */
+    public UriBuffer() {
+        this(16, 64);
+    }
+
+    /**
+     * Create a new empty buffer sized to hold the expected number of URIs
+     * without growing.
+     * @param expectedCount the expected number of URIs
+     * @param expectedLength the expected average length of a URI
+     * @throws IllegalArgumentException if expectedCount or expectedLength is
+     * negative
+     */
+    public UriBuffer(int expectedCount, int expectedLength) {
+        if (expectedCount < 0 || expectedLength < 0)
+            throw new IllegalArgumentException("expectedCount or expectedLength < 0");
+        this.buffer = new StringBuilder(expectedCount * expectedLength);
+        this.ends = new int[Math.max(expectedCount, 1)];
+    }
+
+    /**
+     * Get the builder that the next URI is appended to.
+     */
+    StringBuilder builder() {
+        return buffer;
+    }
+
+    /**
+     * Mark the end of the URI appended since the previous call.
+     */
+    void endUri() {
+        if (size == ends.length) {
+            int[] grown = new int[size * 2];
+            System.arraycopy(ends, 0, grown, 0, size);
+            ends = grown;
+        }
+        ends[size++] = buffer.length();
+    }
+
+    /**
+     * Discard the URIs appended since the last complete URI, used when
+     * expansion of a URI fails.
+     */
+    void discardIncomplete() {
+        buffer.setLength(size == 0 ? 0 : ends[size - 1]);
+    }
+
+    /**
+     * Add a URI string to the buffer.
+     * @param uri the URI string
+     * @throws IllegalArgumentException if uri is null
+     */
+    public void addUri(CharSequence uri) {
+        if (uri == null)
+            throw new IllegalArgumentException("uri is null");
+        buffer.append(uri);
+        endUri();
+    }
+
+    /**
+     * Remove all URIs, retaining the allocated capacity.
+     */
+    @Override
+    public void clear() {
+        buffer.setLength(0);
+        size = 0;
+    }
+
+    /**
+     * Get the number of URIs.
+     * @return the number of URIs in the buffer
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a URI as a string.
+     * @param index the index of the URI
+     * @return the URI string
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public String get(int index) {
+        return buffer.substring(start(index), ends[index]);
+    }
+
+    /**
+     * Get the offset of the first character of a URI in {@link #getBuffer}.
+     * @param index the index of the URI
+     * @return the start offset
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    /**
+     * Get the offset following the last character of a URI in
+     * {@link #getBuffer}.
+     * @param index the index of the URI
+     * @return the end offset
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Get the characters of all URIs. The returned sequence is a view of the
+     * buffer and must not be retained after the buffer is cleared.
+     * @return the characters of all URIs
+     */
+    public CharSequence getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Append a URI to the supplied {@code Appendable} without creating a
+     * string for it.
+     * @param index the index of the URI
+     * @param a the {@code Appendable} to append to
+     * @return {@code a}
+     * @throws IOException if appending to {@code a} fails
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public <A extends Appendable> A appendTo(int index, A a) throws IOException {
+        a.append(buffer, start(index), ends[index]);
+        return a;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -47,6 +47,7 @@
 
 package javax.ws.rs.core;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.Map;
@@ -253,6 +254,7 @@ public abstract class UriBuilder {
      * @return the updated UriBuilder
      * @throws IllegalArgumentException if resource is null, or
      * if resource is not annotated with {@link javax.ws.rs.Path}
+     * @see PathAnnotations
      */
     public abstract UriBuilder path(Class resource) throws IllegalArgumentException;
     
@@ -272,6 +274,7 @@ public abstract class UriBuilder {
      * @throws IllegalArgumentException if resource or method is null, 
      * or there is more than or less than one variant of the method annotated with 
      * {@link javax.ws.rs.Path}
+     * @see PathAnnotations
      */
     public abstract UriBuilder path(Class resource, String method) throws IllegalArgumentException;
     
@@ -286,6 +289,7 @@ public abstract class UriBuilder {
      * @return the updated UriBuilder
      * @throws IllegalArgumentException if method is null or is
      * not annotated with a {@link javax.ws.rs.Path}
+     * @see PathAnnotations
      */
     public abstract UriBuilder path(Method method) throws IllegalArgumentException;
     
@@ -479,4 +483,134 @@ public abstract class UriBuilder {
      */
     public abstract URI buildFromEncoded(Object... values) 
             throws IllegalArgumentException, UriBuilderException;
+    
+    /**
+     * Get the compiled URI template corresponding to the current state of the
+     * builder. Expanding the compiled template with a set of values produces
+     * the same result as {@link #build(Object...)} would for the same values
+     * without re-parsing the template, so the template should be obtained
+     * once and reused when many URIs are built from the same builder state.
+     * Subsequent changes to the builder do not affect the returned template.
+     * 
+     * <p>The default implementation returns null, implementations are
+     * expected to override it and return the result of
+     * {@link UriTemplate#compile} for their current template.</p>
+     * @return the compiled URI template, or null if the implementation does
+     * not support compiled templates
+     * @see UriTemplate
+     */
+    public UriTemplate toUriTemplate() {
+        return null;
+    }
+    
+    /**
+     * Build a URI string, using the supplied values in order to replace any
+     * URI template parameters. The result is the same as
+     * <code>build(values).toString()</code> but no {@link URI} is created.
+     * The state of the builder is unaffected; this method may be called
+     * multiple times on the same builder instance.
+     * 
+     * <p>The default implementation expands the template returned by
+     * {@link #toUriTemplate} or, if that returns null, calls
+     * {@link #build(Object...)}.</p>
+     * @param values a list of URI template parameter values
+     * @return the encoded URI string
+     * @throws IllegalArgumentException if there are any URI template parameters
+     * without a supplied value, or if a value is null.
+     * @throws UriBuilderException if a URI cannot be constructed based on the
+     * current state of the builder.
+     * @see #build(Object...)
+     */
+    public String buildString(Object... values) 
+            throws IllegalArgumentException, UriBuilderException {
+        UriTemplate t = toUriTemplate();
+        return t == null ? build(values).toString() : t.expand(values);
+    }
+    
+    /**
+     * Build a URI string, any URI template parameters will be replaced by the
+     * value in the supplied map. The result is the same as
+     * <code>buildFromMap(values).toString()</code> but no {@link URI} is
+     * created.
+     * The state of the builder is unaffected; this method may be called
+     * multiple times on the same builder instance.
+     * 
+     * <p>The default implementation expands the template returned by
+     * {@link #toUriTemplate} or, if that returns null, calls
+     * {@link #buildFromMap}.</p>
+     * @param values a map of URI template parameter names and values
+     * @return the encoded URI string
+     * @throws IllegalArgumentException if there are any URI template parameters
+     * without a supplied value, or if a template parameter value is null.
+     * @throws UriBuilderException if a URI cannot be constructed based on the
+     * current state of the builder.
+     * @see #buildFromMap
+     */
+    public String buildStringFromMap(Map<String, ? extends Object> values) 
+            throws IllegalArgumentException, UriBuilderException {
+        UriTemplate t = toUriTemplate();
+        return t == null ? buildFromMap(values).toString() : t.expandFromMap(values);
+    }
+    
+    /**
+     * Append a URI string to the supplied {@code Appendable}, using the
+     * supplied values in order to replace any URI template parameters. The
+     * appended characters are the same as those returned by
+     * {@link #buildString}; when {@code a} is a {@link StringBuilder} they
+     * are appended without creating an intermediate string.
+     * The state of the builder is unaffected; this method may be called
+     * multiple times on the same builder instance.
+     * @param a the {@code Appendable} to append to, e.g. a {@code Writer}
+     * @param values a list of URI template parameter values
+     * @return {@code a}
+     * @throws IOException if appending to {@code a} fails
+     * @throws IllegalArgumentException if there are any URI template parameters
+     * without a supplied value, or if a value is null.
+     * @throws UriBuilderException if a URI cannot be constructed based on the
+     * current state of the builder.
+     */
+    public <A extends Appendable> A appendTo(A a, Object... values) 
+            throws IOException, IllegalArgumentException, UriBuilderException {
+        if (a instanceof StringBuilder) {
+            UriTemplate t = toUriTemplate();
+            if (t != null) {
+                t.appendTo((StringBuilder) a, false, values);
+                return a;
+            }
+        }
+        a.append(buildString(values));
+        return a;
+    }
+    
+    /**
+     * Build a URI string for each tuple of values, appending the URI strings
+     * to a single buffer. Each URI string is the same as that returned by
+     * {@link #buildString} for the tuple; the builder is not cloned and the
+     * template is not parsed per tuple.
+     * The state of the builder is unaffected; this method may be called
+     * multiple times on the same builder instance.
+     * 
+     * <p>The default implementation calls {@link UriTemplate#expandAll} on
+     * the template returned by {@link #toUriTemplate} or, if that returns
+     * null, calls {@link #build(Object...)} for each tuple.</p>
+     * @param tuples the URI template parameter values of each URI
+     * @param into the buffer to append to, or null to create a new buffer
+     * @return the buffer
+     * @throws IllegalArgumentException if tuples is null, there are any URI
+     * template parameters without a supplied value, or if a value is null.
+     * @throws UriBuilderException if a URI cannot be constructed based on the
+     * current state of the builder.
+     */
+    public UriBuffer buildAll(Iterable<? extends Object[]> tuples, UriBuffer into) 
+            throws IllegalArgumentException, UriBuilderException {
+        UriTemplate t = toUriTemplate();
+        if (t != null)
+            return t.expandAll(tuples, into);
+        if (tuples == null)
+            throw new IllegalArgumentException("tuples is null");
+        UriBuffer buffer = into == null ? new UriBuffer() : into;
+        for (Object[] values : tuples)
+            buffer.addUri(build(values).toString());
+        return buffer;
+    }
 }
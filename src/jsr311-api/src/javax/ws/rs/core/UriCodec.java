@@ -0,0 +1,498 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Arrays;
+
+/**
+ * Percent-encoding and decoding of URI components, see
+ * <a href="http://ietf.org/rfc/rfc3986.txt">RFC 3986</a>. Characters that
+ * are not permitted in a component are encoded as the percent-encoded octets
+ * of their UTF-8 representation.
+ *
+ * <p>The codec is intended for use by {@link UriBuilder} and {@link UriInfo}
+ * implementations in place of {@link java.net.URLEncoder} and
+ * {@link java.net.URLDecoder}. Encoding is driven by a table of permitted
+ * characters per component and UTF-8 is encoded and decoded directly,
+ * without a {@link java.nio.charset.Charset}. The {@code String} methods
+ * return their argument unchanged if there is nothing to encode or decode,
+ * so the common case of an ASCII value without escapes does not allocate.
+ * </p>
+ *
+ * <p>Malformed UTF-8 sequences are decoded as the replacement character
+ * U+FFFD.</p>
+ */
+public final class UriCodec {
+
+    /**
+     * The components of a URI, each of which permits a different set of
+     * characters without encoding.
+     */
+    public enum Component {
+        /**
+         * The scheme.
+         */
+        SCHEME,
+        /**
+         * The user information of the authority.
+         */
+        USER_INFO,
+        /**
+         * The host of the authority.
+         */
+        HOST,
+        /**
+         * The whole authority.
+         */
+        AUTHORITY,
+        /**
+         * The path, '/' is permitted.
+         */
+        PATH,
+        /**
+         * A path segment, '/' is encoded.
+         */
+        PATH_SEGMENT,
+        /**
+         * The name or value of a matrix parameter, ';' and '=' are encoded.
+         */
+        MATRIX_PARAM,
+        /**
+         * The whole query.
+         */
+        QUERY,
+        /**
+         * The name or value of a query parameter, '&amp;', '=' and '+' are
+         * encoded and a space is encoded as '+' following the rules of the
+         * application/x-www-form-urlencoded media type.
+         */
+        QUERY_PARAM,
+        /**
+         * The fragment.
+         */
+        FRAGMENT
+    }
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final char REPLACEMENT = '\ufffd';
+
+    /**
+     * Characters permitted without encoding, indexed by component ordinal
+     * and character value; the last row is the literal text of a template
+     */
+    private static final boolean[][] ALLOWED = new boolean[Component.values().length + 1][128];
+
+    private static final int TEMPLATE = Component.values().length;
+
+    /**
+     * Values of hexadecimal digits indexed by character, -1 for other
+     * characters
+     */
+    private static final byte[] HEX_VALUE = new byte[128];
+
+    static {
+        String alpha = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        String digit = "0123456789";
+        String unreserved = alpha + digit + "-._~";
+        String subDelims = "!$&'()*+,;=";
+        allow(Component.SCHEME.ordinal(), alpha + digit + "+-.");
+        allow(Component.USER_INFO.ordinal(), unreserved + subDelims + ":");
+        allow(Component.HOST.ordinal(), unreserved + subDelims + "[]:");
+        allow(Component.AUTHORITY.ordinal(), unreserved + subDelims + ":@[]");
+        allow(Component.PATH.ordinal(), unreserved + subDelims + ":@/");
+        allow(Component.PATH_SEGMENT.ordinal(), unreserved + subDelims + ":@");
+        allow(Component.MATRIX_PARAM.ordinal(), unreserved + "!$&'()*+,:@");
+        allow(Component.QUERY.ordinal(), unreserved + subDelims + ":@/?");
+        allow(Component.QUERY_PARAM.ordinal(), unreserved + "!$'()*,;:@/?");
+        allow(Component.FRAGMENT.ordinal(), unreserved + subDelims + ":@/?");
+        allow(TEMPLATE, unreserved + subDelims + ":/?#[]@");
+
+        Arrays.fill(HEX_VALUE, (byte) -1);
+        for (int i = 0; i < 10; i++)
+            HEX_VALUE['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUE['a' + i] = (byte) (10 + i);
+            HEX_VALUE['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private static void allow(int row, String chars) {
+        for (int i = 0; i < chars.length(); i++)
+            ALLOWED[row][chars.charAt(i)] = true;
+    }
+
+    private UriCodec() {
+    }
+
+    /**
+     * Encode the characters of a value that are not permitted in a
+     * component. All '%' characters are encoded.
+     * @param value the value
+     * @param component the component the value is part of
+     * @return the encoded value, or value itself if no characters need to
+     * be encoded
+     * @throws IllegalArgumentException if value or component is null
+     */
+    public static String encode(String value, Component component) throws IllegalArgumentException {
+        return encode(value, component, false);
+    }
+
+    /**
+     * Encode the characters of a value that are not permitted in a
+     * component, retaining percent-encoded octets, i.e. a '%' followed by
+     * two hexadecimal digits is not encoded.
+     * @param value the value
+     * @param component the component the value is part of
+     * @return the encoded value, or value itself if no characters need to
+     * be encoded
+     * @throws IllegalArgumentException if value or component is null
+     */
+    public static String contextualEncode(String value, Component component) throws IllegalArgumentException {
+        return encode(value, component, true);
+    }
+
+    private static String encode(String value, Component component, boolean retainEncoded) {
+        if (value == null || component == null)
+            throw new IllegalArgumentException("value or component is null");
+        int row = component.ordinal();
+        int i = firstToEncode(value, 0, value.length(), row, retainEncoded);
+        if (i == value.length())
+            return value;
+        StringBuilder b = new StringBuilder(value.length() + 16);
+        b.append(value, 0, i);
+        return encodeFrom(b, value, i, value.length(), row, retainEncoded).toString();
+    }
+
+    /**
+     * Append a range of characters to a builder, encoding those that are not
+     * permitted in a component.
+     * @param b the builder
+     * @param value the characters
+     * @param start the index of the first character
+     * @param end the index following the last character
+     * @param component the component the value is part of
+     * @param retainEncoded if true percent-encoded octets are retained,
+     * otherwise every '%' is encoded
+     * @return the builder
+     * @throws IllegalArgumentException if an argument is null
+     * @throws IndexOutOfBoundsException if start or end are out of range
+     */
+    public static StringBuilder encode(StringBuilder b, CharSequence value, int start, int end,
+            Component component, boolean retainEncoded) {
+        if (b == null || value == null || component == null)
+            throw new IllegalArgumentException("argument is null");
+        checkRange(value, start, end);
+        return append(b, value, start, end, component.ordinal(), retainEncoded);
+    }
+
+    /**
+     * Append a value to a builder, encoding characters not permitted in the
+     * component; unchecked variant used by {@link UriTemplate}.
+     */
+    static StringBuilder append(StringBuilder b, CharSequence value, Component component,
+            boolean retainEncoded) {
+        return append(b, value, 0, value.length(), component.ordinal(), retainEncoded);
+    }
+
+    /**
+     * Append the literal text of a template, encoding only characters that
+     * are not permitted anywhere in a URI and retaining percent-encoded
+     * octets.
+     */
+    static StringBuilder appendTemplate(StringBuilder b, CharSequence value) {
+        return append(b, value, 0, value.length(), TEMPLATE, true);
+    }
+
+    private static StringBuilder append(StringBuilder b, CharSequence value, int start, int end,
+            int row, boolean retainEncoded) {
+        int i = firstToEncode(value, start, end, row, retainEncoded);
+        b.append(value, start, i);
+        return i == end ? b : encodeFrom(b, value, i, end, row, retainEncoded);
+    }
+
+    /**
+     * Find the first character that needs to be encoded.
+     * @return the index of the character or end if there is none
+     */
+    private static int firstToEncode(CharSequence value, int start, int end, int row,
+            boolean retainEncoded) {
+        boolean[] allowed = ALLOWED[row];
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || !allowed[c]) {
+                if (c == '%' && retainEncoded && isEncoded(value, i, end)) {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static StringBuilder encodeFrom(StringBuilder b, CharSequence value, int i, int end,
+            int row, boolean retainEncoded) {
+        boolean[] allowed = ALLOWED[row];
+        boolean plusForSpace = row == Component.QUERY_PARAM.ordinal();
+        while (i < end) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (allowed[c]) {
+                    b.append(c);
+                } else if (c == '%' && retainEncoded && isEncoded(value, i, end)) {
+                    b.append(value, i, i + 3);
+                    i += 2;
+                } else if (c == ' ' && plusForSpace) {
+                    b.append('+');
+                } else {
+                    appendEscaped(b, c);
+                }
+                i++;
+                continue;
+            }
+            int cp = c;
+            if (Character.isHighSurrogate(c) && i + 1 < end
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                cp = Character.toCodePoint(c, value.charAt(i + 1));
+                i++;
+            } else if (c >= '\ud800' && c <= '\udfff') {
+                cp = REPLACEMENT;
+            }
+            appendUtf8(b, cp);
+            i++;
+        }
+        return b;
+    }
+
+    private static boolean isEncoded(CharSequence value, int i, int end) {
+        return i + 2 < end && hexValue(value.charAt(i + 1)) >= 0 && hexValue(value.charAt(i + 2)) >= 0;
+    }
+
+    private static int hexValue(char c) {
+        return c < 128 ? HEX_VALUE[c] : -1;
+    }
+
+    private static void appendUtf8(StringBuilder b, int cp) {
+        if (cp < 0x800) {
+            appendEscaped(b, 0xc0 | (cp >> 6));
+            appendEscaped(b, 0x80 | (cp & 0x3f));
+        } else if (cp < 0x10000) {
+            appendEscaped(b, 0xe0 | (cp >> 12));
+            appendEscaped(b, 0x80 | ((cp >> 6) & 0x3f));
+            appendEscaped(b, 0x80 | (cp & 0x3f));
+        } else {
+            appendEscaped(b, 0xf0 | (cp >> 18));
+            appendEscaped(b, 0x80 | ((cp >> 12) & 0x3f));
+            appendEscaped(b, 0x80 | ((cp >> 6) & 0x3f));
+            appendEscaped(b, 0x80 | (cp & 0x3f));
+        }
+    }
+
+    private static void appendEscaped(StringBuilder b, int octet) {
+        b.append('%').append(HEX[octet >> 4]).append(HEX[octet & 0xf]);
+    }
+
+    /**
+     * Decode the percent-encoded octets of a value.
+     * @param value the value
+     * @return the decoded value, or value itself if it contains no
+     * percent-encoded octets
+     * @throws IllegalArgumentException if value is null or contains a '%'
+     * that is not followed by two hexadecimal digits
+     */
+    public static String decode(String value) throws IllegalArgumentException {
+        return decode(value, false);
+    }
+
+    /**
+     * Decode a value of a component. A '+' in a
+     * {@link Component#QUERY_PARAM} value is decoded as a space.
+     * @param value the value
+     * @param component the component the value is part of
+     * @return the decoded value, or value itself if there is nothing to
+     * decode
+     * @throws IllegalArgumentException if value or component is null or
+     * value contains a '%' that is not followed by two hexadecimal digits
+     */
+    public static String decode(String value, Component component) throws IllegalArgumentException {
+        if (component == null)
+            throw new IllegalArgumentException("component is null");
+        return decode(value, component == Component.QUERY_PARAM);
+    }
+
+    private static String decode(String value, boolean plusAsSpace) {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        int n = value.length();
+        int i = firstToDecode(value, 0, n, plusAsSpace);
+        if (i == n)
+            return value;
+        StringBuilder b = new StringBuilder(n);
+        b.append(value, 0, i);
+        return decodeFrom(b, value, i, n, plusAsSpace).toString();
+    }
+
+    /**
+     * Decode a range of characters, e.g. a parameter within a query string,
+     * without first copying the range.
+     * @param value the characters
+     * @param start the index of the first character
+     * @param end the index following the last character
+     * @param plusAsSpace if true '+' is decoded as a space
+     * @return the decoded characters
+     * @throws IllegalArgumentException if value is null or the range
+     * contains a '%' that is not followed by two hexadecimal digits
+     * @throws IndexOutOfBoundsException if start or end are out of range
+     */
+    public static String decode(CharSequence value, int start, int end, boolean plusAsSpace)
+            throws IllegalArgumentException {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        checkRange(value, start, end);
+        int i = firstToDecode(value, start, end, plusAsSpace);
+        if (i == end)
+            return value.subSequence(start, end).toString();
+        StringBuilder b = new StringBuilder(end - start);
+        b.append(value, start, i);
+        return decodeFrom(b, value, i, end, plusAsSpace).toString();
+    }
+
+    /**
+     * Append the decoded form of a range of characters to a builder.
+     * @param b the builder
+     * @param value the characters
+     * @param start the index of the first character
+     * @param end the index following the last character
+     * @param plusAsSpace if true '+' is decoded as a space
+     * @return the builder
+     * @throws IllegalArgumentException if b or value is null or the range
+     * contains a '%' that is not followed by two hexadecimal digits
+     * @throws IndexOutOfBoundsException if start or end are out of range
+     */
+    public static StringBuilder decode(StringBuilder b, CharSequence value, int start, int end,
+            boolean plusAsSpace) throws IllegalArgumentException {
+        if (b == null || value == null)
+            throw new IllegalArgumentException("argument is null");
+        checkRange(value, start, end);
+        int i = firstToDecode(value, start, end, plusAsSpace);
+        b.append(value, start, i);
+        return i == end ? b : decodeFrom(b, value, i, end, plusAsSpace);
+    }
+
+    private static int firstToDecode(CharSequence value, int start, int end, boolean plusAsSpace) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '+' && plusAsSpace)
+                return i;
+        }
+        return end;
+    }
+
+    private static StringBuilder decodeFrom(StringBuilder b, CharSequence value, int i, int end,
+            boolean plusAsSpace) {
+        // state of the UTF-8 sequence being decoded
+        int cp = 0;
+        int remaining = 0;
+        int min = 0;
+        while (i < end) {
+            char c = value.charAt(i);
+            if (c != '%') {
+                if (remaining > 0) {
+                    b.append(REPLACEMENT);
+                    remaining = 0;
+                }
+                b.append(c == '+' && plusAsSpace ? ' ' : c);
+                i++;
+                continue;
+            }
+            if (!isEncoded(value, i, end))
+                throw new IllegalArgumentException("Malformed percent-encoded octet at index "
+                        + i + " of " + value.subSequence(0, end));
+            int octet = (hexValue(value.charAt(i + 1)) << 4) | hexValue(value.charAt(i + 2));
+            i += 3;
+            if (remaining > 0) {
+                if ((octet & 0xc0) == 0x80) {
+                    cp = (cp << 6) | (octet & 0x3f);
+                    if (--remaining == 0)
+                        appendCodePoint(b, cp, min);
+                    continue;
+                }
+                // sequence truncated, decode octet afresh
+                b.append(REPLACEMENT);
+                remaining = 0;
+            }
+            if (octet < 0x80) {
+                b.append((char) octet);
+            } else if ((octet & 0xe0) == 0xc0) {
+                cp = octet & 0x1f;
+                remaining = 1;
+                min = 0x80;
+            } else if ((octet & 0xf0) == 0xe0) {
+                cp = octet & 0x0f;
+                remaining = 2;
+                min = 0x800;
+            } else if ((octet & 0xf8) == 0xf0) {
+                cp = octet & 0x07;
+                remaining = 3;
+                min = 0x10000;
+            } else {
+                b.append(REPLACEMENT);
+            }
+        }
+        if (remaining > 0)
+            b.append(REPLACEMENT);
+        return b;
+    }
+
+    private static void appendCodePoint(StringBuilder b, int cp, int min) {
+        if (cp < min || cp > Character.MAX_CODE_POINT || cp >= 0xd800 && cp <= 0xdfff)
+            b.append(REPLACEMENT);
+        else
+            b.appendCodePoint(cp);
+    }
+
+    private static void checkRange(CharSequence value, int start, int end) {
+        if (start < 0 || end > value.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end
+                    + ", length " + value.length());
+    }
+}
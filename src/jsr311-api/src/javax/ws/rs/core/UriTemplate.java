@@ -0,0 +1,502 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.ws.rs.core.UriCodec.Component;
+
+/**
+ * A compiled URI template. See {@link javax.ws.rs.Path#value} for an
+ * explanation of URI templates.
+ *
+ * <p>Compiling a template splits it into literal chunks, which are encoded
+ * once, and template parameters, each tagged with the URI component in which
+ * it appears. Expanding the template appends the chunks and the encoded
+ * parameter values to a single {@link StringBuilder}; the template is not
+ * parsed again and no intermediate {@link URI} is created. Values are
+ * encoded according to the same rules as {@link UriBuilder}: '/' is
+ * permitted in values substituted into the path. A parameter in the query is
+ * taken to be a query parameter name or value, as in {@code ?q={q}}, so a
+ * space is encoded as '+' and '&amp;', '=' and '+' are percent-encoded,
+ * unless it is the whole query, as in {@code ?{query}}, in which case
+ * '&amp;' and '=' are retained and a space is encoded as {@code %20}.
+ * Template parameter regular expressions are ignored when expanding a
+ * template.</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.
+ * {@link #compile} caches compiled templates by template string.</p>
+ *
+ * @see UriBuilder#toUriTemplate
+ */
+public final class UriTemplate {
+
+    /**
+     * The maximum number of compiled templates cached by {@link #compile}.
+     */
+    public static final int CACHE_CAPACITY = 1024;
+
+    private static final ConcurrentMap<String, UriTemplate> cache =
+            new ConcurrentHashMap<String, UriTemplate>();
+
+    private final String template;
+
+    /**
+     * Literal chunks, chunk i precedes parameter i, the last chunk follows
+     * the last parameter
+     */
+    private final String[] chunks;
+
+    /**
+     * For each parameter occurrence the index of its name in names
+     */
+    private final int[] parameters;
+
+    /**
+     * For each parameter occurrence the URI component it appears in
+     */
+    private final Component[] components;
+
+    private final String[] names;
+    private final String[] regexes;
+    private final int literalLength;
+
+    private UriTemplate(String template) {
+        this.template = template;
+        List<String> chunkList = new ArrayList<String>();
+        List<Integer> parameterList = new ArrayList<Integer>();
+        List<Component> componentList = new ArrayList<Component>();
+        List<String> nameList = new ArrayList<String>();
+        List<String> regexList = new ArrayList<String>();
+
+        int n = template.length();
+        Component component = initialComponent(template);
+        int authorityStart = component == Component.SCHEME ? -1 : 0;
+        StringBuilder chunk = new StringBuilder();
+        int literalStart = 0;
+        int i = 0;
+        while (i < n) {
+            char c = template.charAt(i);
+            if (c != '{') {
+                // track the component the following characters belong to
+                if (component == Component.SCHEME && c == ':') {
+                    component = template.startsWith("//", i + 1) ? Component.AUTHORITY : Component.PATH;
+                    authorityStart = i + 3;
+                    if (component == Component.AUTHORITY)
+                        i += 2;
+                } else if (component == Component.AUTHORITY && c == '/' && i >= authorityStart) {
+                    component = Component.PATH;
+                } else if (c == '?' && component.compareTo(Component.QUERY) < 0) {
+                    component = Component.QUERY;
+                } else if (c == '#' && component.compareTo(Component.FRAGMENT) < 0) {
+                    component = Component.FRAGMENT;
+                }
+                i++;
+                continue;
+            }
+            UriCodec.appendTemplate(chunk, template.substring(literalStart, i));
+            int end = closingBrace(template, i);
+            String content = template.substring(i + 1, end);
+            int colon = content.indexOf(':');
+            String name = (colon == -1 ? content : content.substring(0, colon)).trim();
+            if (name.length() == 0)
+                throw new IllegalArgumentException("Empty template parameter name in " + template);
+            int index = nameList.indexOf(name);
+            if (index == -1) {
+                index = nameList.size();
+                nameList.add(name);
+                regexList.add(colon == -1 ? null : content.substring(colon + 1).trim());
+            }
+            chunkList.add(chunk.toString());
+            chunk.setLength(0);
+            parameterList.add(index);
+            // values in the query are parameter names or values unless the
+            // parameter is the whole query
+            if (component == Component.QUERY && !(template.charAt(i - 1) == '?'
+                    && (end + 1 == n || template.charAt(end + 1) == '#')))
+                componentList.add(Component.QUERY_PARAM);
+            else
+                componentList.add(component);
+            i = end + 1;
+            literalStart = i;
+        }
+        UriCodec.appendTemplate(chunk, template.substring(literalStart));
+        chunkList.add(chunk.toString());
+
+        this.chunks = chunkList.toArray(new String[chunkList.size()]);
+        this.parameters = toArray(parameterList);
+        this.components = componentList.toArray(new Component[componentList.size()]);
+        this.names = nameList.toArray(new String[nameList.size()]);
+        this.regexes = regexList.toArray(new String[regexList.size()]);
+        int length = 0;
+        for (String s : chunks)
+            length += s.length();
+        this.literalLength = length;
+    }
+
+    /**
+     * Determine whether the template starts with a scheme.
+     */
+    private static Component initialComponent(String template) {
+        for (int i = 0, n = template.length(); i < n; i++) {
+            char c = template.charAt(i);
+            if (c == ':')
+                return i > 0 ? Component.SCHEME : Component.PATH;
+            boolean schemeChar = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z'
+                    || i > 0 && (c >= '0' && c <= '9' || c == '+' || c == '-' || c == '.');
+            if (!schemeChar)
+                return Component.PATH;
+        }
+        return Component.PATH;
+    }
+
+    /**
+     * Find the brace that closes the template parameter starting at start,
+     * allowing for braces in the regular expression.
+     */
+    static int closingBrace(String template, int start) {
+        int depth = 0;
+        for (int i = start, n = template.length(); i < n; i++) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated template parameter in " + template);
+    }
+
+    private static int[] toArray(List<Integer> l) {
+        int[] a = new int[l.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = l.get(i);
+        return a;
+    }
+
+    /**
+     * Obtain the compiled form of a URI template. Compiled templates are
+     * cached, when the cache is full an arbitrary entry is evicted to make
+     * room.
+     * @param template the URI template
+     * @return the compiled template
+     * @throws IllegalArgumentException if template is null or contains an
+     * unterminated or unnamed template parameter
+     */
+    public static UriTemplate compile(String template) throws IllegalArgumentException {
+        if (template == null)
+            throw new IllegalArgumentException("template is null");
+        UriTemplate t = cache.get(template);
+        if (t != null)
+            return t;
+        t = new UriTemplate(template);
+        if (cache.size() >= CACHE_CAPACITY) {
+            Iterator<String> i = cache.keySet().iterator();
+            if (i.hasNext()) {
+                i.next();
+                i.remove();
+            }
+        }
+        UriTemplate existing = cache.putIfAbsent(template, t);
+        return existing == null ? t : existing;
+    }
+
+    /**
+     * Get the template string.
+     * @return the template this instance was compiled from
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Get the names of the template parameters.
+     * @return a read-only list of the distinct parameter names in the order
+     * of their first occurrence
+     */
+    public List<String> getNames() {
+        List<String> l = new ArrayList<String>(names.length);
+        Collections.addAll(l, names);
+        return Collections.unmodifiableList(l);
+    }
+
+    /**
+     * Get the regular expression of a template parameter.
+     * @param index the index of the parameter in {@link #getNames}
+     * @return the regular expression or null if none was declared
+     */
+    String getRegex(int index) {
+        return regexes[index];
+    }
+
+    /**
+     * Expand the template, using the supplied values in order to replace the
+     * template parameters. As with {@link UriBuilder#build} all instances of
+     * the same template parameter are replaced by the value corresponding to
+     * its first occurrence and all '%' characters in the values are encoded.
+     * @param values the parameter values, converted to strings using their
+     * {@code toString} method
+     * @return the expanded template
+     * @throws IllegalArgumentException if there are fewer values than
+     * parameters or a value is null
+     */
+    public String expand(Object... values) throws IllegalArgumentException {
+        return appendTo(new StringBuilder(literalLength + 16 * parameters.length), false, values).toString();
+    }
+
+    /**
+     * Expand the template as {@link #expand(Object...)} does but retain
+     * percent-encoded octets in the values.
+     * @param values the parameter values
+     * @return the expanded template
+     * @throws IllegalArgumentException if there are fewer values than
+     * parameters or a value is null
+     * @see UriBuilder#buildFromEncoded
+     */
+    public String expandEncoded(Object... values) throws IllegalArgumentException {
+        return appendTo(new StringBuilder(literalLength + 16 * parameters.length), true, values).toString();
+    }
+
+    /**
+     * Expand the template, replacing the template parameters with the values
+     * in the supplied map. All '%' characters in the values are encoded.
+     * @param values a map of parameter names and values
+     * @return the expanded template
+     * @throws IllegalArgumentException if a parameter has no value or a
+     * value is null
+     */
+    public String expandFromMap(Map<String, ? extends Object> values) throws IllegalArgumentException {
+        return appendFromMap(new StringBuilder(literalLength + 16 * parameters.length), false, values).toString();
+    }
+
+    /**
+     * Expand the template as {@link #expandFromMap} does but retain
+     * percent-encoded octets in the values.
+     * @param values a map of parameter names and values
+     * @return the expanded template
+     * @throws IllegalArgumentException if a parameter has no value or a
+     * value is null
+     */
+    public String expandFromEncodedMap(Map<String, ? extends Object> values) throws IllegalArgumentException {
+        return appendFromMap(new StringBuilder(literalLength + 16 * parameters.length), true, values).toString();
+    }
+
+    /**
+     * Build a URI by expanding the template as {@link #expand(Object...)}
+     * does.
+     * @param values the parameter values
+     * @return the URI
+     * @throws IllegalArgumentException if there are fewer values than
+     * parameters or a value is null
+     * @throws UriBuilderException if the expanded template is not a valid URI
+     */
+    public URI build(Object... values) throws IllegalArgumentException, UriBuilderException {
+        return toURI(expand(values));
+    }
+
+    /**
+     * Build a URI by expanding the template as {@link #expandFromMap} does.
+     * @param values a map of parameter names and values
+     * @return the URI
+     * @throws IllegalArgumentException if a parameter has no value or a
+     * value is null
+     * @throws UriBuilderException if the expanded template is not a valid URI
+     */
+    public URI buildFromMap(Map<String, ? extends Object> values)
+            throws IllegalArgumentException, UriBuilderException {
+        return toURI(expandFromMap(values));
+    }
+
+    private static URI toURI(String s) {
+        try {
+            return new URI(s);
+        } catch (URISyntaxException e) {
+            throw new UriBuilderException(e);
+        }
+    }
+
+    /**
+     * Expand the template into the supplied builder, using the supplied
+     * values in order to replace the template parameters.
+     * @param b the builder to append to
+     * @param encoded if true percent-encoded octets in the values are
+     * retained, otherwise all '%' characters are encoded
+     * @param values the parameter values
+     * @return the builder
+     * @throws IllegalArgumentException if there are fewer values than
+     * parameters or a value is null
+     */
+    public StringBuilder appendTo(StringBuilder b, boolean encoded, Object... values)
+            throws IllegalArgumentException {
+        int count = values == null ? 0 : values.length;
+        if (count < names.length)
+            throw new IllegalArgumentException("Expected " + names.length
+                    + " template parameter values, got " + count);
+        b.append(chunks[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            int p = parameters[i];
+            Object value = values[p];
+            if (value == null)
+                throw new IllegalArgumentException("Value of template parameter '"
+                        + names[p] + "' is null");
+            UriCodec.append(b, value.toString(), components[i], encoded);
+            b.append(chunks[i + 1]);
+        }
+        return b;
+    }
+
+    /**
+     * Expand the template into the supplied builder, replacing the template
+     * parameters with the values in the supplied map.
+     * @param b the builder to append to
+     * @param encoded if true percent-encoded octets in the values are
+     * retained, otherwise all '%' characters are encoded
+     * @param values a map of parameter names and values
+     * @return the builder
+     * @throws IllegalArgumentException if a parameter has no value or a
+     * value is null
+     */
+    public StringBuilder appendFromMap(StringBuilder b, boolean encoded, Map<String, ? extends Object> values)
+            throws IllegalArgumentException {
+        if (values == null)
+            throw new IllegalArgumentException("values is null");
+        b.append(chunks[0]);
+        for (int i = 0; i < parameters.length; i++) {
+            String name = names[parameters[i]];
+            Object value = values.get(name);
+            if (value == null)
+                throw new IllegalArgumentException("No value for template parameter '"
+                        + name + "'");
+            UriCodec.append(b, value.toString(), components[i], encoded);
+            b.append(chunks[i + 1]);
+        }
+        return b;
+    }
+
+    /**
+     * Expand the template once for each tuple of values, appending the
+     * resulting URIs to a single buffer. Each tuple is processed as by
+     * {@link #appendTo(StringBuilder, boolean, Object...)} with all '%'
+     * characters in the values encoded.
+     * @param tuples the parameter values of each URI
+     * @param into the buffer to append to, or null to create a new buffer
+     * @return the buffer
+     * @throws IllegalArgumentException if tuples is null, a tuple has fewer
+     * values than there are parameters or a value is null. URIs expanded
+     * before the failing tuple remain in the buffer.
+     */
+    public UriBuffer expandAll(Iterable<? extends Object[]> tuples, UriBuffer into)
+            throws IllegalArgumentException {
+        if (tuples == null)
+            throw new IllegalArgumentException("tuples is null");
+        UriBuffer buffer = into == null ? new UriBuffer() : into;
+        StringBuilder b = buffer.builder();
+        try {
+            for (Object[] values : tuples) {
+                appendTo(b, false, values);
+                buffer.endUri();
+            }
+        } catch (IllegalArgumentException e) {
+            buffer.discardIncomplete();
+            throw e;
+        }
+        return buffer;
+    }
+
+    /**
+     * Expand a template that has a single template parameter once for each
+     * of the supplied values, appending the resulting URIs to a single
+     * buffer. No array is created per value.
+     * @param values the value of the template parameter for each URI
+     * @param into the buffer to append to, or null to create a new buffer
+     * @return the buffer
+     * @throws IllegalArgumentException if values is null, a value is null or
+     * the template does not have exactly one template parameter. URIs
+     * expanded before the failing value remain in the buffer.
+     */
+    public UriBuffer expandEach(Iterable<?> values, UriBuffer into)
+            throws IllegalArgumentException {
+        if (values == null)
+            throw new IllegalArgumentException("values is null");
+        if (names.length != 1)
+            throw new IllegalArgumentException("Template " + template
+                    + " does not have exactly one template parameter");
+        UriBuffer buffer = into == null ? new UriBuffer() : into;
+        StringBuilder b = buffer.builder();
+        for (Object value : values) {
+            if (value == null) {
+                buffer.discardIncomplete();
+                throw new IllegalArgumentException("Value of template parameter '"
+                        + names[0] + "' is null");
+            }
+            String s = value.toString();
+            b.append(chunks[0]);
+            for (int i = 0; i < parameters.length; i++) {
+                UriCodec.append(b, s, components[i], false);
+                b.append(chunks[i + 1]);
+            }
+            buffer.endUri();
+        }
+        return buffer;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof UriTemplate && template.equals(((UriTemplate) obj).template);
+    }
+
+    @Override
+    public int hashCode() {
+        return template.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
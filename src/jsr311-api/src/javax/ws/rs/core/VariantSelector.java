@@ -0,0 +1,519 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A precompiled form of a list of representation variants that can be used
+ * to implement {@link Request#selectVariant}. The supplied variants are
+ * indexed once by media type, language and encoding; each call to
+ * {@link #select} then makes a single pass over the acceptable values of the
+ * request, in order of preference, to rank the variants.
+ *
+ * <p>A variant is acceptable if each of its non-null properties matches at
+ * least one acceptable value. Acceptable variants are ranked by the position
+ * of the first acceptable media type, language and encoding they match, in
+ * that order, then by the number of non-null properties (more explicit
+ * variants are chosen ahead of less explicit ones) and finally by their
+ * position in the supplied list. A null property matches any value but ranks
+ * behind all explicit matches. Ranges whose quality is zero exclude the
+ * variants they match unless a more specific range accepts them.</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @see Request#selectVariant
+ * @see Variant.VariantListBuilder
+ */
+public final class VariantSelector {
+
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private static final int[] none = new int[0];
+
+    private final Variant[] variants;
+    private final int[] explicitness;
+
+    // media type indexes
+    private final int[] withMediaType;
+    private final int[] wildcardMediaType;
+    private final Map<String, int[]> byType;
+    private final Map<String, int[]> wildcardSubtypeByType;
+    private final Map<String, Map<String, int[]>> bySubtype;
+
+    // language indexes
+    private final int[] withLanguage;
+    private final Map<String, int[]> byLanguage;
+    private final Map<String, Map<String, int[]>> byCountry;
+
+    // encoding indexes
+    private final int[] withEncoding;
+    private final Map<String, int[]> byEncoding;
+
+    private final String vary;
+
+    /**
+     * Compile a list of variants.
+     * @param variants a list of Variant that describe all of the available
+     * representation variants
+     * @throws IllegalArgumentException if variants is empty or null
+     */
+    public VariantSelector(List<Variant> variants) throws IllegalArgumentException {
+        if (variants == null || variants.isEmpty())
+            throw new IllegalArgumentException("variants is empty or null");
+        this.variants = variants.toArray(new Variant[variants.size()]);
+        this.explicitness = new int[this.variants.length];
+
+        List<Integer> mediaTypes = new ArrayList<Integer>();
+        List<Integer> wildcards = new ArrayList<Integer>();
+        Map<String, List<Integer>> types = new HashMap<String, List<Integer>>();
+        Map<String, List<Integer>> wildcardSubtypes = new HashMap<String, List<Integer>>();
+        Map<String, Map<String, List<Integer>>> subtypes = new HashMap<String, Map<String, List<Integer>>>();
+        List<Integer> languages = new ArrayList<Integer>();
+        Map<String, List<Integer>> languageTags = new HashMap<String, List<Integer>>();
+        Map<String, Map<String, List<Integer>>> countries = new HashMap<String, Map<String, List<Integer>>>();
+        List<Integer> encodings = new ArrayList<Integer>();
+        Map<String, List<Integer>> encodingNames = new HashMap<String, List<Integer>>();
+        // distinct values of each property, null included, used for Vary
+        Set<String> distinctMediaTypes = new HashSet<String>();
+        Set<String> distinctLanguages = new HashSet<String>();
+        Set<String> distinctEncodings = new HashSet<String>();
+
+        for (int i = 0; i < this.variants.length; i++) {
+            Variant v = this.variants[i];
+            if (v == null)
+                throw new IllegalArgumentException("variants contains null");
+            MediaType m = v.getMediaType();
+            if (m != null) {
+                explicitness[i]++;
+                mediaTypes.add(i);
+                if (m.isWildcardType()) {
+                    wildcards.add(i);
+                } else {
+                    add(types, m.lowerType, i);
+                    if (m.isWildcardSubtype())
+                        add(wildcardSubtypes, m.lowerType, i);
+                    else
+                        add(subtypes, m.lowerType, m.lowerSubtype, i);
+                }
+            }
+            distinctMediaTypes.add(m == null ? null : m.lowerType + '/' + m.lowerSubtype);
+            Locale l = v.getLanguage();
+            if (l != null) {
+                explicitness[i]++;
+                languages.add(i);
+                String language = l.getLanguage().toLowerCase(Locale.ENGLISH);
+                add(languageTags, language, i);
+                add(countries, language, l.getCountry().toLowerCase(Locale.ENGLISH), i);
+            }
+            distinctLanguages.add(l == null ? null : l.toString().toLowerCase(Locale.ENGLISH));
+            String e = v.getEncoding();
+            if (e != null) {
+                explicitness[i]++;
+                encodings.add(i);
+                add(encodingNames, e.toLowerCase(Locale.ENGLISH), i);
+            }
+            distinctEncodings.add(e == null ? null : e.toLowerCase(Locale.ENGLISH));
+        }
+
+        this.withMediaType = toArray(mediaTypes);
+        this.wildcardMediaType = toArray(wildcards);
+        this.byType = compile(types);
+        this.wildcardSubtypeByType = compile(wildcardSubtypes);
+        this.bySubtype = compileNested(subtypes);
+        this.withLanguage = toArray(languages);
+        this.byLanguage = compile(languageTags);
+        this.byCountry = compileNested(countries);
+        this.withEncoding = toArray(encodings);
+        this.byEncoding = compile(encodingNames);
+        this.vary = vary(distinctMediaTypes.size() > 1, distinctLanguages.size() > 1,
+                distinctEncodings.size() > 1);
+    }
+
+    /**
+     * Get the compiled variants.
+     * @return a read-only list of the variants in the order they were supplied
+     */
+    public List<Variant> getVariants() {
+        List<Variant> l = new ArrayList<Variant>(variants.length);
+        Collections.addAll(l, variants);
+        return Collections.unmodifiableList(l);
+    }
+
+    /**
+     * Get the value of the Vary header that should accompany a response
+     * whose representation was chosen by this selector.
+     * @return a comma separated list of the request headers that
+     * influence the selection, or null if there is only one possible
+     * choice
+     */
+    public String getVary() {
+        return vary;
+    }
+
+    /**
+     * Select the variant that best matches the supplied acceptable values.
+     * @param acceptableMediaTypes the acceptable media types with highest
+     * preference first, as returned by
+     * {@link HttpHeaders#getAcceptableMediaTypes()}. Null or empty is
+     * equivalent to a single wildcard media type. An
+     * {@link AcceptableMediaType} whose quality is zero excludes the
+     * variants it matches, see {@link #selectAcceptable}.
+     * @param acceptableLanguages the acceptable languages with highest
+     * preference first, as returned by
+     * {@link HttpHeaders#getAcceptableLanguages()}. Null or empty means any
+     * language is acceptable.
+     * @param acceptableEncodings the acceptable content encodings with highest
+     * preference first. Null or empty means any encoding is acceptable.
+     * @return the variant that best matches, or null if none of the variants
+     * are acceptable
+     */
+    public Variant select(List<MediaType> acceptableMediaTypes,
+            List<Locale> acceptableLanguages, List<String> acceptableEncodings) {
+        return select(acceptableMediaTypes, acceptableLanguages, null, acceptableEncodings);
+    }
+
+    /**
+     * Select the variant that best matches the supplied acceptable ranges,
+     * taking account of ranges whose quality is zero. Such a range marks the
+     * values it matches as not acceptable: a variant is rejected if the
+     * most specific range that matches its media type or language has a
+     * quality of zero, e.g. with {@code Accept: text/*, text/html;q=0} a
+     * {@code text/html} variant is not acceptable but a {@code text/plain}
+     * variant is. Otherwise variants are ranked as for {@link #select}.
+     * @param acceptableMediaTypes the acceptable media ranges with highest
+     * preference first, as returned by
+     * {@link AcceptHeaders#getAcceptableMediaTypes()}. Null or empty is
+     * equivalent to a single wildcard media type.
+     * @param acceptableLanguages the acceptable language ranges with highest
+     * preference first, as returned by
+     * {@link AcceptHeaders#getAcceptableLanguages()}. Null or empty means any
+     * language is acceptable.
+     * @param acceptableEncodings the acceptable content encodings with highest
+     * preference first. Null or empty means any encoding is acceptable.
+     * @return the variant that best matches, or null if none of the variants
+     * are acceptable
+     */
+    public Variant selectAcceptable(List<AcceptableMediaType> acceptableMediaTypes,
+            List<AcceptableLanguage> acceptableLanguages, List<String> acceptableEncodings) {
+        List<Locale> locales = null;
+        int[] qualities = null;
+        if (acceptableLanguages != null) {
+            int size = acceptableLanguages.size();
+            locales = new ArrayList<Locale>(size);
+            qualities = new int[size];
+            for (int i = 0; i < size; i++) {
+                AcceptableLanguage l = acceptableLanguages.get(i);
+                locales.add(l.getLocale());
+                qualities[i] = l.getQuality();
+            }
+        }
+        return select(acceptableMediaTypes, locales, qualities, acceptableEncodings);
+    }
+
+    private Variant select(List<? extends MediaType> acceptableMediaTypes, List<Locale> acceptableLanguages,
+            int[] languageQualities, List<String> acceptableEncodings) {
+        int n = variants.length;
+        int[] mediaRank = new int[n];
+        int[] languageRank = new int[n];
+        int[] encodingRank = new int[n];
+        rankMediaTypes(acceptableMediaTypes, mediaRank);
+        rankLanguages(acceptableLanguages, languageQualities, languageRank);
+        rankEncodings(acceptableEncodings, encodingRank);
+
+        int best = -1;
+        for (int i = 0; i < n; i++) {
+            if (mediaRank[i] == NO_MATCH || languageRank[i] == NO_MATCH
+                    || encodingRank[i] == NO_MATCH)
+                continue;
+            if (best == -1 || compare(i, best, mediaRank, languageRank, encodingRank) < 0)
+                best = i;
+        }
+        return best == -1 ? null : variants[best];
+    }
+
+    private int compare(int i, int j, int[] mediaRank, int[] languageRank, int[] encodingRank) {
+        if (mediaRank[i] != mediaRank[j])
+            return mediaRank[i] < mediaRank[j] ? -1 : 1;
+        if (languageRank[i] != languageRank[j])
+            return languageRank[i] < languageRank[j] ? -1 : 1;
+        if (encodingRank[i] != encodingRank[j])
+            return encodingRank[i] < encodingRank[j] ? -1 : 1;
+        if (explicitness[i] != explicitness[j])
+            return explicitness[i] > explicitness[j] ? -1 : 1;
+        return 0;
+    }
+
+    private void rankMediaTypes(List<? extends MediaType> acceptable, int[] rank) {
+        if (acceptable == null || acceptable.isEmpty()) {
+            initRanks(rank, withMediaType, 0, 1);
+            return;
+        }
+        int size = acceptable.size();
+        initRanks(rank, withMediaType, NO_MATCH, size);
+        Exclusions exclusions = null;
+        for (MediaType m : acceptable) {
+            if (isExcluded(m)) {
+                exclusions = new Exclusions(rank.length);
+                break;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            MediaType m = acceptable.get(i);
+            int[] specificity = null;
+            int position = i;
+            if (exclusions != null) {
+                if (isExcluded(m)) {
+                    specificity = exclusions.excluded;
+                    position = NO_MATCH;
+                } else {
+                    specificity = exclusions.included;
+                }
+            }
+            if (m.isWildcardType()) {
+                mark(rank, withMediaType, position, specificity, 1);
+                continue;
+            }
+            int s = m.isWildcardSubtype() ? 2 : 3;
+            mark(rank, wildcardMediaType, position, specificity, s);
+            if (m.isWildcardSubtype()) {
+                mark(rank, byType.get(m.lowerType), position, specificity, s);
+            } else {
+                mark(rank, wildcardSubtypeByType.get(m.lowerType), position, specificity, s);
+                Map<String, int[]> t = bySubtype.get(m.lowerType);
+                if (t != null)
+                    mark(rank, t.get(m.lowerSubtype), position, specificity, s);
+            }
+        }
+        if (exclusions != null)
+            exclusions.apply(rank);
+    }
+
+    private static boolean isExcluded(MediaType m) {
+        return m instanceof AcceptableMediaType && ((AcceptableMediaType) m).getQuality() == 0;
+    }
+
+    private void rankLanguages(List<Locale> acceptable, int[] qualities, int[] rank) {
+        if (acceptable == null || acceptable.isEmpty()) {
+            initRanks(rank, withLanguage, 0, 1);
+            return;
+        }
+        int size = acceptable.size();
+        initRanks(rank, withLanguage, NO_MATCH, size);
+        Exclusions exclusions = null;
+        if (qualities != null) {
+            for (int q : qualities) {
+                if (q == 0) {
+                    exclusions = new Exclusions(rank.length);
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            Locale l = acceptable.get(i);
+            int[] specificity = null;
+            int position = i;
+            if (exclusions != null) {
+                if (qualities[i] == 0) {
+                    specificity = exclusions.excluded;
+                    position = NO_MATCH;
+                } else {
+                    specificity = exclusions.included;
+                }
+            }
+            String language = l.getLanguage().toLowerCase(Locale.ENGLISH);
+            if (language.equals("*")) {
+                mark(rank, withLanguage, position, specificity, 1);
+            } else if (l.getCountry().length() == 0) {
+                mark(rank, byLanguage.get(language), position, specificity, 2);
+            } else {
+                Map<String, int[]> c = byCountry.get(language);
+                if (c != null)
+                    mark(rank, c.get(l.getCountry().toLowerCase(Locale.ENGLISH)), position, specificity, 3);
+            }
+        }
+        if (exclusions != null)
+            exclusions.apply(rank);
+    }
+
+    private void rankEncodings(List<String> acceptable, int[] rank) {
+        if (acceptable == null || acceptable.isEmpty()) {
+            initRanks(rank, withEncoding, 0, 1);
+            return;
+        }
+        int size = acceptable.size();
+        initRanks(rank, withEncoding, NO_MATCH, size);
+        for (int i = 0; i < size; i++) {
+            String e = acceptable.get(i);
+            if (e.equals("*"))
+                mark(rank, withEncoding, i);
+            else
+                mark(rank, byEncoding.get(e.toLowerCase(Locale.ENGLISH)), i);
+        }
+    }
+
+    /**
+     * Set the rank of variants that have the property to explicit and the
+     * rank of those that do not to nullRank.
+     */
+    private static void initRanks(int[] rank, int[] explicit, int explicitRank, int nullRank) {
+        for (int i = 0; i < rank.length; i++)
+            rank[i] = nullRank;
+        for (int i : explicit)
+            rank[i] = explicitRank;
+    }
+
+    private static void mark(int[] rank, int[] indexes, int position) {
+        if (indexes == null)
+            return;
+        for (int i : indexes) {
+            if (rank[i] > position)
+                rank[i] = position;
+        }
+    }
+
+    /**
+     * Mark the variants matched by a range, also recording the specificity
+     * of the range if specificity is not null.
+     */
+    private static void mark(int[] rank, int[] indexes, int position, int[] specificity, int s) {
+        mark(rank, indexes, position);
+        if (indexes == null || specificity == null)
+            return;
+        for (int i : indexes) {
+            if (specificity[i] < s)
+                specificity[i] = s;
+        }
+    }
+
+    /**
+     * The specificity of the most specific acceptable and quality zero
+     * ranges that match each variant, zero if no range matches.
+     */
+    private static final class Exclusions {
+
+        final int[] included;
+        final int[] excluded;
+
+        Exclusions(int n) {
+            included = new int[n];
+            excluded = new int[n];
+        }
+
+        /**
+         * Reject the variants whose most specific matching range has a
+         * quality of zero.
+         */
+        void apply(int[] rank) {
+            for (int i = 0; i < rank.length; i++) {
+                if (excluded[i] > included[i])
+                    rank[i] = NO_MATCH;
+            }
+        }
+    }
+
+    private static String vary(boolean mediaType, boolean language, boolean encoding) {
+        StringBuilder b = new StringBuilder();
+        if (mediaType)
+            b.append(HttpHeaders.ACCEPT);
+        if (language) {
+            if (b.length() > 0)
+                b.append(',');
+            b.append(HttpHeaders.ACCEPT_LANGUAGE);
+        }
+        if (encoding) {
+            if (b.length() > 0)
+                b.append(',');
+            b.append(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return b.length() == 0 ? null : b.toString();
+    }
+
+    private static void add(Map<String, List<Integer>> map, String key, int i) {
+        List<Integer> l = map.get(key);
+        if (l == null) {
+            l = new ArrayList<Integer>();
+            map.put(key, l);
+        }
+        l.add(i);
+    }
+
+    private static void add(Map<String, Map<String, List<Integer>>> map, String key,
+            String nestedKey, int i) {
+        Map<String, List<Integer>> m = map.get(key);
+        if (m == null) {
+            m = new HashMap<String, List<Integer>>();
+            map.put(key, m);
+        }
+        add(m, nestedKey, i);
+    }
+
+    private static int[] toArray(List<Integer> l) {
+        if (l.isEmpty())
+            return none;
+        int[] a = new int[l.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = l.get(i);
+        return a;
+    }
+
+    private static Map<String, int[]> compile(Map<String, List<Integer>> map) {
+        Map<String, int[]> m = new HashMap<String, int[]>(map.size() * 2);
+        for (Map.Entry<String, List<Integer>> e : map.entrySet())
+            m.put(e.getKey(), toArray(e.getValue()));
+        return m;
+    }
+
+    private static Map<String, Map<String, int[]>> compileNested(
+            Map<String, Map<String, List<Integer>>> map) {
+        Map<String, Map<String, int[]>> m = new HashMap<String, Map<String, int[]>>(map.size() * 2);
+        for (Map.Entry<String, Map<String, List<Integer>>> e : map.entrySet())
+            m.put(e.getKey(), compile(e.getValue()));
+        return m;
+    }
+}
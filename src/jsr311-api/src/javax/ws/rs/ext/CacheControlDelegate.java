@@ -0,0 +1,175 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link HeaderDelegate} for {@link CacheControl}. Directive
+ * names are case-insensitive, unrecognized directives are added to the
+ * cache extension map. Unlike a new {@code CacheControl}, a parsed instance
+ * only has no-transform set if the directive is present.
+ * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.9">HTTP/1.1 section 14.9</a>
+ */
+final class CacheControlDelegate implements HeaderDelegate<CacheControl> {
+
+    public CacheControl fromString(String value) throws IllegalArgumentException {
+        HeaderReader r = new HeaderReader(value);
+        CacheControl cc = new CacheControl();
+        cc.setNoTransform(false);
+        while (r.hasNext()) {
+            if (r.skip(','))
+                continue;
+            String directive = r.nextToken();
+            String v = null;
+            if (r.skip('='))
+                v = r.nextTokenOrQuotedString();
+            apply(cc, directive, v, r);
+            if (r.hasNext())
+                r.expect(',');
+        }
+        return cc;
+    }
+
+    private static void apply(CacheControl cc, String directive, String value, HeaderReader r) {
+        if (directive.equalsIgnoreCase("private")) {
+            cc.setPrivate(true);
+            addFields(cc.getPrivateFields(), value);
+        } else if (directive.equalsIgnoreCase("no-cache")) {
+            cc.setNoCache(true);
+            addFields(cc.getNoCacheFields(), value);
+        } else if (directive.equalsIgnoreCase("no-store")) {
+            cc.setNoStore(true);
+        } else if (directive.equalsIgnoreCase("no-transform")) {
+            cc.setNoTransform(true);
+        } else if (directive.equalsIgnoreCase("must-revalidate")) {
+            cc.setMustRevalidate(true);
+        } else if (directive.equalsIgnoreCase("proxy-revalidate")) {
+            cc.setProxyRevalidate(true);
+        } else if (directive.equalsIgnoreCase("max-age")) {
+            cc.setMaxAge(seconds(directive, value, r));
+        } else if (directive.equalsIgnoreCase("s-maxage")) {
+            cc.setSMaxAge(seconds(directive, value, r));
+        } else {
+            cc.getCacheExtension().put(directive, value);
+        }
+    }
+
+    private static int seconds(String directive, String value, HeaderReader r) {
+        if (value == null)
+            throw r.error(directive + " requires a value");
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw r.error(directive + " value is not an integer");
+        }
+    }
+
+    /**
+     * Add the comma separated field names of a private or no-cache directive.
+     */
+    private static void addFields(List<String> fields, String value) {
+        if (value == null)
+            return;
+        int l = value.length();
+        int start = 0;
+        for (int i = 0; i <= l; i++) {
+            if (i == l || value.charAt(i) == ',') {
+                String field = value.substring(start, i).trim();
+                if (field.length() > 0)
+                    fields.add(field);
+                start = i + 1;
+            }
+        }
+    }
+
+    public String toString(CacheControl value) {
+        if (value == null)
+            throw new IllegalArgumentException("value==null");
+        StringBuilder b = new StringBuilder(64);
+        if (value.isPrivate())
+            appendDirective(b, "private", value.getPrivateFields());
+        if (value.isNoCache())
+            appendDirective(b, "no-cache", value.getNoCacheFields());
+        if (value.isNoStore())
+            appendDirective(b, "no-store");
+        if (value.isNoTransform())
+            appendDirective(b, "no-transform");
+        if (value.isMustRevalidate())
+            appendDirective(b, "must-revalidate");
+        if (value.isProxyRevalidate())
+            appendDirective(b, "proxy-revalidate");
+        if (value.getMaxAge() != -1)
+            appendDirective(b, "max-age").append('=').append(value.getMaxAge());
+        if (value.getSMaxAge() != -1)
+            appendDirective(b, "s-maxage").append('=').append(value.getSMaxAge());
+        for (Map.Entry<String, String> e : value.getCacheExtension().entrySet()) {
+            appendDirective(b, e.getKey());
+            if (e.getValue() != null) {
+                b.append('=');
+                HeaderWriter.appendTokenOrQuoted(b, e.getValue());
+            }
+        }
+        return b.toString();
+    }
+
+    private static StringBuilder appendDirective(StringBuilder b, String directive) {
+        if (b.length() > 0)
+            b.append(", ");
+        return b.append(directive);
+    }
+
+    private static void appendDirective(StringBuilder b, String directive, List<String> fields) {
+        appendDirective(b, directive);
+        if (fields.isEmpty())
+            return;
+        b.append("=\"");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0)
+                b.append(", ");
+            b.append(fields.get(i));
+        }
+        b.append('"');
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * A {@link Providers} implementation that memoizes the results of another
+ * {@code Providers} instance. The provider selected for a given combination
+ * of arguments is cached, including the absence of a matching provider, so
+ * that subsequent lookups with equal arguments do not repeat the filtering,
+ * sorting and {@code isReadable}/{@code isWriteable} calls described in
+ * {@link Providers}.
+ *
+ * <p>Readers and writers are cached by type, generic type, media type and
+ * the annotations. Annotations are compared by identity, which avoids
+ * calling the reflective {@code hashCode} and {@code equals} of annotation
+ * instances on each lookup; the annotations of a method or field obtained
+ * via reflection are the same instances each time, while equal annotations
+ * that are distinct instances merely occupy separate entries. Since the
+ * cached result no longer depends on the order in which {@code isReadable} or
+ * {@code isWriteable} is called, providers whose answer depends on anything
+ * other than the supplied arguments should not be used with this class.
+ * The runtime must call {@link #invalidate} whenever the set of providers
+ * known to the underlying instance changes; the result of a lookup that is
+ * in progress when the cache is invalidated is not cached.</p>
+ *
+ * <p>Each cache holds at most a fixed number of entries, an arbitrary entry
+ * is evicted when a cache is full. This bounds the memory used when media
+ * types carry parameters that vary per request, e.g. a multipart
+ * boundary.</p>
+ */
+public class CachingProviders implements Providers {
+
+    /**
+     * The maximum number of entries held by each cache if not specified.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Placeholder stored in a cache to record that no provider matched.
+     */
+    private static final Object NONE = new Object();
+
+    private final Providers providers;
+    private final int capacity;
+    private final ConcurrentMap<Key, Object> readers;
+    private final ConcurrentMap<Key, Object> writers;
+    private final ConcurrentMap<Class<?>, Object> exceptionMappers;
+    private final ConcurrentMap<Key, Object> contextResolvers;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Create a new instance with the default capacity.
+     * @param providers the providers whose results are cached
+     * @throws IllegalArgumentException if providers is null
+     */
+    public CachingProviders(Providers providers) {
+        this(providers, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new instance.
+     * @param providers the providers whose results are cached
+     * @param capacity the maximum number of entries held by each cache
+     * @throws IllegalArgumentException if providers is null or capacity is
+     * less than 1
+     */
+    public CachingProviders(Providers providers, int capacity) {
+        if (providers == null)
+            throw new IllegalArgumentException("providers==null");
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity < 1");
+        this.providers = providers;
+        this.capacity = capacity;
+        this.readers = new ConcurrentHashMap<Key, Object>();
+        this.writers = new ConcurrentHashMap<Key, Object>();
+        this.exceptionMappers = new ConcurrentHashMap<Class<?>, Object>();
+        this.contextResolvers = new ConcurrentHashMap<Key, Object>();
+    }
+
+    /**
+     * Get the underlying providers.
+     * @return the providers whose results are cached
+     */
+    public Providers getProviders() {
+        return providers;
+    }
+
+    /**
+     * Discard all cached results. Must be called when providers are added
+     * to or removed from the underlying instance.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        readers.clear();
+        writers.clear();
+        exceptionMappers.clear();
+        contextResolvers.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type,
+            Type genericType, Annotation annotations[], MediaType mediaType) {
+        Key key = new Key(type, genericType, annotations, mediaType);
+        Object r = readers.get(key);
+        if (r == null) {
+            int g = generation.get();
+            r = providers.getMessageBodyReader(type, genericType, annotations, mediaType);
+            r = put(readers, key.detach(), r, g);
+        }
+        return r == NONE ? null : (MessageBodyReader<T>) r;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type,
+            Type genericType, Annotation annotations[], MediaType mediaType) {
+        Key key = new Key(type, genericType, annotations, mediaType);
+        Object w = writers.get(key);
+        if (w == null) {
+            int g = generation.get();
+            w = providers.getMessageBodyWriter(type, genericType, annotations, mediaType);
+            w = put(writers, key.detach(), w, g);
+        }
+        return w == NONE ? null : (MessageBodyWriter<T>) w;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+        Object m = exceptionMappers.get(type);
+        if (m == null) {
+            int g = generation.get();
+            m = providers.getExceptionMapper(type);
+            m = put(exceptionMappers, type, m, g);
+        }
+        return m == NONE ? null : (ExceptionMapper<T>) m;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ContextResolver<T> getContextResolver(Class<T> contextType,
+            MediaType mediaType) {
+        Key key = new Key(contextType, null, null, mediaType);
+        Object c = contextResolvers.get(key);
+        if (c == null) {
+            int g = generation.get();
+            c = providers.getContextResolver(contextType, mediaType);
+            c = put(contextResolvers, key, c, g);
+        }
+        return c == NONE ? null : (ContextResolver<T>) c;
+    }
+
+    /**
+     * Cache a lookup result, evicting an entry first if the cache is full.
+     * The result is not cached, or is removed again, if the cache was
+     * invalidated since the lookup started.
+     * @param g the generation when the lookup started
+     * @return the value now associated with the key
+     */
+    private <K> Object put(ConcurrentMap<K, Object> cache, K key, Object value, int g) {
+        if (value == null)
+            value = NONE;
+        if (generation.get() != g)
+            return value;
+        if (cache.size() >= capacity) {
+            Iterator<K> i = cache.keySet().iterator();
+            while (i.hasNext() && cache.size() >= capacity) {
+                i.next();
+                i.remove();
+            }
+        }
+        Object existing = cache.putIfAbsent(key, value);
+        if (existing != null)
+            return existing;
+        // invalidate may have cleared the cache before the value was added
+        if (generation.get() != g)
+            cache.remove(key, value);
+        return value;
+    }
+
+    /**
+     * Cache key for the arguments of a provider lookup.
+     */
+    private static final class Key {
+        private final Class<?> type;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final int hash;
+
+        Key(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+            int h = type == null ? 0 : type.hashCode();
+            h = 31 * h + (genericType == null ? 0 : genericType.hashCode());
+            h = 31 * h + identityHashCode(annotations);
+            h = 31 * h + (mediaType == null ? 0 : mediaType.hashCode());
+            this.hash = h;
+        }
+
+        private Key(Key key, Annotation[] annotations) {
+            this.type = key.type;
+            this.genericType = key.genericType;
+            this.annotations = annotations;
+            this.mediaType = key.mediaType;
+            this.hash = key.hash;
+        }
+
+        /**
+         * Get a key suitable for storing in a cache, the annotation array
+         * supplied by the caller is copied since it may be modified later.
+         */
+        Key detach() {
+            if (annotations == null || annotations.length == 0)
+                return this;
+            return new Key(this, annotations.clone());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && type == other.type
+                    && (genericType == other.genericType
+                        || (genericType != null && genericType.equals(other.genericType)))
+                    && (mediaType == other.mediaType
+                        || (mediaType != null && mediaType.equals(other.mediaType)))
+                    && identical(annotations, other.annotations);
+        }
+
+        private static int identityHashCode(Annotation[] annotations) {
+            if (annotations == null)
+                return 0;
+            int h = 1;
+            for (Annotation a : annotations)
+                h = 31 * h + System.identityHashCode(a);
+            return h;
+        }
+
+        private static boolean identical(Annotation[] a1, Annotation[] a2) {
+            if (a1 == a2)
+                return true;
+            if (a1 == null || a2 == null || a1.length != a2.length)
+                return false;
+            for (int i = 0; i < a1.length; i++) {
+                if (a1[i] != a2[i])
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link HeaderDelegate} for {@link Cookie}, the value of a
+ * Cookie request header. If the header contains more than one cookie only
+ * the first is read.
+ * @see <a href="http://www.ietf.org/rfc/rfc2109.txt">IETF RFC 2109</a>
+ */
+final class CookieDelegate implements HeaderDelegate<Cookie> {
+
+    public Cookie fromString(String value) throws IllegalArgumentException {
+        HeaderReader r = new HeaderReader(value);
+        int version = Cookie.DEFAULT_VERSION;
+        String name = null;
+        String cookieValue = null;
+        String path = null;
+        String domain = null;
+        while (r.hasNext()) {
+            String attribute = r.nextToken();
+            r.expect('=');
+            String v = r.nextValue(";,");
+            if (attribute.charAt(0) == '$') {
+                if (attribute.equalsIgnoreCase("$Version")) {
+                    if (name == null)
+                        version = version(v, r);
+                } else if (name != null && attribute.equalsIgnoreCase("$Path")) {
+                    path = v;
+                } else if (name != null && attribute.equalsIgnoreCase("$Domain")) {
+                    domain = v;
+                }
+            } else if (name == null) {
+                name = attribute;
+                cookieValue = v;
+            } else {
+                // start of the next cookie
+                break;
+            }
+            if (!r.skip(';') && !r.skip(',') && r.hasNext())
+                throw r.error("';' expected");
+        }
+        if (name == null)
+            throw new IllegalArgumentException("Cookie name expected in header value: " + value);
+        return new Cookie(name, cookieValue, path, domain, version);
+    }
+
+    static int version(String value, HeaderReader r) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw r.error("version is not an integer");
+        }
+    }
+
+    public String toString(Cookie value) {
+        if (value == null)
+            throw new IllegalArgumentException("value==null");
+        StringBuilder b = new StringBuilder(64);
+        b.append("$Version=").append(value.getVersion()).append(';');
+        b.append(value.getName()).append('=');
+        HeaderWriter.appendCookieValue(b, value.getValue());
+        if (value.getDomain() != null) {
+            b.append(";$Domain=");
+            HeaderWriter.appendCookieValue(b, value.getDomain());
+        }
+        if (value.getPath() != null) {
+            b.append(";$Path=");
+            HeaderWriter.appendCookieValue(b, value.getPath());
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The default {@link InvokerFactory}, uses generated invokers when they
+ * exist and reflection otherwise.
+ */
+class DefaultInvokerFactory extends InvokerFactory {
+
+    /**
+     * Stands for a resource class without generated invokers
+     */
+    private static final InvokerFactory NONE = new InvokerFactory() {
+        @Override
+        public MethodInvoker createInvoker(Class<?> resourceClass, Method method) {
+            return null;
+        }
+    };
+
+    /**
+     * Generated factories keyed by resource class, held softly since they
+     * refer to the resource class
+     */
+    private static final WeakKeyCache<Class<?>, InvokerFactory> generatedFactories =
+            new WeakKeyCache<Class<?>, InvokerFactory>(true);
+
+    @Override
+    public MethodInvoker createInvoker(Class<?> resourceClass, Method method) {
+        if (resourceClass == null || method == null)
+            throw new IllegalArgumentException("resourceClass or method is null");
+        if (!method.getDeclaringClass().isAssignableFrom(resourceClass))
+            throw new IllegalArgumentException(method + " is not a method of " + resourceClass.getName());
+        MethodInvoker invoker = getGeneratedFactory(resourceClass).createInvoker(resourceClass, method);
+        return invoker != null ? invoker : new ReflectiveInvoker(method);
+    }
+
+    /**
+     * Get the generated invokers of a resource class, loading them the first
+     * time they are requested
+     * @return the generated factory or {@link #NONE} if there is none
+     */
+    private static InvokerFactory getGeneratedFactory(Class<?> resourceClass) {
+        InvokerFactory factory = generatedFactories.get(resourceClass);
+        if (factory == null)
+            factory = generatedFactories.putIfAbsent(resourceClass, loadGeneratedFactory(resourceClass));
+        return factory;
+    }
+
+    private static InvokerFactory loadGeneratedFactory(Class<?> resourceClass) {
+        try {
+            Class<?> c = Class.forName(resourceClass.getName() + GENERATED_CLASS_SUFFIX, true,
+                    resourceClass.getClassLoader());
+            if (InvokerFactory.class.isAssignableFrom(c))
+                return (InvokerFactory) c.newInstance();
+        } catch (Exception e) {
+            // not found or cannot be instantiated
+        } catch (LinkageError e) {
+        }
+        return NONE;
+    }
+
+    private static final class ReflectiveInvoker extends MethodInvoker {
+        private final Method method;
+        private final int parameterCount;
+
+        ReflectiveInvoker(Method method) {
+            super(method);
+            this.method = accessible(method);
+            this.parameterCount = method.getParameterTypes().length;
+        }
+
+        /**
+         * Get a method that can be invoked without an access check on each
+         * call. The method of a public class is returned as it is, any other
+         * method is copied so that the caller's Method is not made
+         * accessible.
+         */
+        private static Method accessible(Method method) {
+            if (Modifier.isPublic(method.getModifiers())
+                    && Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+                return method;
+            try {
+                Method copy = method.getDeclaringClass().getDeclaredMethod(method.getName(),
+                        method.getParameterTypes());
+                copy.setAccessible(true);
+                return copy;
+            } catch (NoSuchMethodException e) {
+            } catch (SecurityException e) {
+            }
+            return method;
+        }
+
+        @Override
+        public Object invokeWithArguments(Object resource, Object[] arguments) throws Exception {
+            checkArgumentCount(arguments, parameterCount);
+            try {
+                return method.invoke(resource, arguments);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception)
+                    throw (Exception) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw e;
+            }
+        }
+    }
+}
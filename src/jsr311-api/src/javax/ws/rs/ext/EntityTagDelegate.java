@@ -0,0 +1,80 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link HeaderDelegate} for {@link EntityTag}. The value
+ * {@code *} used by If-Match and If-None-Match is read as an entity tag
+ * whose value is {@code *}.
+ * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.11">HTTP/1.1 section 3.11</a>
+ */
+final class EntityTagDelegate implements HeaderDelegate<EntityTag> {
+
+    public EntityTag fromString(String value) throws IllegalArgumentException {
+        HeaderReader r = new HeaderReader(value);
+        boolean weak = false;
+        if (r.skip('W')) {
+            r.expect('/');
+            weak = true;
+        }
+        String tag;
+        if (!weak && r.skip('*'))
+            tag = "*";
+        else
+            tag = r.nextQuotedString();
+        if (r.hasNext())
+            throw r.error("unexpected character");
+        return new EntityTag(tag, weak);
+    }
+
+    public String toString(EntityTag value) {
+        if (value == null)
+            throw new IllegalArgumentException("value==null");
+        StringBuilder b = new StringBuilder(value.getValue().length() + 4);
+        if (value.isWeak())
+            b.append("W/");
+        HeaderWriter.appendQuoted(b, value.getValue());
+        return b.toString();
+    }
+}
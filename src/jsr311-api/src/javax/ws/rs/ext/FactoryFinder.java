@@ -53,11 +53,38 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 
 class FactoryFinder {
-    
+
+    /**
+     * Marks a factory for which no service file was found.
+     */
+    private static final String NOT_FOUND = new String();
+
+    /**
+     * Class names read from META-INF/services keyed by class loader and
+     * factory id. Only names are cached so the class loader is not
+     * referenced strongly.
+     */
+    private static final Map<ClassLoader, Map<String, String>> serviceClassNames =
+            new WeakHashMap<ClassLoader, Map<String, String>>();
+
+    /**
+     * Contents of $java.home/lib/jaxrs.properties, empty if the file does not
+     * exist or cannot be read, null if the file has not been read yet.
+     */
+    private static Properties jaxrsProperties;
+
     static ClassLoader getContextClassLoader() { 
+        if (System.getSecurityManager() == null) {
+            // avoid the cost of a privileged action, this is called whenever
+            // RuntimeDelegate.getInstance is used
+            return Thread.currentThread().getContextClassLoader();
+        }
         return AccessController.doPrivileged( 
             new PrivilegedAction<ClassLoader>() { 
                 public ClassLoader run() { 
@@ -121,10 +148,78 @@ class FactoryFinder {
      * @exception WebServiceException if there is an error
      */
     static Object find(String factoryId, String fallbackClassName) throws ClassNotFoundException {
-        ClassLoader classLoader = getContextClassLoader();
+        return find(factoryId, fallbackClassName, getContextClassLoader());
+    }
 
-        String serviceId = "META-INF/services/" + factoryId;
+    /**
+     * Finds the implementation <code>Class</code> object for the given
+     * factory name using the supplied <code>ClassLoader</code>, see
+     * {@link #find(String, String)}. The results of searching
+     * <code>META-INF/services</code> and <code>$java.home/lib/jaxrs.properties</code>
+     * are cached, see {@link #clear(ClassLoader)}.
+     */
+    static Object find(String factoryId, String fallbackClassName,
+            ClassLoader classLoader) throws ClassNotFoundException {
         // try to find services in CLASSPATH
+        String factoryClassName = getServiceClassName(factoryId, classLoader);
+        if (factoryClassName != null) {
+            try {
+                return newInstance(factoryClassName, classLoader);
+            } catch (Exception ex) {
+            }
+        }
+
+        // try to read from $java.home/lib/jaxrs.properties
+        factoryClassName = getJaxrsProperties().getProperty(factoryId);
+        if (factoryClassName != null) {
+            try {
+                return newInstance(factoryClassName, classLoader);
+            } catch (Exception ex) {
+            }
+        }
+
+        // Use the system property
+        try {
+            String systemProp =
+                    System.getProperty(factoryId);
+            if (systemProp != null) {
+                return newInstance(systemProp, classLoader);
+            }
+        } catch (SecurityException se) {
+        }
+
+        if (fallbackClassName == null) {
+            throw new ClassNotFoundException(
+                    "Provider for " + factoryId + " cannot be found", null);
+        }
+
+        return newInstance(fallbackClassName, classLoader);
+    }
+
+    /**
+     * Get the first line of the <code>META-INF/services</code> resource for
+     * the supplied factory, reading it if it has not already been read for
+     * the class loader.
+     * @return the class name or null if there is no such resource
+     */
+    private static String getServiceClassName(String factoryId, ClassLoader classLoader) {
+        synchronized (serviceClassNames) {
+            Map<String, String> names = serviceClassNames.get(classLoader);
+            if (names == null) {
+                names = new HashMap<String, String>();
+                serviceClassNames.put(classLoader, names);
+            }
+            String name = names.get(factoryId);
+            if (name == null) {
+                name = readServiceClassName(factoryId, classLoader);
+                names.put(factoryId, name == null ? NOT_FOUND : name);
+            }
+            return name == NOT_FOUND ? null : name;
+        }
+    }
+
+    private static String readServiceClassName(String factoryId, ClassLoader classLoader) {
+        String serviceId = "META-INF/services/" + factoryId;
         try {
             InputStream is;
             if (classLoader == null) {
@@ -142,44 +237,60 @@ class FactoryFinder {
 
                 if (factoryClassName != null &&
                         !"".equals(factoryClassName)) {
-                    return newInstance(factoryClassName, classLoader);
+                    return factoryClassName;
                 }
             }
         } catch (Exception ex) {
         }
+        return null;
+    }
 
-
-        // try to read from $java.home/lib/jaxrs.properties
-        try {
-            String javah = System.getProperty("java.home");
-            String configFile = javah + File.separator +
-                    "lib" + File.separator + "jaxrs.properties";
-            File f = new File(configFile);
-            if (f.exists()) {
-                Properties props = new Properties();
-                props.load(new FileInputStream(f));
-                String factoryClassName = props.getProperty(factoryId);
-                return newInstance(factoryClassName, classLoader);
+    private static synchronized Properties getJaxrsProperties() {
+        if (jaxrsProperties == null) {
+            Properties props = new Properties();
+            try {
+                String javah = System.getProperty("java.home");
+                String configFile = javah + File.separator +
+                        "lib" + File.separator + "jaxrs.properties";
+                File f = new File(configFile);
+                if (f.exists()) {
+                    InputStream is = new FileInputStream(f);
+                    try {
+                        props.load(is);
+                    } finally {
+                        is.close();
+                    }
+                }
+            } catch (Exception ex) {
             }
-        } catch (Exception ex) {
+            jaxrsProperties = props;
         }
+        return jaxrsProperties;
+    }
 
-
-        // Use the system property
-        try {
-            String systemProp =
-                    System.getProperty(factoryId);
-            if (systemProp != null) {
-                return newInstance(systemProp, classLoader);
-            }
-        } catch (SecurityException se) {
+    /**
+     * Discard the cached results of searching for implementation classes
+     * using the supplied class loader. The jaxrs.properties file is also
+     * read again.
+     */
+    static void clear(ClassLoader classLoader) {
+        synchronized (serviceClassNames) {
+            serviceClassNames.remove(classLoader);
         }
-
-        if (fallbackClassName == null) {
-            throw new ClassNotFoundException(
-                    "Provider for " + factoryId + " cannot be found", null);
+        synchronized (FactoryFinder.class) {
+            jaxrsProperties = null;
         }
+    }
 
-        return newInstance(fallbackClassName, classLoader);
+    /**
+     * Discard all cached results of searching for implementation classes.
+     */
+    static void clear() {
+        synchronized (serviceClassNames) {
+            serviceClassNames.clear();
+        }
+        synchronized (FactoryFinder.class) {
+            jaxrsProperties = null;
+        }
     }
 }
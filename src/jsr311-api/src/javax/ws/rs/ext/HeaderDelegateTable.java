@@ -0,0 +1,178 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MediaTypeCache;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * A lazily populated table of the {@link RuntimeDelegate.HeaderDelegate}
+ * instances created by a {@link RuntimeDelegate}. Each delegate is created
+ * via {@link RuntimeDelegate#createHeaderDelegate} the first time it is
+ * requested and reused afterwards. The header types that an implementation
+ * is required to support are held in fixed slots, other types in a map. If
+ * the runtime delegate does not supply a delegate for one of the required
+ * types the corresponding {@link StandardHeaderDelegates reference delegate}
+ * is used.
+ *
+ * <p>The JAX-RS header value classes, e.g. {@link MediaType}, obtain their
+ * delegate via {@link #getHeaderDelegate} on each use rather than in a
+ * static initializer. Loading those classes therefore does not require a
+ * runtime to be present, and replacing the current {@code RuntimeDelegate}
+ * also replaces the header delegates that are used.</p>
+ *
+ * <p>The table also holds the {@link MediaTypeCache} of the runtime
+ * delegate, so that cached media types are discarded together with the
+ * delegate that parsed them.</p>
+ */
+public final class HeaderDelegateTable {
+
+    private static final int MEDIA_TYPE = 0;
+    private static final int CACHE_CONTROL = 1;
+    private static final int ENTITY_TAG = 2;
+    private static final int COOKIE = 3;
+    private static final int NEW_COOKIE = 4;
+    private static final int DATE = 5;
+
+    private final RuntimeDelegate runtimeDelegate;
+    private final AtomicReferenceArray<HeaderDelegate<?>> builtins =
+            new AtomicReferenceArray<HeaderDelegate<?>>(DATE + 1);
+    private final ConcurrentMap<Class<?>, HeaderDelegate<?>> others =
+            new ConcurrentHashMap<Class<?>, HeaderDelegate<?>>();
+    private final MediaTypeCache mediaTypeCache = new MediaTypeCache(MediaTypeCache.DEFAULT_CAPACITY);
+
+    HeaderDelegateTable(RuntimeDelegate runtimeDelegate) {
+        this.runtimeDelegate = runtimeDelegate;
+    }
+
+    /**
+     * Obtain the table of the current {@link RuntimeDelegate}.
+     * @return the header delegate table
+     * @see RuntimeDelegate#getInstance
+     */
+    public static HeaderDelegateTable getInstance() {
+        return RuntimeDelegate.getInstance().getHeaderDelegateTable();
+    }
+
+    /**
+     * Obtain the header delegate for the supplied class from the table of
+     * the current {@link RuntimeDelegate}.
+     * @param type the class of the header
+     * @return the header delegate for the supplied type, null if the runtime
+     * delegate does not supply one
+     * @throws IllegalArgumentException if type is null
+     * @see RuntimeDelegate#getInstance
+     */
+    public static <T> HeaderDelegate<T> getHeaderDelegate(Class<T> type) {
+        return getInstance().get(type);
+    }
+
+    /**
+     * Get the cache of media types parsed with the media type delegate of
+     * this table.
+     * @return the media type cache
+     * @see javax.ws.rs.core.MediaType#valueOf
+     */
+    public MediaTypeCache getMediaTypeCache() {
+        return mediaTypeCache;
+    }
+
+    /**
+     * Obtain the header delegate for the supplied class, creating it if
+     * necessary.
+     * @param type the class of the header
+     * @return the header delegate for the supplied type, null if the runtime
+     * delegate does not supply one
+     * @throws IllegalArgumentException if type is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> HeaderDelegate<T> get(Class<T> type) {
+        if (type == null)
+            throw new IllegalArgumentException("type==null");
+        int slot = slotOf(type);
+        if (slot >= 0) {
+            HeaderDelegate<?> d = builtins.get(slot);
+            if (d == null) {
+                d = runtimeDelegate.createHeaderDelegate(type);
+                if (d == null)
+                    d = StandardHeaderDelegates.get(type);
+                if (d != null && !builtins.compareAndSet(slot, null, d))
+                    d = builtins.get(slot);
+            }
+            return (HeaderDelegate<T>) d;
+        }
+        HeaderDelegate<?> d = others.get(type);
+        if (d == null) {
+            d = runtimeDelegate.createHeaderDelegate(type);
+            if (d != null) {
+                HeaderDelegate<?> existing = others.putIfAbsent(type, d);
+                if (existing != null)
+                    d = existing;
+            }
+        }
+        return (HeaderDelegate<T>) d;
+    }
+
+    private static int slotOf(Class<?> type) {
+        if (type == MediaType.class)
+            return MEDIA_TYPE;
+        if (type == CacheControl.class)
+            return CACHE_CONTROL;
+        if (type == EntityTag.class)
+            return ENTITY_TAG;
+        if (type == Cookie.class)
+            return COOKIE;
+        if (type == NewCookie.class)
+            return NEW_COOKIE;
+        if (type == Date.class)
+            return DATE;
+        return -1;
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+/**
+ * A single pass reader for the tokens, separators and quoted strings that
+ * make up HTTP header values, see
+ * <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec2.html#sec2.2">HTTP/1.1 section 2.2</a>.
+ * Linear whitespace between elements is skipped. Parse errors are reported
+ * as {@link IllegalArgumentException} as required by
+ * {@link RuntimeDelegate.HeaderDelegate#fromString}.
+ */
+final class HeaderReader {
+
+    /**
+     * Characters allowed in a token, indexed by character value
+     */
+    private static final boolean[] TOKEN = new boolean[128];
+
+    static {
+        for (char c = 0x21; c < 0x7f; c++)
+            TOKEN[c] = true;
+        String separators = "()<>@,;:\\\"/[]?={}";
+        for (int i = 0; i < separators.length(); i++)
+            TOKEN[separators.charAt(i)] = false;
+    }
+
+    private final String header;
+    private final int length;
+    private int index;
+
+    /**
+     * Create a new reader.
+     * @param header the header value
+     * @throws IllegalArgumentException if header is null
+     */
+    HeaderReader(String header) {
+        if (header == null)
+            throw new IllegalArgumentException("header value==null");
+        this.header = header;
+        this.length = header.length();
+    }
+
+    /**
+     * Check whether a character may appear in a token.
+     * @param c the character
+     * @return true if c is a token character
+     */
+    static boolean isToken(char c) {
+        return c < 128 && TOKEN[c];
+    }
+
+    /**
+     * Check whether a string is a non-empty token and can therefore be
+     * written without quotes.
+     * @param s the string
+     * @return true if s is a token
+     */
+    static boolean isToken(String s) {
+        int l = s.length();
+        if (l == 0)
+            return false;
+        for (int i = 0; i < l; i++) {
+            if (!isToken(s.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (index < length) {
+            char c = header.charAt(index);
+            if (c != ' ' && c != '\t')
+                return;
+            index++;
+        }
+    }
+
+    /**
+     * Check whether there is anything other than whitespace left to read.
+     * @return true if there is more to read
+     */
+    boolean hasNext() {
+        skipWhitespace();
+        return index < length;
+    }
+
+    /**
+     * Consume the supplied character if it is the next non-whitespace
+     * character.
+     * @param c the character
+     * @return true if the character was consumed
+     */
+    boolean skip(char c) {
+        skipWhitespace();
+        if (index < length && header.charAt(index) == c) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the supplied character is the next non-whitespace
+     * character without consuming it.
+     * @param c the character
+     * @return true if c is the next character
+     */
+    boolean peek(char c) {
+        skipWhitespace();
+        return index < length && header.charAt(index) == c;
+    }
+
+    /**
+     * Consume the supplied character.
+     * @param c the character
+     * @throws IllegalArgumentException if c is not the next non-whitespace
+     * character
+     */
+    void expect(char c) {
+        if (!skip(c))
+            throw error("'" + c + "' expected");
+    }
+
+    /**
+     * Read a token.
+     * @return the token
+     * @throws IllegalArgumentException if the next element is not a token
+     */
+    String nextToken() {
+        skipWhitespace();
+        int start = index;
+        while (index < length && isToken(header.charAt(index)))
+            index++;
+        if (start == index)
+            throw error("token expected");
+        return header.substring(start, index);
+    }
+
+    /**
+     * Read a token and compare it with the supplied string without creating
+     * a string for the token.
+     * @param s the string to compare with
+     * @return true if the token is equal to s
+     * @throws IllegalArgumentException if the next element is not a token
+     */
+    boolean nextTokenIs(String s) {
+        skipWhitespace();
+        int start = index;
+        while (index < length && isToken(header.charAt(index)))
+            index++;
+        if (start == index)
+            throw error("token expected");
+        return index - start == s.length() && header.startsWith(s, start);
+    }
+
+    /**
+     * Read a quoted string, the quotes are removed and quoted pairs are
+     * unescaped.
+     * @return the content of the quoted string
+     * @throws IllegalArgumentException if the next element is not a quoted
+     * string
+     */
+    String nextQuotedString() {
+        skipWhitespace();
+        if (index >= length || header.charAt(index) != '"')
+            throw error("quoted string expected");
+        int start = ++index;
+        StringBuilder b = null;
+        while (index < length) {
+            char c = header.charAt(index);
+            if (c == '"') {
+                String s = b == null
+                        ? header.substring(start, index)
+                        : b.append(header, start, index).toString();
+                index++;
+                return s;
+            }
+            if (c == '\\' && index + 1 < length) {
+                if (b == null)
+                    b = new StringBuilder(index - start + 16);
+                b.append(header, start, index);
+                // the escaped character starts the next run
+                start = ++index;
+            }
+            index++;
+        }
+        throw error("unterminated quoted string");
+    }
+
+    /**
+     * Read a token or a quoted string.
+     * @return the token or the content of the quoted string
+     * @throws IllegalArgumentException if the next element is neither a
+     * token nor a quoted string
+     */
+    String nextTokenOrQuotedString() {
+        skipWhitespace();
+        if (index < length && header.charAt(index) == '"')
+            return nextQuotedString();
+        return nextToken();
+    }
+
+    /**
+     * Read a quoted string or, if the next element is not a quoted string,
+     * everything up to but excluding the next delimiter. Used for cookie
+     * values which are often not tokens.
+     * @param delimiters the characters that end an unquoted value
+     * @return the value with surrounding whitespace removed, may be empty
+     */
+    String nextValue(String delimiters) {
+        skipWhitespace();
+        if (index < length && header.charAt(index) == '"')
+            return nextQuotedString();
+        int start = index;
+        int end = index;
+        while (index < length) {
+            char c = header.charAt(index);
+            if (delimiters.indexOf(c) != -1)
+                break;
+            index++;
+            if (c != ' ' && c != '\t')
+                end = index;
+        }
+        return header.substring(start, end);
+    }
+
+    /**
+     * Skip a value as read by {@link #nextValue} without creating a string
+     * for it.
+     * @param delimiters the characters that end an unquoted value
+     * @throws IllegalArgumentException if a quoted string is not terminated
+     */
+    void skipValue(String delimiters) {
+        skipWhitespace();
+        if (index < length && header.charAt(index) == '"') {
+            while (++index < length) {
+                char c = header.charAt(index);
+                if (c == '"') {
+                    index++;
+                    return;
+                }
+                if (c == '\\')
+                    index++;
+            }
+            throw error("unterminated quoted string");
+        }
+        while (index < length && delimiters.indexOf(header.charAt(index)) == -1)
+            index++;
+    }
+
+    /**
+     * Create an exception describing a parse error at the current position.
+     * @param message the description of the error
+     * @return the exception to throw
+     */
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at index " + index
+                + " of header value: " + header);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+/**
+ * Helpers used to write the elements of HTTP header values.
+ */
+final class HeaderWriter {
+
+    private HeaderWriter() {
+    }
+
+    /**
+     * Append a value as a token if possible, otherwise as a quoted string.
+     * @param b the buffer to append to
+     * @param value the value
+     */
+    static void appendTokenOrQuoted(StringBuilder b, String value) {
+        if (HeaderReader.isToken(value))
+            b.append(value);
+        else
+            appendQuoted(b, value);
+    }
+
+    /**
+     * Append a value as a quoted string, escaping quotes and backslashes.
+     * @param b the buffer to append to
+     * @param value the value
+     */
+    static void appendQuoted(StringBuilder b, String value) {
+        b.append('"');
+        int l = value.length();
+        for (int i = 0; i < l; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+                b.append('\\');
+            b.append(c);
+        }
+        b.append('"');
+    }
+
+    /**
+     * Append a cookie value, quoting it only if it contains characters that
+     * would end an unquoted value when it is read back. Null is written as
+     * an empty value.
+     * @param b the buffer to append to
+     * @param value the value
+     */
+    static void appendCookieValue(StringBuilder b, String value) {
+        if (value == null)
+            return;
+        int l = value.length();
+        for (int i = 0; i < l; i++) {
+            char c = value.charAt(i);
+            if (c == ' ' || c == '\t' || c == '"' || c == ',' || c == ';' || c == '\\') {
+                appendQuoted(b, value);
+                return;
+            }
+        }
+        b.append(value);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ReflectPermission;
+
+/**
+ * Creates the {@link MethodInvoker}s a runtime uses to call the methods of
+ * resource classes.
+ *
+ * <p>The default implementation uses the invokers generated at compile time
+ * by the resource model annotation processor, a class named after the
+ * resource class with the suffix {@link #GENERATED_CLASS_SUFFIX} that
+ * extends this class and calls each method directly; it is loaded once per
+ * resource class. For a resource class without generated invokers it falls
+ * back to an invoker that calls the method reflectively; access checks on a
+ * method that is not public, or not declared by a public class, are
+ * suppressed once on a copy of the method when the invoker is created and
+ * exceptions thrown by the method are unwrapped.</p>
+ */
+public abstract class InvokerFactory {
+
+    /**
+     * The name of the property that names the implementation class, see
+     * {@link #getInstance}.
+     */
+    public static final String JAXRS_INVOKER_FACTORY_PROPERTY = "javax.ws.rs.ext.InvokerFactory";
+
+    /**
+     * The suffix appended to the name of a resource class to form the name
+     * of the class holding its generated invokers.
+     */
+    public static final String GENERATED_CLASS_SUFFIX = "$$Invokers";
+
+    private static final String JAXRS_DEFAULT_INVOKER_FACTORY = "javax.ws.rs.ext.DefaultInvokerFactory";
+
+    private static final ReflectPermission rp = new ReflectPermission("suppressAccessChecks");
+
+    private static volatile InvokerFactory instance;
+
+    protected InvokerFactory() {
+    }
+
+    /**
+     * Obtain an InvokerFactory instance. If an instance had not already been
+     * set via {@link #setInstance}, the first invocation will create an
+     * instance which will then be used by subsequent invocations. The
+     * implementation class is located in the same way as the
+     * {@link RuntimeDelegate} implementation, using the
+     * {@link #JAXRS_INVOKER_FACTORY_PROPERTY} name, and defaults to the
+     * implementation described above.
+     * @return an instance of InvokerFactory
+     */
+    public static InvokerFactory getInstance() {
+        InvokerFactory result = instance;
+        if (result == null) {
+            synchronized (InvokerFactory.class) {
+                result = instance;
+                if (result == null) {
+                    try {
+                        result = (InvokerFactory) FactoryFinder.find(JAXRS_INVOKER_FACTORY_PROPERTY,
+                                JAXRS_DEFAULT_INVOKER_FACTORY);
+                    } catch (ClassNotFoundException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Set the factory returned by {@link #getInstance}.
+     * @param factory the factory, null to locate the implementation again
+     * on the next call to getInstance
+     * @throws SecurityException if there is a security manager and the
+     * permission ReflectPermission("suppressAccessChecks") has not been
+     * granted.
+     */
+    public static void setInstance(InvokerFactory factory) throws SecurityException {
+        SecurityManager security = System.getSecurityManager();
+        if (security != null) {
+            security.checkPermission(rp);
+        }
+        synchronized (InvokerFactory.class) {
+            instance = factory;
+        }
+    }
+
+    /**
+     * Create an invoker for a method of a resource class.
+     * @param resourceClass the resource class
+     * @param method a public method of the resource class, which may be
+     * declared by a superclass
+     * @return the invoker, or null if this factory does not support the
+     * method; the factory returned by {@link #getInstance} never returns
+     * null
+     * @throws IllegalArgumentException if resourceClass or method is null,
+     * or method is not a method of resourceClass
+     */
+    public abstract MethodInvoker createInvoker(Class<?> resourceClass, Method method)
+            throws IllegalArgumentException;
+}
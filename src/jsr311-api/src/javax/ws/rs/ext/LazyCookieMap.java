@@ -0,0 +1,243 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.ws.rs.core.Cookie;
+
+/**
+ * A read-only map of the cookies sent in the Cookie request headers, keyed
+ * by cookie name, that parses the headers on demand. It is intended to be
+ * returned from {@link javax.ws.rs.core.HttpHeaders#getCookies}.
+ *
+ * <p>Creating the map only retains the header values. {@link #get} and
+ * {@link #containsKey} scan the headers for the requested name only,
+ * skipping the values of other cookies without creating strings for them,
+ * and create a {@link Cookie} for the requested cookie alone. The result of
+ * each lookup is remembered. Operations that need every cookie, e.g.
+ * {@link #size} or iteration, parse all of the headers once.</p>
+ *
+ * <p>If a cookie name occurs more than once the first occurrence is used. A
+ * header that cannot be parsed contributes the cookies that precede the
+ * malformed part. This class is not thread-safe.</p>
+ *
+ * @see <a href="http://www.ietf.org/rfc/rfc2109.txt">IETF RFC 2109</a>
+ */
+public final class LazyCookieMap extends AbstractMap<String, Cookie> {
+
+    private static final String DELIMITERS = ";,";
+
+    private final List<String> headers;
+
+    /**
+     * Results of lookups by name, including misses, created on first lookup
+     */
+    private Map<String, Cookie> looked;
+
+    /**
+     * All cookies, created when the whole map is required
+     */
+    private Map<String, Cookie> all;
+
+    /**
+     * Create a new map.
+     * @param headers the values of the Cookie request headers, may be empty
+     * @throws IllegalArgumentException if headers is null
+     */
+    public LazyCookieMap(List<String> headers) {
+        if (headers == null)
+            throw new IllegalArgumentException("headers is null");
+        this.headers = headers;
+    }
+
+    /**
+     * Create a new map for a single Cookie request header.
+     * @param header the value of the Cookie request header
+     * @throws IllegalArgumentException if header is null
+     */
+    public LazyCookieMap(String header) {
+        this(Collections.singletonList(checkNotNull(header)));
+    }
+
+    private static String checkNotNull(String header) {
+        if (header == null)
+            throw new IllegalArgumentException("header is null");
+        return header;
+    }
+
+    @Override
+    public Cookie get(Object key) {
+        if (!(key instanceof String))
+            return null;
+        if (all != null)
+            return all.get(key);
+        String name = (String) key;
+        if (name.length() == 0 || name.charAt(0) == '$')
+            return null;
+        if (looked == null) {
+            looked = new HashMap<String, Cookie>(4);
+        } else {
+            Cookie c = looked.get(name);
+            if (c != null || looked.containsKey(name))
+                return c;
+        }
+        Cookie c = null;
+        for (int i = 0, n = headers.size(); c == null && i < n; i++) {
+            String header = headers.get(i);
+            if (header != null)
+                c = scan(header, name, null);
+        }
+        looked.put(name, c);
+        return c;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return all().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return all().isEmpty();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Cookie>> entrySet() {
+        return all().entrySet();
+    }
+
+    private Map<String, Cookie> all() {
+        if (all == null) {
+            Map<String, Cookie> m = new LinkedHashMap<String, Cookie>();
+            for (int i = 0, n = headers.size(); i < n; i++) {
+                String header = headers.get(i);
+                if (header != null)
+                    scan(header, null, m);
+            }
+            all = Collections.unmodifiableMap(m);
+            looked = null;
+        }
+        return all;
+    }
+
+    /**
+     * Scan a Cookie header.
+     * @param header the header value
+     * @param wanted the name of the cookie to return, or null to add every
+     * cookie to into
+     * @param into the map cookies are added to when wanted is null
+     * @return the wanted cookie or null if it is not present
+     */
+    private static Cookie scan(String header, String wanted, Map<String, Cookie> into) {
+        HeaderReader r = new HeaderReader(header);
+        int version = Cookie.DEFAULT_VERSION;
+        try {
+            if (r.peek('$')) {
+                if (!r.nextToken().equalsIgnoreCase("$Version"))
+                    return null;
+                r.expect('=');
+                version = CookieDelegate.version(r.nextValue(DELIMITERS), r);
+                if (!r.skip(';') && !r.skip(','))
+                    return null;
+            }
+            while (r.hasNext()) {
+                String name = null;
+                boolean match;
+                if (wanted == null) {
+                    match = !r.peek('$');
+                    if (match)
+                        name = r.nextToken();
+                    else
+                        r.nextToken();
+                } else {
+                    match = r.nextTokenIs(wanted);
+                    name = wanted;
+                }
+                r.expect('=');
+                if (match) {
+                    Cookie c = readCookie(r, name, version);
+                    if (wanted != null)
+                        return c;
+                    if (!into.containsKey(name))
+                        into.put(name, c);
+                    continue;
+                }
+                r.skipValue(DELIMITERS);
+                if (!r.skip(';') && !r.skip(',') && r.hasNext())
+                    return null;
+            }
+        } catch (IllegalArgumentException e) {
+            // ignore the malformed remainder of the header
+        }
+        return null;
+    }
+
+    /**
+     * Read the value and attributes of a cookie whose name and '=' have been
+     * consumed, leaving the reader positioned at the name of the next cookie.
+     */
+    private static Cookie readCookie(HeaderReader r, String name, int version) {
+        String value = r.nextValue(DELIMITERS);
+        String path = null;
+        String domain = null;
+        while ((r.skip(';') || r.skip(',')) && r.peek('$')) {
+            String attribute = r.nextToken();
+            r.expect('=');
+            String v = r.nextValue(DELIMITERS);
+            if (attribute.equalsIgnoreCase("$Path"))
+                path = v;
+            else if (attribute.equalsIgnoreCase("$Domain"))
+                domain = v;
+        }
+        return new Cookie(name, value, path, domain, version);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link HeaderDelegate} for {@link MediaType}. A lone
+ * {@code *}, as sent by some clients in the Accept header, is read as
+ * {@code *}&#47;{@code *}.
+ * @see <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.7">HTTP/1.1 section 3.7</a>
+ */
+final class MediaTypeDelegate implements HeaderDelegate<MediaType> {
+
+    public MediaType fromString(String value) throws IllegalArgumentException {
+        HeaderReader r = new HeaderReader(value);
+        String type = r.nextToken();
+        String subtype;
+        if (r.skip('/'))
+            subtype = r.nextToken();
+        else if (type.equals(MediaType.MEDIA_TYPE_WILDCARD))
+            subtype = MediaType.MEDIA_TYPE_WILDCARD;
+        else
+            throw r.error("'/' expected");
+
+        Map<String, String> parameters = null;
+        while (r.skip(';')) {
+            if (!r.hasNext())
+                break;
+            String name = r.nextToken();
+            r.expect('=');
+            String v = r.nextTokenOrQuotedString();
+            if (parameters == null)
+                parameters = new HashMap<String, String>();
+            parameters.put(name, v);
+        }
+        if (r.hasNext())
+            throw r.error("unexpected character");
+        return parameters == null
+                ? new MediaType(type, subtype)
+                : new MediaType(type, subtype, parameters);
+    }
+
+    public String toString(MediaType value) {
+        if (value == null)
+            throw new IllegalArgumentException("value==null");
+        StringBuilder b = new StringBuilder(32);
+        b.append(value.getType()).append('/').append(value.getSubtype());
+        for (Map.Entry<String, String> e : value.getParameters().entrySet()) {
+            b.append(';').append(e.getKey()).append('=');
+            HeaderWriter.appendTokenOrQuoted(b, e.getValue());
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invokes one resource method, sub-resource method, sub-resource locator or
+ * bean property setter on instances of a resource class. Invokers are
+ * obtained from an {@link InvokerFactory} once per method, when an
+ * application is deployed.
+ *
+ * <p>The methods with a fixed number of arguments, up to
+ * {@value #MAX_FIXED_ARITY}, let an implementation call the method
+ * directly, without an argument array; they must only be used for methods
+ * with that number of parameters. Primitive arguments are
+ * supplied as their wrappers and primitive results are returned as their
+ * wrappers, the result of a void method is null. Exceptions thrown by the
+ * method are propagated as they are, not wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}.</p>
+ *
+ * <p>Implementations must be safe for use by multiple threads.</p>
+ *
+ * @see InvokerFactory
+ */
+public abstract class MethodInvoker {
+
+    /**
+     * The largest number of parameters with a fixed arity invoke method.
+     */
+    public static final int MAX_FIXED_ARITY = 15;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final Method method;
+
+    /**
+     * Create an invoker.
+     * @param method the method invoked
+     * @throws IllegalArgumentException if method is null
+     */
+    protected MethodInvoker(Method method) {
+        if (method == null)
+            throw new IllegalArgumentException("method is null");
+        this.method = method;
+    }
+
+    /**
+     * Get the method invoked by this instance.
+     * @return the method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Invoke the method with any number of arguments.
+     * @param resource the resource class instance
+     * @param arguments the arguments
+     * @return the result of the method, null for a void method
+     * @throws IllegalArgumentException if the number of arguments does not
+     * match the number of parameters of the method
+     * @throws Exception any exception thrown by the method
+     */
+    public abstract Object invokeWithArguments(Object resource, Object[] arguments) throws Exception;
+
+    /**
+     * Invoke a method that has no parameters.
+     * @param resource the resource class instance
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource) throws Exception {
+        return invokeWithArguments(resource, NO_ARGUMENTS);
+    }
+
+    /**
+     * Invoke a method that has one parameter.
+     * @param resource the resource class instance
+     * @param arg0 the argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0});
+    }
+
+    /**
+     * Invoke a method that has two parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1});
+    }
+
+    /**
+     * Invoke a method that has three parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2});
+    }
+
+    /**
+     * Invoke a method that has four parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2,
+            Object arg3) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2, arg3});
+    }
+
+    /**
+     * Invoke a method that has five parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3,
+            Object arg4) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2, arg3, arg4});
+    }
+
+    /**
+     * Invoke a method that has six parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2, arg3, arg4, arg5});
+    }
+
+    /**
+     * Invoke a method that has seven parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6});
+    }
+
+    /**
+     * Invoke a method that has eight parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7) throws Exception {
+        return invokeWithArguments(resource, new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7});
+    }
+
+    /**
+     * Invoke a method that has nine parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8});
+    }
+
+    /**
+     * Invoke a method that has ten parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9});
+    }
+
+    /**
+     * Invoke a method that has eleven parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @param arg10 the eleventh argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9, Object arg10) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9, arg10});
+    }
+
+    /**
+     * Invoke a method that has twelve parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @param arg10 the eleventh argument
+     * @param arg11 the twelfth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9, Object arg10,
+            Object arg11) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9, arg10, arg11});
+    }
+
+    /**
+     * Invoke a method that has thirteen parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @param arg10 the eleventh argument
+     * @param arg11 the twelfth argument
+     * @param arg12 the thirteenth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9, Object arg10, Object arg11,
+            Object arg12) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9, arg10, arg11,
+                        arg12});
+    }
+
+    /**
+     * Invoke a method that has fourteen parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @param arg10 the eleventh argument
+     * @param arg11 the twelfth argument
+     * @param arg12 the thirteenth argument
+     * @param arg13 the fourteenth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9, Object arg10, Object arg11,
+            Object arg12, Object arg13) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9, arg10, arg11, arg12,
+                        arg13});
+    }
+
+    /**
+     * Invoke a method that has fifteen parameters.
+     * @param resource the resource class instance
+     * @param arg0 the first argument
+     * @param arg1 the second argument
+     * @param arg2 the third argument
+     * @param arg3 the fourth argument
+     * @param arg4 the fifth argument
+     * @param arg5 the sixth argument
+     * @param arg6 the seventh argument
+     * @param arg7 the eighth argument
+     * @param arg8 the ninth argument
+     * @param arg9 the tenth argument
+     * @param arg10 the eleventh argument
+     * @param arg11 the twelfth argument
+     * @param arg12 the thirteenth argument
+     * @param arg13 the fourteenth argument
+     * @param arg14 the fifteenth argument
+     * @return the result of the method, null for a void method
+     * @throws Exception any exception thrown by the method
+     */
+    public Object invoke(Object resource, Object arg0, Object arg1, Object arg2, Object arg3, Object arg4,
+            Object arg5, Object arg6, Object arg7, Object arg8, Object arg9, Object arg10, Object arg11,
+            Object arg12, Object arg13, Object arg14) throws Exception {
+        return invokeWithArguments(resource,
+                new Object[] {arg0, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8, arg9, arg10, arg11, arg12,
+                        arg13, arg14});
+    }
+
+    /**
+     * Check the number of arguments supplied to
+     * {@link #invokeWithArguments}.
+     * @param arguments the arguments
+     * @param count the number of parameters of the method
+     * @throws IllegalArgumentException if the number of arguments is not
+     * count
+     */
+    protected static void checkArgumentCount(Object[] arguments, int count) throws IllegalArgumentException {
+        if (arguments.length != count)
+            throw new IllegalArgumentException("Expected " + count + " arguments, got " + arguments.length);
+    }
+
+    @Override
+    public String toString() {
+        return method.toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the form written by {@link ModelOutput}.
+ */
+class ModelInput {
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<String>();
+
+    /**
+     * Check the header of the stream.
+     * @throws IOException if the stream does not start with magic or was
+     * written in a later version of the format
+     */
+    ModelInput(InputStream in, int magic, int version, String description) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != magic)
+            throw new IOException("Not a " + description);
+        int v = readInt();
+        if (v > version)
+            throw new IOException("Unsupported " + description + " version " + v);
+    }
+
+    int readInt() throws IOException {
+        int i = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            i |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0)
+                return i;
+        }
+        throw new IOException("Malformed integer");
+    }
+
+    boolean readBoolean() throws IOException {
+        return in.readUnsignedByte() != 0;
+    }
+
+    String readString() throws IOException {
+        int i = readInt();
+        if (i == 0)
+            return null;
+        if (i == 1) {
+            String s = in.readUTF();
+            strings.add(s);
+            return s;
+        }
+        if (i - 2 >= strings.size())
+            throw new IOException("Malformed string reference " + i);
+        return strings.get(i - 2);
+    }
+
+    List<String> readStrings() throws IOException {
+        int n = readInt();
+        if (n == 0)
+            return Collections.emptyList();
+        List<String> l = new ArrayList<String>(n);
+        for (int i = 0; i < n; i++)
+            l.add(readString());
+        return l;
+    }
+}
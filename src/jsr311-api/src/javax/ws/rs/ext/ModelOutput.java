@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the compact binary form shared by {@link ResourceModel} and the
+ * other build-time indexes. Integers are written in a variable length
+ * encoding and each distinct string is written once, later occurrences are
+ * written as a reference to the first.
+ *
+ * @see ModelInput
+ */
+class ModelOutput {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+    ModelOutput(OutputStream out, int magic, int version) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(magic);
+        writeInt(version);
+    }
+
+    /**
+     * Write a non-negative integer, 7 bits per byte
+     */
+    void writeInt(int i) throws IOException {
+        while ((i & ~0x7f) != 0) {
+            out.write((i & 0x7f) | 0x80);
+            i >>>= 7;
+        }
+        out.write(i);
+    }
+
+    void writeBoolean(boolean b) throws IOException {
+        out.write(b ? 1 : 0);
+    }
+
+    /**
+     * Write a string as 0 for null, 1 followed by the string for its first
+     * occurrence or 2 plus the index of the first occurrence
+     */
+    void writeString(String s) throws IOException {
+        if (s == null) {
+            writeInt(0);
+            return;
+        }
+        Integer index = strings.get(s);
+        if (index != null) {
+            writeInt(index + 2);
+            return;
+        }
+        strings.put(s, strings.size());
+        writeInt(1);
+        out.writeUTF(s);
+    }
+
+    void writeStrings(List<String> l) throws IOException {
+        writeInt(l.size());
+        for (String s : l)
+            writeString(s);
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+}
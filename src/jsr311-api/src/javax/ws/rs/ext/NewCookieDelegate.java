@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link HeaderDelegate} for {@link NewCookie}, the value of a
+ * Set-Cookie response header. Attribute names are case-insensitive,
+ * attributes that {@code NewCookie} cannot represent, e.g. Expires, are
+ * ignored.
+ * @see <a href="http://www.ietf.org/rfc/rfc2109.txt">IETF RFC 2109</a>
+ */
+final class NewCookieDelegate implements HeaderDelegate<NewCookie> {
+
+    public NewCookie fromString(String value) throws IllegalArgumentException {
+        HeaderReader r = new HeaderReader(value);
+        String name = r.nextToken();
+        r.expect('=');
+        String cookieValue = r.nextValue(";");
+        String comment = null;
+        String domain = null;
+        String path = null;
+        int maxAge = NewCookie.DEFAULT_MAX_AGE;
+        int version = Cookie.DEFAULT_VERSION;
+        boolean secure = false;
+        while (r.skip(';')) {
+            if (!r.hasNext())
+                break;
+            String attribute = r.nextToken();
+            String v = null;
+            if (r.skip('='))
+                v = r.nextValue(";");
+            if (attribute.equalsIgnoreCase("Comment")) {
+                comment = v;
+            } else if (attribute.equalsIgnoreCase("Domain")) {
+                domain = v;
+            } else if (attribute.equalsIgnoreCase("Path")) {
+                path = v;
+            } else if (attribute.equalsIgnoreCase("Max-Age")) {
+                try {
+                    maxAge = Integer.parseInt(v);
+                } catch (NumberFormatException e) {
+                    throw r.error("Max-Age is not an integer");
+                }
+            } else if (attribute.equalsIgnoreCase("Version")) {
+                version = CookieDelegate.version(v, r);
+            } else if (attribute.equalsIgnoreCase("Secure")) {
+                secure = true;
+            }
+        }
+        if (r.hasNext())
+            throw r.error("';' expected");
+        return new NewCookie(name, cookieValue, path, domain, version, comment, maxAge, secure);
+    }
+
+    public String toString(NewCookie value) {
+        if (value == null)
+            throw new IllegalArgumentException("value==null");
+        StringBuilder b = new StringBuilder(64);
+        b.append(value.getName()).append('=');
+        HeaderWriter.appendCookieValue(b, value.getValue());
+        b.append(";Version=").append(value.getVersion());
+        if (value.getComment() != null) {
+            b.append(";Comment=");
+            HeaderWriter.appendCookieValue(b, value.getComment());
+        }
+        if (value.getDomain() != null) {
+            b.append(";Domain=");
+            HeaderWriter.appendCookieValue(b, value.getDomain());
+        }
+        if (value.getPath() != null) {
+            b.append(";Path=");
+            HeaderWriter.appendCookieValue(b, value.getPath());
+        }
+        if (value.getMaxAge() != NewCookie.DEFAULT_MAX_AGE)
+            b.append(";Max-Age=").append(value.getMaxAge());
+        if (value.isSecure())
+            b.append(";Secure");
+        return b.toString();
+    }
+}
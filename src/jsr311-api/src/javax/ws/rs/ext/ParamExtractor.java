@@ -0,0 +1,477 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.ResourceModel.Parameter;
+
+/**
+ * Converts the string values of a request parameter to the type of the
+ * method parameter, field or bean property it is injected into, following
+ * the rules described in {@link javax.ws.rs.QueryParam}.
+ *
+ * <p>An extractor is created once per injection target. The conversion is
+ * resolved when it is created: strings, primitive types, their wrappers,
+ * {@link BigDecimal}, {@link BigInteger} and enums are converted by direct
+ * calls and a constant table, other types by the {@code String} constructor
+ * or static {@code valueOf} or {@code fromString} method found at creation.
+ * A {@link javax.ws.rs.DefaultValue} is converted when the extractor is
+ * created, so an invalid default is reported then; for the types converted
+ * directly the converted value is reused, values of other types may be
+ * mutable and are converted again each time the default is used.</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @param <T> the type of the extracted value
+ */
+public abstract class ParamExtractor<T> {
+
+    private static final Map<Class<?>, Converter<?>> CONVERTERS = new HashMap<Class<?>, Converter<?>>();
+
+    /**
+     * The value of a primitive parameter that is absent and has no default
+     */
+    private static final Map<Class<?>, Object> ZEROS = new HashMap<Class<?>, Object>();
+
+    static {
+        CONVERTERS.put(String.class, new Converter<String>() {
+            String convert(String s) {
+                return s;
+            }
+        });
+        CONVERTERS.put(Integer.class, new Converter<Integer>() {
+            Integer convert(String s) {
+                return Integer.valueOf(s.trim());
+            }
+        });
+        CONVERTERS.put(Long.class, new Converter<Long>() {
+            Long convert(String s) {
+                return Long.valueOf(s.trim());
+            }
+        });
+        CONVERTERS.put(Short.class, new Converter<Short>() {
+            Short convert(String s) {
+                return Short.valueOf(s.trim());
+            }
+        });
+        CONVERTERS.put(Byte.class, new Converter<Byte>() {
+            Byte convert(String s) {
+                return Byte.valueOf(s.trim());
+            }
+        });
+        CONVERTERS.put(Double.class, new Converter<Double>() {
+            Double convert(String s) {
+                return Double.valueOf(s);
+            }
+        });
+        CONVERTERS.put(Float.class, new Converter<Float>() {
+            Float convert(String s) {
+                return Float.valueOf(s);
+            }
+        });
+        CONVERTERS.put(Boolean.class, new Converter<Boolean>() {
+            Boolean convert(String s) {
+                return Boolean.valueOf(s.trim());
+            }
+        });
+        CONVERTERS.put(Character.class, new Converter<Character>() {
+            Character convert(String s) {
+                if (s.length() != 1)
+                    throw new IllegalArgumentException("Not a single character: " + s);
+                return Character.valueOf(s.charAt(0));
+            }
+        });
+        CONVERTERS.put(BigDecimal.class, new Converter<BigDecimal>() {
+            BigDecimal convert(String s) {
+                return new BigDecimal(s.trim());
+            }
+        });
+        CONVERTERS.put(BigInteger.class, new Converter<BigInteger>() {
+            BigInteger convert(String s) {
+                return new BigInteger(s.trim());
+            }
+        });
+
+        ZEROS.put(int.class, Integer.valueOf(0));
+        ZEROS.put(long.class, Long.valueOf(0));
+        ZEROS.put(short.class, Short.valueOf((short) 0));
+        ZEROS.put(byte.class, Byte.valueOf((byte) 0));
+        ZEROS.put(double.class, Double.valueOf(0));
+        ZEROS.put(float.class, Float.valueOf(0));
+        ZEROS.put(boolean.class, Boolean.FALSE);
+        ZEROS.put(char.class, Character.valueOf('\0'));
+    }
+
+    private final int errorStatus;
+
+    ParamExtractor(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    /**
+     * Create an extractor.
+     * @param type the type of the injection target, a {@code Class} or a
+     * {@code ParameterizedType}, e.g. from
+     * {@link Method#getGenericParameterTypes}
+     * @param defaultValue the value of the {@link javax.ws.rs.DefaultValue}
+     * annotation or null if there is none
+     * @param errorStatus the HTTP status of the
+     * {@link WebApplicationException} thrown if a value cannot be converted
+     * @return the extractor
+     * @throws IllegalArgumentException if type is null, the type cannot be
+     * converted from a string or defaultValue cannot be converted to it
+     */
+    public static ParamExtractor<?> create(Type type, String defaultValue, int errorStatus)
+            throws IllegalArgumentException {
+        if (type == null)
+            throw new IllegalArgumentException("type is null");
+        Class<?> raw;
+        Type element = String.class;
+        if (type instanceof ParameterizedType) {
+            ParameterizedType p = (ParameterizedType) type;
+            raw = (Class<?>) p.getRawType();
+            element = p.getActualTypeArguments()[0];
+            if (element instanceof WildcardType) {
+                // as for a raw collection the values of List<?> are strings
+                element = ((WildcardType) element).getUpperBounds()[0];
+                if (element == Object.class)
+                    element = String.class;
+            }
+        } else if (type instanceof Class<?>) {
+            raw = (Class<?>) type;
+        } else {
+            throw new IllegalArgumentException("Unsupported parameter type " + type);
+        }
+
+        if (raw == List.class || raw == Set.class || raw == SortedSet.class) {
+            if (!(element instanceof Class<?>))
+                throw new IllegalArgumentException("Unsupported parameter type " + type);
+            Class<?> elementClass = (Class<?>) element;
+            Converter<?> c = converter(elementClass);
+            if (c == null)
+                throw new IllegalArgumentException("No conversion from String to " + elementClass.getName());
+            boolean immutable = CONVERTERS.containsKey(elementClass) || elementClass.isEnum();
+            return new CollectionExtractor<Object>(raw, c, convertDefault(c, defaultValue),
+                    immutable ? null : defaultValue, errorStatus);
+        }
+
+        Converter<?> c = converter(raw);
+        if (c == null)
+            throw new IllegalArgumentException("No conversion from String to " + raw.getName());
+        Object d = convertDefault(c, defaultValue);
+        if (d == null)
+            d = ZEROS.get(raw);
+        boolean immutable = raw.isPrimitive() || CONVERTERS.containsKey(raw) || raw.isEnum();
+        return new SingleExtractor<Object>(c, d, immutable ? null : defaultValue, errorStatus);
+    }
+
+    /**
+     * Create an extractor for a parameter of a {@link ResourceModel}. If a
+     * value of a path, query or matrix parameter cannot be converted the
+     * status is 404 (Not Found), for other parameters it is 400 (Bad
+     * Request).
+     * @param type the generic type of the injection target
+     * @param parameter the parameter
+     * @return the extractor
+     * @throws IllegalArgumentException if type or parameter is null, the
+     * parameter is a context or entity parameter, the type cannot be
+     * converted from a string or the default value cannot be converted to it
+     */
+    public static ParamExtractor<?> create(Type type, Parameter parameter) throws IllegalArgumentException {
+        if (parameter == null)
+            throw new IllegalArgumentException("parameter is null");
+        int status;
+        switch (parameter.getSource()) {
+            case PATH:
+            case QUERY:
+            case MATRIX:
+                status = 404;
+                break;
+            case HEADER:
+            case COOKIE:
+            case FORM:
+                status = 400;
+                break;
+            default:
+                throw new IllegalArgumentException(parameter.getSource() + " parameters are not extracted from strings");
+        }
+        return create(type, parameter.getDefaultValue(), status);
+    }
+
+    private static Object convertDefault(Converter<?> c, String defaultValue) {
+        if (defaultValue == null)
+            return null;
+        try {
+            return c.convert(defaultValue);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid default value '" + defaultValue + "'", e);
+        }
+    }
+
+    /**
+     * Find the conversion for a type
+     * @return the converter or null if the type cannot be converted
+     */
+    private static Converter<?> converter(Class<?> type) {
+        if (type.isPrimitive())
+            type = ZEROS.get(type).getClass();
+        Converter<?> c = CONVERTERS.get(type);
+        if (c != null)
+            return c;
+        Method fromString = staticFactory(type, "fromString");
+        if (type.isEnum())
+            return fromString != null ? new MethodConverter(fromString) : new EnumConverter(type);
+        if (!Modifier.isAbstract(type.getModifiers())) {
+            try {
+                return new ConstructorConverter(type.getConstructor(String.class));
+            } catch (NoSuchMethodException e) {
+            }
+        }
+        Method valueOf = staticFactory(type, "valueOf");
+        if (valueOf != null)
+            return new MethodConverter(valueOf);
+        return fromString == null ? null : new MethodConverter(fromString);
+    }
+
+    private static Method staticFactory(Class<?> type, String name) {
+        try {
+            Method m = type.getMethod(name, String.class);
+            if (Modifier.isStatic(m.getModifiers()) && type.isAssignableFrom(m.getReturnType()))
+                return m;
+        } catch (NoSuchMethodException e) {
+        }
+        return null;
+    }
+
+    /**
+     * Extract the value from the values of a request parameter.
+     * @param values the values of the parameter in the order they appear in
+     * the request, null or empty if the parameter is absent
+     * @return the value converted from the first value, the collection of
+     * all converted values, or the default if the parameter is absent
+     * @throws WebApplicationException if a value cannot be converted, with
+     * the conversion exception as the cause
+     */
+    public abstract T extract(List<String> values) throws WebApplicationException;
+
+    /**
+     * Extract the value of a named parameter.
+     * @param parameters the request parameters
+     * @param name the name of the parameter
+     * @return the extracted value, see {@link #extract(List)}
+     * @throws WebApplicationException if a value cannot be converted
+     */
+    public T extract(MultivaluedMap<String, String> parameters, String name) throws WebApplicationException {
+        return extract(parameters.get(name));
+    }
+
+    Object convert(Converter<?> c, String value) {
+        try {
+            return c.convert(value);
+        } catch (WebApplicationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new WebApplicationException(e, errorStatus);
+        }
+    }
+
+    /**
+     * A conversion from a string
+     */
+    abstract static class Converter<T> {
+        abstract T convert(String s) throws Exception;
+    }
+
+    private static final class EnumConverter extends Converter<Object> {
+        private final Class<?> type;
+        private final Map<String, Object> constants = new HashMap<String, Object>();
+
+        EnumConverter(Class<?> type) {
+            this.type = type;
+            for (Object o : type.getEnumConstants())
+                constants.put(((Enum<?>) o).name(), o);
+        }
+
+        Object convert(String s) {
+            Object o = constants.get(s);
+            if (o == null)
+                throw new IllegalArgumentException("No enum constant " + type.getName() + "." + s);
+            return o;
+        }
+    }
+
+    private static final class ConstructorConverter extends Converter<Object> {
+        private final Constructor<?> constructor;
+
+        ConstructorConverter(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        Object convert(String s) throws Exception {
+            try {
+                return constructor.newInstance(s);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    private static final class MethodConverter extends Converter<Object> {
+        private final Method method;
+
+        MethodConverter(Method method) {
+            this.method = method;
+        }
+
+        Object convert(String s) throws Exception {
+            try {
+                return method.invoke(null, s);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    private static Exception unwrap(InvocationTargetException e) {
+        Throwable t = e.getCause();
+        if (t instanceof Error)
+            throw (Error) t;
+        return t instanceof Exception ? (Exception) t : e;
+    }
+
+    private static final class SingleExtractor<T> extends ParamExtractor<T> {
+        private final Converter<?> converter;
+        private final Object defaultValue;
+
+        /**
+         * The default value to convert each time it is used, null if
+         * defaultValue can be shared
+         */
+        private final String mutableDefault;
+
+        SingleExtractor(Converter<?> converter, Object defaultValue, String mutableDefault, int errorStatus) {
+            super(errorStatus);
+            this.converter = converter;
+            this.defaultValue = defaultValue;
+            this.mutableDefault = mutableDefault;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T extract(List<String> values) {
+            if (values == null || values.isEmpty())
+                return (T) (mutableDefault == null ? defaultValue : convert(converter, mutableDefault));
+            return (T) convert(converter, values.get(0));
+        }
+    }
+
+    private static final class CollectionExtractor<T> extends ParamExtractor<T> {
+        private final Class<?> collectionType;
+        private final Converter<?> converter;
+        private final Collection<Object> defaultValue;
+
+        /**
+         * The default value to convert each time it is used, null if
+         * defaultValue can be shared
+         */
+        private final String mutableDefault;
+
+        CollectionExtractor(Class<?> collectionType, Converter<?> converter, Object defaultValue,
+                String mutableDefault, int errorStatus) {
+            super(errorStatus);
+            this.collectionType = collectionType;
+            this.converter = converter;
+            Collection<Object> c = newCollection(defaultValue == null ? 0 : 1);
+            if (defaultValue != null)
+                c.add(defaultValue);
+            this.defaultValue = readOnly(c);
+            this.mutableDefault = mutableDefault;
+        }
+
+        private Collection<Object> newCollection(int size) {
+            if (collectionType == List.class)
+                return new ArrayList<Object>(size);
+            if (collectionType == Set.class)
+                return new LinkedHashSet<Object>(2 * size);
+            return new TreeSet<Object>();
+        }
+
+        private Collection<Object> readOnly(Collection<Object> c) {
+            if (collectionType == List.class)
+                return Collections.unmodifiableList((List<Object>) c);
+            if (collectionType == Set.class)
+                return Collections.unmodifiableSet((Set<Object>) c);
+            return Collections.unmodifiableSortedSet((SortedSet<Object>) c);
+        }
+
+        @SuppressWarnings("unchecked")
+        public T extract(List<String> values) {
+            if (values == null || values.isEmpty()) {
+                if (mutableDefault == null)
+                    return (T) defaultValue;
+                values = Collections.singletonList(mutableDefault);
+            }
+            Collection<Object> c = newCollection(values.size());
+            for (String value : values)
+                c.add(convert(converter, value));
+            return (T) readOnly(c);
+        }
+    }
+}
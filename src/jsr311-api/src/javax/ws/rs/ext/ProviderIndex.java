@@ -0,0 +1,328 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the classes annotated with {@link Provider}, written at
+ * compile time by an annotation processor so that a runtime can find
+ * providers without scanning the class path and can build its provider
+ * tables without loading each provider class.
+ *
+ * <p>The index has an entry for each provider interface a provider class
+ * implements, recording the type argument of the interface and the
+ * {@link javax.ws.rs.Produces} and {@link javax.ws.rs.Consumes} values of
+ * the class. A provider class need only be loaded once an entry has been
+ * selected for a type and media type.</p>
+ *
+ * <p>Indexes are stored in class path resources named
+ * {@link #RESOURCE_NAME} in a compact binary form. Instances are
+ * immutable.</p>
+ */
+public final class ProviderIndex {
+
+    /**
+     * The name of the class path resource holding an index.
+     */
+    public static final String RESOURCE_NAME = "META-INF/javax.ws.rs/provider-index";
+
+    private static final int MAGIC = 0x4a525350;
+    private static final int VERSION = 1;
+
+    /**
+     * The provider interfaces.
+     */
+    public enum Kind {
+        /** {@link MessageBodyReader} */
+        MESSAGE_BODY_READER(MessageBodyReader.class),
+        /** {@link MessageBodyWriter} */
+        MESSAGE_BODY_WRITER(MessageBodyWriter.class),
+        /** {@link ContextResolver} */
+        CONTEXT_RESOLVER(ContextResolver.class),
+        /** {@link ExceptionMapper} */
+        EXCEPTION_MAPPER(ExceptionMapper.class);
+
+        private final Class<?> providerInterface;
+
+        Kind(Class<?> providerInterface) {
+            this.providerInterface = providerInterface;
+        }
+
+        /**
+         * Get the provider interface.
+         * @return the interface
+         */
+        public Class<?> getInterface() {
+            return providerInterface;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final Map<Kind, List<Entry>> byKind = new EnumMap<Kind, List<Entry>>(Kind.class);
+
+    /**
+     * Create an index.
+     * @param entries the entries, if more than one has the same class name
+     * and kind the first is used
+     * @throws IllegalArgumentException if entries is null
+     */
+    public ProviderIndex(Collection<Entry> entries) {
+        if (entries == null)
+            throw new IllegalArgumentException("entries is null");
+        List<Entry> l = new ArrayList<Entry>(entries.size());
+        Set<String> seen = new HashSet<String>();
+        for (Entry e : entries) {
+            if (seen.add(e.getKind() + " " + e.getClassName()))
+                l.add(e);
+        }
+        this.entries = Collections.unmodifiableList(l);
+        for (Kind k : Kind.values())
+            byKind.put(k, new ArrayList<Entry>());
+        for (Entry e : l)
+            byKind.get(e.getKind()).add(e);
+        for (Kind k : Kind.values())
+            byKind.put(k, Collections.unmodifiableList(byKind.get(k)));
+    }
+
+    /**
+     * Get all entries of the index.
+     * @return a read-only list of the entries
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Get the entries for a provider interface.
+     * @param kind the provider interface
+     * @return a read-only list of the entries, in index order
+     * @throws IllegalArgumentException if kind is null
+     */
+    public List<Entry> getEntries(Kind kind) {
+        if (kind == null)
+            throw new IllegalArgumentException("kind is null");
+        return byKind.get(kind);
+    }
+
+    /**
+     * Load and merge all indexes visible to a class loader.
+     * @param classLoader the class loader whose {@link #RESOURCE_NAME}
+     * resources are read, null for the system class loader
+     * @return the merged index, empty if there are no such resources
+     * @throws IOException if a resource cannot be read or is not an index
+     */
+    public static ProviderIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> urls = classLoader == null
+                ? ClassLoader.getSystemResources(RESOURCE_NAME)
+                : classLoader.getResources(RESOURCE_NAME);
+        List<Entry> l = new ArrayList<Entry>();
+        while (urls.hasMoreElements()) {
+            InputStream in = urls.nextElement().openStream();
+            try {
+                l.addAll(read(in).getEntries());
+            } finally {
+                in.close();
+            }
+        }
+        return new ProviderIndex(l);
+    }
+
+    /**
+     * Read an index written by {@link #write}.
+     * @param in the stream to read, it is not closed
+     * @return the index
+     * @throws IOException if the stream cannot be read or does not contain
+     * an index
+     */
+    public static ProviderIndex read(InputStream in) throws IOException {
+        ModelInput mi = new ModelInput(new BufferedInputStream(in), MAGIC, VERSION, "provider index");
+        Kind[] kinds = Kind.values();
+        int n = mi.readInt();
+        List<Entry> l = new ArrayList<Entry>(n);
+        for (int i = 0; i < n; i++) {
+            String className = mi.readString();
+            int kind = mi.readInt();
+            if (kind >= kinds.length)
+                throw new IOException("Unknown provider kind " + kind);
+            String typeArgument = mi.readString();
+            List<String> produces = mi.readStrings();
+            List<String> consumes = mi.readStrings();
+            l.add(new Entry(className, kinds[kind], typeArgument, produces, consumes));
+        }
+        return new ProviderIndex(l);
+    }
+
+    /**
+     * Write the index in the form read by {@link #read}.
+     * @param out the stream to write, it is flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        ModelOutput mo = new ModelOutput(new BufferedOutputStream(out), MAGIC, VERSION);
+        mo.writeInt(entries.size());
+        for (Entry e : entries) {
+            mo.writeString(e.getClassName());
+            mo.writeInt(e.getKind().ordinal());
+            mo.writeString(e.getTypeArgument());
+            mo.writeStrings(e.getProduces());
+            mo.writeStrings(e.getConsumes());
+        }
+        mo.flush();
+    }
+
+    /**
+     * A provider class and one of the provider interfaces it implements.
+     */
+    public static final class Entry {
+        private final String className;
+        private final Kind kind;
+        private final String typeArgument;
+        private final List<String> produces;
+        private final List<String> consumes;
+
+        /**
+         * Create an entry.
+         * @param className the name of the provider class as returned by
+         * {@link Class#getName}
+         * @param kind the provider interface
+         * @param typeArgument the name of the erasure of the type argument of
+         * the provider interface as returned by {@link Class#getName},
+         * {@code java.lang.Object} if the class does not bind it
+         * @param produces the values of the Produces annotation of the
+         * class, empty or null if it is not annotated
+         * @param consumes the values of the Consumes annotation of the
+         * class, empty or null if it is not annotated
+         * @throws IllegalArgumentException if className, kind or
+         * typeArgument is null
+         */
+        public Entry(String className, Kind kind, String typeArgument,
+                List<String> produces, List<String> consumes) {
+            if (className == null || kind == null || typeArgument == null)
+                throw new IllegalArgumentException("className, kind or typeArgument is null");
+            this.className = className;
+            this.kind = kind;
+            this.typeArgument = typeArgument;
+            this.produces = copy(produces);
+            this.consumes = copy(consumes);
+        }
+
+        private static List<String> copy(List<String> l) {
+            if (l == null || l.isEmpty())
+                return Collections.emptyList();
+            return Collections.unmodifiableList(new ArrayList<String>(l));
+        }
+
+        /**
+         * Get the name of the provider class.
+         * @return the class name as returned by {@link Class#getName}
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Get the provider interface.
+         * @return the interface
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Get the type argument of the provider interface: the type read
+         * or written, the type of context or the type of exception.
+         * @return the name of the erasure of the type argument as returned by
+         * {@link Class#getName}
+         */
+        public String getTypeArgument() {
+            return typeArgument;
+        }
+
+        /**
+         * Get the Produces annotation values of the class.
+         * @return a read-only list, empty if the class is not annotated
+         */
+        public List<String> getProduces() {
+            return produces;
+        }
+
+        /**
+         * Get the Consumes annotation values of the class.
+         * @return a read-only list, empty if the class is not annotated
+         */
+        public List<String> getConsumes() {
+            return consumes;
+        }
+
+        /**
+         * Load the provider class.
+         * @param classLoader the class loader, null for the system class
+         * loader
+         * @return the class, which is not initialized
+         * @throws ClassNotFoundException if the class cannot be found
+         */
+        public Class<?> load(ClassLoader classLoader) throws ClassNotFoundException {
+            if (classLoader == null)
+                classLoader = ClassLoader.getSystemClassLoader();
+            return Class.forName(className, false, classLoader);
+        }
+
+        @Override
+        public String toString() {
+            return className + " " + kind + "<" + typeArgument + ">";
+        }
+    }
+}
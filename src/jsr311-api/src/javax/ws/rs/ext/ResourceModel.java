@@ -0,0 +1,660 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A precomputed model of the resource classes of an application, written at
+ * compile time by an annotation processor so that a runtime can find
+ * resource methods, sub-resource locators and injected parameters without
+ * reading annotations reflectively.
+ *
+ * <p>The model records, for each concrete class that is annotated with
+ * {@link javax.ws.rs.Path} or has a method annotated with {@code Path} or a
+ * request method designator, the effective values of the JAX-RS
+ * annotations: the annotations of a method are those of the method it
+ * overrides or implements if it has none of its own, and
+ * {@link javax.ws.rs.Encoded} on a class or method is applied to each of
+ * its parameters. Class names and parameter types are recorded as returned
+ * by {@link Class#getName}, so members can be looked up without loading any
+ * other class.</p>
+ *
+ * <p>Models are stored in class path resources named {@link #RESOURCE_NAME}
+ * in a compact binary form. Instances are immutable.</p>
+ */
+public final class ResourceModel {
+
+    /**
+     * The name of the class path resource holding a model.
+     */
+    public static final String RESOURCE_NAME = "META-INF/javax.ws.rs/resource-model";
+
+    private static final int MAGIC = 0x4a525352;
+    private static final int VERSION = 1;
+
+    private final List<ResourceClass> resourceClasses;
+    private final Map<String, ResourceClass> byName;
+
+    /**
+     * Create a model.
+     * @param resourceClasses the resource classes, if more than one has the
+     * same name the first is used
+     * @throws IllegalArgumentException if resourceClasses is null
+     */
+    public ResourceModel(Collection<ResourceClass> resourceClasses) {
+        if (resourceClasses == null)
+            throw new IllegalArgumentException("resourceClasses is null");
+        byName = new LinkedHashMap<String, ResourceClass>();
+        for (ResourceClass c : resourceClasses) {
+            if (!byName.containsKey(c.getName()))
+                byName.put(c.getName(), c);
+        }
+        this.resourceClasses = Collections.unmodifiableList(new ArrayList<ResourceClass>(byName.values()));
+    }
+
+    /**
+     * Get the resource classes of the model.
+     * @return a read-only list of the resource classes
+     */
+    public List<ResourceClass> getResourceClasses() {
+        return resourceClasses;
+    }
+
+    /**
+     * Get a resource class by name.
+     * @param name the class name as returned by {@link Class#getName}
+     * @return the resource class or null if the model does not contain it
+     */
+    public ResourceClass getResourceClass(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Load and merge all models visible to a class loader.
+     * @param classLoader the class loader whose {@link #RESOURCE_NAME}
+     * resources are read, null for the system class loader
+     * @return the merged model, empty if there are no such resources
+     * @throws IOException if a resource cannot be read or is not a model
+     */
+    public static ResourceModel load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> urls = classLoader == null
+                ? ClassLoader.getSystemResources(RESOURCE_NAME)
+                : classLoader.getResources(RESOURCE_NAME);
+        List<ResourceClass> l = new ArrayList<ResourceClass>();
+        while (urls.hasMoreElements()) {
+            InputStream in = urls.nextElement().openStream();
+            try {
+                l.addAll(read(in).getResourceClasses());
+            } finally {
+                in.close();
+            }
+        }
+        return new ResourceModel(l);
+    }
+
+    /**
+     * Read a model written by {@link #write}.
+     * @param in the stream to read, it is not closed
+     * @return the model
+     * @throws IOException if the stream cannot be read or does not contain
+     * a model
+     */
+    public static ResourceModel read(InputStream in) throws IOException {
+        ModelInput mi = new ModelInput(new BufferedInputStream(in), MAGIC, VERSION, "resource model");
+        int n = mi.readInt();
+        List<ResourceClass> l = new ArrayList<ResourceClass>(n);
+        for (int i = 0; i < n; i++) {
+            String name = mi.readString();
+            String path = mi.readString();
+            List<String> produces = mi.readStrings();
+            List<String> consumes = mi.readStrings();
+            List<Parameter> fields = readParameters(mi);
+            List<ResourceMethod> constructors = readMethods(mi);
+            List<ResourceMethod> methods = readMethods(mi);
+            l.add(new ResourceClass(name, path, produces, consumes, fields, constructors, methods));
+        }
+        return new ResourceModel(l);
+    }
+
+    private static List<ResourceMethod> readMethods(ModelInput mi) throws IOException {
+        int n = mi.readInt();
+        List<ResourceMethod> l = new ArrayList<ResourceMethod>(n);
+        for (int i = 0; i < n; i++) {
+            String name = mi.readString();
+            String httpMethod = mi.readString();
+            String path = mi.readString();
+            List<String> produces = mi.readStrings();
+            List<String> consumes = mi.readStrings();
+            l.add(new ResourceMethod(name, httpMethod, path, produces, consumes, readParameters(mi)));
+        }
+        return l;
+    }
+
+    private static List<Parameter> readParameters(ModelInput mi) throws IOException {
+        int n = mi.readInt();
+        List<Parameter> l = new ArrayList<Parameter>(n);
+        Parameter.Source[] sources = Parameter.Source.values();
+        for (int i = 0; i < n; i++) {
+            String member = mi.readString();
+            String type = mi.readString();
+            int source = mi.readInt();
+            if (source >= sources.length)
+                throw new IOException("Unknown parameter source " + source);
+            String name = mi.readString();
+            String defaultValue = mi.readString();
+            boolean encoded = mi.readBoolean();
+            l.add(new Parameter(member, type, sources[source], name, defaultValue, encoded));
+        }
+        return l;
+    }
+
+    /**
+     * Write the model in the form read by {@link #read}.
+     * @param out the stream to write, it is flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        BufferedOutputStream b = new BufferedOutputStream(out);
+        ModelOutput mo = new ModelOutput(b, MAGIC, VERSION);
+        mo.writeInt(resourceClasses.size());
+        for (ResourceClass c : resourceClasses) {
+            mo.writeString(c.getName());
+            mo.writeString(c.getPath());
+            mo.writeStrings(c.getProduces());
+            mo.writeStrings(c.getConsumes());
+            writeParameters(mo, c.getFields());
+            writeMethods(mo, c.getConstructors());
+            writeMethods(mo, c.getMethods());
+        }
+        mo.flush();
+    }
+
+    private static void writeMethods(ModelOutput mo, List<ResourceMethod> methods) throws IOException {
+        mo.writeInt(methods.size());
+        for (ResourceMethod m : methods) {
+            mo.writeString(m.getName());
+            mo.writeString(m.getHttpMethod());
+            mo.writeString(m.getPath());
+            mo.writeStrings(m.getProduces());
+            mo.writeStrings(m.getConsumes());
+            writeParameters(mo, m.getParameters());
+        }
+    }
+
+    private static void writeParameters(ModelOutput mo, List<Parameter> parameters) throws IOException {
+        mo.writeInt(parameters.size());
+        for (Parameter p : parameters) {
+            mo.writeString(p.getMember());
+            mo.writeString(p.getType());
+            mo.writeInt(p.getSource().ordinal());
+            mo.writeString(p.getName());
+            mo.writeString(p.getDefaultValue());
+            mo.writeBoolean(p.isEncoded());
+        }
+    }
+
+    private static <T> List<T> copy(List<T> l) {
+        if (l == null || l.isEmpty())
+            return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<T>(l));
+    }
+
+    /**
+     * A resource class.
+     */
+    public static final class ResourceClass {
+        private final String name;
+        private final String path;
+        private final List<String> produces;
+        private final List<String> consumes;
+        private final List<Parameter> fields;
+        private final List<ResourceMethod> constructors;
+        private final List<ResourceMethod> methods;
+
+        /**
+         * Create a resource class.
+         * @param name the class name as returned by {@link Class#getName}
+         * @param path the value of the Path annotation of the class or null
+         * if it is not a root resource class
+         * @param produces the values of the Produces annotation of the class,
+         * empty or null if it is not annotated
+         * @param consumes the values of the Consumes annotation of the class,
+         * empty or null if it is not annotated
+         * @param fields the annotated fields
+         * @param constructors the public constructors
+         * @param methods the resource methods, sub-resource methods,
+         * sub-resource locators and annotated bean property setters
+         * @throws IllegalArgumentException if name is null
+         */
+        public ResourceClass(String name, String path, List<String> produces, List<String> consumes,
+                List<Parameter> fields, List<ResourceMethod> constructors, List<ResourceMethod> methods) {
+            if (name == null)
+                throw new IllegalArgumentException("name is null");
+            this.name = name;
+            this.path = path;
+            this.produces = copy(produces);
+            this.consumes = copy(consumes);
+            this.fields = copy(fields);
+            this.constructors = copy(constructors);
+            this.methods = copy(methods);
+        }
+
+        /**
+         * Get the name of the class.
+         * @return the class name as returned by {@link Class#getName}
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the Path annotation value of a root resource class.
+         * @return the value or null if the class is not annotated with Path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the Produces annotation values of the class.
+         * @return a read-only list, empty if the class is not annotated
+         */
+        public List<String> getProduces() {
+            return produces;
+        }
+
+        /**
+         * Get the Consumes annotation values of the class.
+         * @return a read-only list, empty if the class is not annotated
+         */
+        public List<String> getConsumes() {
+            return consumes;
+        }
+
+        /**
+         * Get the fields annotated with a parameter annotation or
+         * {@link javax.ws.rs.core.Context}.
+         * @return a read-only list of the fields, {@link Parameter#getMember}
+         * is the name of each field
+         */
+        public List<Parameter> getFields() {
+            return fields;
+        }
+
+        /**
+         * Get the public constructors of the class.
+         * @return a read-only list of the constructors, each named
+         * {@code <init>}
+         */
+        public List<ResourceMethod> getConstructors() {
+            return constructors;
+        }
+
+        /**
+         * Get the resource methods, sub-resource methods, sub-resource
+         * locators and annotated bean property setters of the class.
+         * @return a read-only list of the methods
+         */
+        public List<ResourceMethod> getMethods() {
+            return methods;
+        }
+
+        /**
+         * Load the class.
+         * @param classLoader the class loader, null for the system class
+         * loader
+         * @return the class, which is not initialized
+         * @throws ClassNotFoundException if the class cannot be found
+         */
+        public Class<?> load(ClassLoader classLoader) throws ClassNotFoundException {
+            if (classLoader == null)
+                classLoader = ClassLoader.getSystemClassLoader();
+            return Class.forName(name, false, classLoader);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * A public constructor or method of a resource class.
+     */
+    public static final class ResourceMethod {
+        private final String name;
+        private final String httpMethod;
+        private final String path;
+        private final List<String> produces;
+        private final List<String> consumes;
+        private final List<Parameter> parameters;
+
+        /**
+         * Create a method.
+         * @param name the method name, {@code <init>} for a constructor
+         * @param httpMethod the value of the {@link javax.ws.rs.HttpMethod}
+         * annotation of the method's request method designator or null if
+         * it has none
+         * @param path the value of the Path annotation of the method or null
+         * if it is not annotated
+         * @param produces the values of the Produces annotation of the
+         * method, empty or null if it is not annotated
+         * @param consumes the values of the Consumes annotation of the
+         * method, empty or null if it is not annotated
+         * @param parameters the parameters of the method in order
+         * @throws IllegalArgumentException if name is null
+         */
+        public ResourceMethod(String name, String httpMethod, String path,
+                List<String> produces, List<String> consumes, List<Parameter> parameters) {
+            if (name == null)
+                throw new IllegalArgumentException("name is null");
+            this.name = name;
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.produces = copy(produces);
+            this.consumes = copy(consumes);
+            this.parameters = copy(parameters);
+        }
+
+        /**
+         * Get the name of the method.
+         * @return the name, {@code <init>} for a constructor
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the HTTP method of a resource method or sub-resource method.
+         * @return the HTTP method or null for a sub-resource locator,
+         * constructor or bean property setter
+         */
+        public String getHttpMethod() {
+            return httpMethod;
+        }
+
+        /**
+         * Get the Path annotation value of a sub-resource method or locator.
+         * @return the value or null if the method is not annotated with Path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the Produces annotation values of the method.
+         * @return a read-only list, empty if the method is not annotated
+         */
+        public List<String> getProduces() {
+            return produces;
+        }
+
+        /**
+         * Get the Consumes annotation values of the method.
+         * @return a read-only list, empty if the method is not annotated
+         */
+        public List<String> getConsumes() {
+            return consumes;
+        }
+
+        /**
+         * Get the parameters of the method.
+         * @return a read-only list of the parameters in order
+         */
+        public List<Parameter> getParameters() {
+            return parameters;
+        }
+
+        /**
+         * Determine whether this is a sub-resource locator.
+         * @return true if the method has a Path annotation but no request
+         * method designator
+         */
+        public boolean isSubResourceLocator() {
+            return httpMethod == null && path != null;
+        }
+
+        private boolean hasParameterTypes(Class<?>[] types) {
+            if (types.length != parameters.size())
+                return false;
+            for (int i = 0; i < types.length; i++) {
+                if (!types[i].getName().equals(parameters.get(i).getType()))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Find the public method described by this instance.
+         * @param resourceClass the resource class
+         * @return the method
+         * @throws NoSuchMethodException if the class has no such public method
+         */
+        public Method getMethod(Class<?> resourceClass) throws NoSuchMethodException {
+            for (Method m : resourceClass.getMethods()) {
+                if (m.getName().equals(name) && !m.isBridge() && hasParameterTypes(m.getParameterTypes()))
+                    return m;
+            }
+            throw new NoSuchMethodException(resourceClass.getName() + "." + name);
+        }
+
+        /**
+         * Find the public constructor described by this instance.
+         * @param resourceClass the resource class
+         * @return the constructor
+         * @throws NoSuchMethodException if the class has no such public
+         * constructor
+         */
+        public Constructor<?> getConstructor(Class<?> resourceClass) throws NoSuchMethodException {
+            for (Constructor<?> c : resourceClass.getConstructors()) {
+                if (hasParameterTypes(c.getParameterTypes()))
+                    return c;
+            }
+            throw new NoSuchMethodException(resourceClass.getName() + ".<init>");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder(name).append('(');
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0)
+                    b.append(',');
+                b.append(parameters.get(i).getType());
+            }
+            return b.append(')').toString();
+        }
+    }
+
+    /**
+     * A method or constructor parameter or an annotated field.
+     */
+    public static final class Parameter {
+
+        /**
+         * The source of the value of a parameter.
+         */
+        public enum Source {
+            /** {@link javax.ws.rs.PathParam} */
+            PATH,
+            /** {@link javax.ws.rs.QueryParam} */
+            QUERY,
+            /** {@link javax.ws.rs.MatrixParam} */
+            MATRIX,
+            /** {@link javax.ws.rs.HeaderParam} */
+            HEADER,
+            /** {@link javax.ws.rs.CookieParam} */
+            COOKIE,
+            /** {@link javax.ws.rs.FormParam} */
+            FORM,
+            /** {@link javax.ws.rs.core.Context} */
+            CONTEXT,
+            /** An unannotated parameter of a resource method */
+            ENTITY
+        }
+
+        private final String member;
+        private final String type;
+        private final Source source;
+        private final String name;
+        private final String defaultValue;
+        private final boolean encoded;
+
+        /**
+         * Create a parameter.
+         * @param member the name of an annotated field, null for a method or
+         * constructor parameter
+         * @param type the erased type as returned by {@link Class#getName}
+         * @param source the source of the value
+         * @param name the name given by the parameter annotation, null for
+         * the CONTEXT and ENTITY sources
+         * @param defaultValue the value of the {@link javax.ws.rs.DefaultValue}
+         * annotation or null if there is none
+         * @param encoded true if the parameter, its method or class is
+         * annotated with {@link javax.ws.rs.Encoded}
+         * @throws IllegalArgumentException if type or source is null
+         */
+        public Parameter(String member, String type, Source source, String name,
+                String defaultValue, boolean encoded) {
+            if (type == null || source == null)
+                throw new IllegalArgumentException("type or source is null");
+            this.member = member;
+            this.type = type;
+            this.source = source;
+            this.name = name;
+            this.defaultValue = defaultValue;
+            this.encoded = encoded;
+        }
+
+        /**
+         * Get the name of an annotated field.
+         * @return the field name or null for a method or constructor
+         * parameter
+         */
+        public String getMember() {
+            return member;
+        }
+
+        /**
+         * Get the erased type of the parameter.
+         * @return the type name as returned by {@link Class#getName}
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Get the source of the parameter value.
+         * @return the source
+         */
+        public Source getSource() {
+            return source;
+        }
+
+        /**
+         * Get the name given by the parameter annotation.
+         * @return the name or null for the CONTEXT and ENTITY sources
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the DefaultValue annotation value.
+         * @return the default value or null if there is none
+         */
+        public String getDefaultValue() {
+            return defaultValue;
+        }
+
+        /**
+         * Determine whether the value is to be supplied in encoded form.
+         * @return true if the parameter, its method or class is annotated
+         * with Encoded
+         */
+        public boolean isEncoded() {
+            return encoded;
+        }
+
+        /**
+         * Find the annotated field described by this instance in a resource
+         * class or its superclasses.
+         * @param resourceClass the resource class
+         * @return the field
+         * @throws NoSuchFieldException if there is no such field or this
+         * instance describes a method or constructor parameter
+         */
+        public Field getField(Class<?> resourceClass) throws NoSuchFieldException {
+            if (member != null) {
+                for (Class<?> c = resourceClass; c != null; c = c.getSuperclass()) {
+                    try {
+                        Field f = c.getDeclaredField(member);
+                        if (f.getType().getName().equals(type))
+                            return f;
+                    } catch (NoSuchFieldException e) {
+                    }
+                }
+            }
+            throw new NoSuchFieldException(resourceClass.getName() + "." + member);
+        }
+
+        @Override
+        public String toString() {
+            return source + (name == null ? "" : "(" + name + ")") + " " + type
+                    + (member == null ? "" : " " + member);
+        }
+    }
+}
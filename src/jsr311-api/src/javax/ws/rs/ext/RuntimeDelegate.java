@@ -75,11 +75,15 @@ public abstract class RuntimeDelegate {
     }
 
     private static volatile RuntimeDelegate rd;
+
+    private volatile HeaderDelegateTable headerDelegates;
     
     /**
      * Obtain a RuntimeDelegate instance. If an instance had not already been
-     * created and set via {@link #setInstance}, the first invocation will
-     * create an instance which will then be cached for future use.
+     * set via {@link #setInstance}, the first invocation from a thread with a
+     * given context class loader will create an instance which will then be
+     * cached in the {@link RuntimeDelegateRegistry} for future use by threads
+     * with the same context class loader.
      *
      * <p>
      * The algorithm used to locate the RuntimeDelegate subclass to use consists
@@ -110,15 +114,10 @@ public abstract class RuntimeDelegate {
      * @return an instance of RuntimeDelegate
      */
     public static RuntimeDelegate getInstance() {
-       // Double-check idiom for lazy initialization of fields.
        RuntimeDelegate result = rd;
-       if (result == null) { // First check (no locking)
-           synchronized(RuntimeDelegate.class) {
-               result = rd;
-               if (result == null) { // Second check (with locking)
-                   rd = result = findDelegate();
-               }
-           }
+       if (result == null) {
+           result = RuntimeDelegateRegistry.getDelegate(
+                   FactoryFinder.getContextClassLoader());
        }
        return result;
     }
@@ -126,13 +125,15 @@ public abstract class RuntimeDelegate {
     /**
      * Obtain a RuntimeDelegate instance using the method described in
      * {@link #getInstance}.
+     * @param classLoader the class loader used to locate the implementation
+     * class
      * @return an instance of RuntimeDelegate
      */
-    private static RuntimeDelegate findDelegate() {
+    static RuntimeDelegate findDelegate(ClassLoader classLoader) {
         try {
             Object delegate =
                     FactoryFinder.find(JAXRS_RUNTIME_DELEGATE_PROPERTY,
-                    JAXRS_DEFAULT_RUNTIME_DELEGATE);
+                    JAXRS_DEFAULT_RUNTIME_DELEGATE, classLoader);
             if (!(delegate instanceof RuntimeDelegate)) {
                 Class pClass = RuntimeDelegate.class;
                 String classnameAsResource = pClass.getName().replace('.', '/') + ".class";
@@ -154,8 +155,10 @@ public abstract class RuntimeDelegate {
     /**
      * Set the runtime delegate that will be used by JAX-RS classes. If this method
      * is not called prior to {@link #getInstance} then an implementation will
-     * be sought as described in {@link #getInstance}.
-     * @param rd the runtime delegate instance
+     * be sought as described in {@link #getInstance}. A delegate set by this
+     * method takes precedence over those cached for each context class loader.
+     * @param rd the runtime delegate instance, null to revert to the
+     * delegates cached for each context class loader
      * @throws SecurityException if there is a security manager and the permission
      * ReflectPermission("suppressAccessChecks") has not been granted.
      */
@@ -169,6 +172,24 @@ public abstract class RuntimeDelegate {
         }
     }
     
+    /**
+     * Get the table that caches the header delegates created by this
+     * instance.
+     * @return the header delegate table
+     */
+    HeaderDelegateTable getHeaderDelegateTable() {
+        HeaderDelegateTable result = headerDelegates;
+        if (result == null) {
+            synchronized(this) {
+                result = headerDelegates;
+                if (result == null) {
+                    headerDelegates = result = new HeaderDelegateTable(this);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Create a new instance of a {@link javax.ws.rs.core.UriBuilder}.
      * @return new UriBuilder instance
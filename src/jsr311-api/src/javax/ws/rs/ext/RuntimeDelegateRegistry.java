@@ -0,0 +1,225 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ReflectPermission;
+
+/**
+ * Caches the {@link RuntimeDelegate} discovered for each context class
+ * loader. {@link RuntimeDelegate#getInstance} consults the registry when no
+ * instance has been set via {@link RuntimeDelegate#setInstance}, so each
+ * application in a container that gives applications their own class loader
+ * obtains its own delegate and the discovery algorithm, which involves file
+ * I/O and reflection, is performed once per class loader.
+ *
+ * <p>The registrations are kept in a copy-on-write array that is searched
+ * without locking or allocation, since every header conversion that goes
+ * through {@link RuntimeDelegate#getInstance} looks up its delegate here.
+ * Discovery and removal replace the array while holding a lock.</p>
+ *
+ * <p>Class loaders are held weakly so that the registry does not prevent an
+ * undeployed application from being garbage collected. Delegates are held
+ * strongly, so a class loader keeps the same delegate, and the header
+ * delegates and caches that belong to it, for as long as it is in use. A
+ * delegate whose class is loaded by the class loader it is registered for
+ * keeps that class loader reachable, so containers should call
+ * {@link #remove} when an application is undeployed.</p>
+ */
+public final class RuntimeDelegateRegistry {
+
+    private static final ReflectPermission rp = new ReflectPermission("suppressAccessChecks");
+
+    private static final Registration[] NO_REGISTRATIONS = new Registration[0];
+
+    /**
+     * The registrations, replaced rather than modified while holding
+     * {@link #lock}
+     */
+    private static volatile Registration[] registrations = NO_REGISTRATIONS;
+
+    /**
+     * Held while performing discovery, so that it is performed once per class
+     * loader, and while replacing the registrations
+     */
+    private static final Object lock = new Object();
+
+    private RuntimeDelegateRegistry() {
+    }
+
+    /**
+     * Obtain the delegate for the supplied class loader, performing discovery
+     * if there is no cached delegate.
+     */
+    static RuntimeDelegate getDelegate(ClassLoader classLoader) {
+        Registration r = find(classLoader);
+        if (r != null)
+            return r.delegate;
+        synchronized (lock) {
+            r = find(classLoader);
+            if (r == null) {
+                long start = System.nanoTime();
+                RuntimeDelegate delegate = RuntimeDelegate.findDelegate(classLoader);
+                r = new Registration(classLoader, delegate, System.nanoTime() - start);
+                replace(classLoader, r);
+            }
+            return r.delegate;
+        }
+    }
+
+    /**
+     * Get the class of the delegate discovered for a class loader.
+     * @param classLoader the context class loader, null for threads without
+     * a context class loader
+     * @return the delegate class or null if no delegate has been discovered
+     * for the class loader
+     */
+    public static Class<? extends RuntimeDelegate> getDelegateClass(ClassLoader classLoader) {
+        Registration r = find(classLoader);
+        return r == null ? null : r.delegate.getClass();
+    }
+
+    /**
+     * Get the time taken to discover the delegate for a class loader.
+     * @param classLoader the context class loader, null for threads without
+     * a context class loader
+     * @return the discovery time in nanoseconds or -1 if no delegate has been
+     * discovered for the class loader
+     */
+    public static long getDiscoveryTime(ClassLoader classLoader) {
+        Registration r = find(classLoader);
+        return r == null ? -1 : r.discoveryTime;
+    }
+
+    /**
+     * Discard the delegate cached for a class loader, the next call to
+     * {@link RuntimeDelegate#getInstance} from a thread whose context class
+     * loader is {@code classLoader} will perform discovery again. Cached
+     * results of searching the class loader's
+     * <code>META-INF/services</code> resources are also discarded.
+     * @param classLoader the context class loader, null for threads without
+     * a context class loader
+     * @throws SecurityException if there is a security manager and the permission
+     * ReflectPermission("suppressAccessChecks") has not been granted.
+     */
+    public static void remove(ClassLoader classLoader) throws SecurityException {
+        checkPermission();
+        synchronized (lock) {
+            replace(classLoader, null);
+        }
+        FactoryFinder.clear(classLoader);
+    }
+
+    /**
+     * Discard all cached delegates and the cached results of searching for
+     * implementation classes.
+     * @throws SecurityException if there is a security manager and the permission
+     * ReflectPermission("suppressAccessChecks") has not been granted.
+     */
+    public static void clear() throws SecurityException {
+        checkPermission();
+        synchronized (lock) {
+            registrations = NO_REGISTRATIONS;
+        }
+        FactoryFinder.clear();
+    }
+
+    private static void checkPermission() {
+        SecurityManager security = System.getSecurityManager();
+        if (security != null) {
+            security.checkPermission(rp);
+        }
+    }
+
+    private static Registration find(ClassLoader classLoader) {
+        for (Registration r : registrations) {
+            if (r.isFor(classLoader))
+                return r;
+        }
+        return null;
+    }
+
+    /**
+     * Replace the registration of a class loader, dropping those of
+     * collected class loaders. Must be called while holding {@link #lock}.
+     * @param classLoader the class loader, may be null
+     * @param added the new registration, or null to remove the registration
+     */
+    private static void replace(ClassLoader classLoader, Registration added) {
+        Registration[] current = registrations;
+        Registration[] result = new Registration[current.length + 1];
+        int n = 0;
+        for (Registration r : current) {
+            if (!r.isCollected() && !r.isFor(classLoader))
+                result[n++] = r;
+        }
+        if (added != null)
+            result[n++] = added;
+        Registration[] trimmed = new Registration[n];
+        System.arraycopy(result, 0, trimmed, 0, n);
+        registrations = trimmed;
+    }
+
+    private static final class Registration {
+        /**
+         * The class loader, null for threads without a context class loader
+         */
+        private final WeakReference<ClassLoader> classLoader;
+        final RuntimeDelegate delegate;
+        final long discoveryTime;
+
+        Registration(ClassLoader classLoader, RuntimeDelegate delegate, long discoveryTime) {
+            this.classLoader = classLoader == null ? null : new WeakReference<ClassLoader>(classLoader);
+            this.delegate = delegate;
+            this.discoveryTime = discoveryTime;
+        }
+
+        boolean isFor(ClassLoader cl) {
+            if (classLoader == null)
+                return cl == null;
+            return cl != null && classLoader.get() == cl;
+        }
+
+        boolean isCollected() {
+            return classLoader != null && classLoader.get() == null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+
+/**
+ * Reference {@link RuntimeDelegate.HeaderDelegate} implementations for
+ * {@link MediaType}, {@link CacheControl}, {@link EntityTag}, {@link Cookie}
+ * and {@link NewCookie}. The delegates parse header values in a single pass
+ * over the characters of the value, without regular expressions, and are
+ * stateless and thread-safe.
+ *
+ * <p>Implementations of {@link RuntimeDelegate#createHeaderDelegate} may
+ * return these delegates. If a runtime delegate returns null for one of the
+ * above types, {@link HeaderDelegateTable} uses the corresponding reference
+ * delegate instead.</p>
+ */
+public final class StandardHeaderDelegates {
+
+    private static final HeaderDelegate<MediaType> mediaType = new MediaTypeDelegate();
+    private static final HeaderDelegate<CacheControl> cacheControl = new CacheControlDelegate();
+    private static final HeaderDelegate<EntityTag> entityTag = new EntityTagDelegate();
+    private static final HeaderDelegate<Cookie> cookie = new CookieDelegate();
+    private static final HeaderDelegate<NewCookie> newCookie = new NewCookieDelegate();
+
+    private StandardHeaderDelegates() {
+    }
+
+    /**
+     * Get the reference header delegate for the supplied class.
+     * @param type the class of the header
+     * @return the reference delegate or null if there is no reference
+     * delegate for type
+     * @throws IllegalArgumentException if type is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HeaderDelegate<T> get(Class<T> type) {
+        if (type == null)
+            throw new IllegalArgumentException("type==null");
+        if (type == MediaType.class)
+            return (HeaderDelegate<T>) mediaType;
+        if (type == CacheControl.class)
+            return (HeaderDelegate<T>) cacheControl;
+        if (type == EntityTag.class)
+            return (HeaderDelegate<T>) entityTag;
+        if (type == Cookie.class)
+            return (HeaderDelegate<T>) cookie;
+        if (type == NewCookie.class)
+            return (HeaderDelegate<T>) newCookie;
+        return null;
+    }
+}
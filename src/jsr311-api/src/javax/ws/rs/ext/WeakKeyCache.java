@@ -0,0 +1,135 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A thread-safe cache whose keys, typically classes or class loaders, are
+ * held weakly. The classes of this package use it to remember the results of
+ * reflection and discovery per class or per class loader without preventing
+ * an undeployed application from being garbage collected.
+ *
+ * <p>Values are held strongly or, if requested, softly. A value refers to
+ * its key if it refers to the key's class loader or to a class loaded by
+ * it; such a value keeps the key reachable and must be held softly, its
+ * entry is then removed once the value has been cleared by the garbage
+ * collector.</p>
+ *
+ * <p>Every operation locks the cache, so it is meant for lookups performed
+ * when an application is deployed rather than on each request.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class WeakKeyCache<K, V> {
+
+    private final Map<K, Object> map = new WeakHashMap<K, Object>();
+    private final boolean softValues;
+
+    /**
+     * Create an empty cache.
+     * @param softValues true if values are held softly, false if they are
+     * held strongly
+     */
+    WeakKeyCache(boolean softValues) {
+        this.softValues = softValues;
+    }
+
+    /**
+     * Get the value cached for a key.
+     * @param key the key, may be null
+     * @return the value or null if there is none
+     */
+    V get(K key) {
+        synchronized (map) {
+            return unwrap(map.get(key));
+        }
+    }
+
+    /**
+     * Cache a value unless a value is already cached for the key.
+     * @param key the key, may be null
+     * @param value the value
+     * @return the value now cached for the key
+     * @throws IllegalArgumentException if value is null
+     */
+    V putIfAbsent(K key, V value) {
+        if (value == null)
+            throw new IllegalArgumentException("value is null");
+        synchronized (map) {
+            V existing = unwrap(map.get(key));
+            if (existing != null)
+                value = existing;
+            else
+                map.put(key, softValues ? new SoftReference<V>(value) : value);
+            return value;
+        }
+    }
+
+    /**
+     * Remove the value cached for a key.
+     * @param key the key, may be null
+     */
+    void remove(K key) {
+        synchronized (map) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Remove all values.
+     */
+    void clear() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object value) {
+        if (softValues && value != null)
+            return ((SoftReference<V>) value).get();
+        return (V) value;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.ws.rs.ext.RuntimeDelegate;
+import junit.framework.TestCase;
+
+public class AcceptHeadersTest extends TestCase {
+
+    public AcceptHeadersTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        RuntimeDelegate.setInstance(null);
+        super.tearDown();
+    }
+
+    public void testQuality() {
+        System.out.println("testQuality");
+        assertEquals(1000, AcceptHeaders.parseQuality("1"));
+        assertEquals(1000, AcceptHeaders.parseQuality("1.000"));
+        assertEquals(500, AcceptHeaders.parseQuality("0.5"));
+        assertEquals(5, AcceptHeaders.parseQuality("0.005"));
+        assertEquals(0, AcceptHeaders.parseQuality("0."));
+        String[] invalid = {"", "2", "1.001", "0.5000", "0,5", "-0", ".5"};
+        for (String s : invalid) {
+            try {
+                AcceptHeaders.parseQuality(s);
+                fail("Expected IllegalArgumentException for " + s);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        assertEquals("0.5", AcceptHeaders.formatQuality(500));
+        assertEquals("0.05", AcceptHeaders.formatQuality(50));
+        assertEquals("0.123", AcceptHeaders.formatQuality(123));
+        assertEquals("1", AcceptHeaders.formatQuality(1000));
+    }
+
+    public void testMediaTypes() {
+        System.out.println("testMediaTypes");
+        List<AcceptableMediaType> l = AcceptHeaders.parseMediaTypes(Arrays.asList(
+                "text/*;q=0.3, text/html;q=0.7, text/html;level=1,",
+                "text/html;level=2;q=0.4, */*;q=0.5, image/png;q=0"));
+        String[] expected = {"text/html;level=1", "text/html", "*/*", "text/html;level=2",
+                "text/*", "image/png"};
+        int[] quality = {1000, 700, 500, 400, 300, 0};
+        assertEquals(expected.length, l.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(MediaType.valueOf(expected[i]), l.get(i));
+            assertEquals(quality[i], l.get(i).getQuality());
+            assertFalse(l.get(i).getParameters().containsKey("q"));
+        }
+
+        l = AcceptHeaders.parseMediaTypes(null);
+        assertEquals(1, l.size());
+        assertTrue(l.get(0).isWildcardType());
+        assertEquals(AcceptHeaders.MAX_QUALITY, l.get(0).getQuality());
+    }
+
+    public void testLanguages() {
+        System.out.println("testLanguages");
+        List<AcceptableLanguage> l = AcceptHeaders.parseLanguages(Arrays.asList(
+                "da, en-gb;q=0.8, en;q=0.7, *;q=0"));
+        assertEquals(4, l.size());
+        assertEquals(new Locale("da"), l.get(0).getLocale());
+        assertEquals(new Locale("en", "gb"), l.get(1).getLocale());
+        assertEquals(800, l.get(1).getQuality());
+        assertEquals("en;q=0.7", l.get(2).toString());
+        assertTrue(l.get(3).isWildcard());
+        assertEquals(0, l.get(3).getQuality());
+        try {
+            AcceptableLanguage.valueOf("en_GB");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testParsedOnce() {
+        System.out.println("testParsedOnce");
+        MultivaluedMap<String, String> headers = new CaseInsensitiveMultivaluedMap<String>();
+        headers.putSingle("accept", "application/xml;q=0.9, application/json, text/plain;q=0");
+        headers.putSingle("accept-language", "fr;q=0.5, en");
+        AcceptHeaders a = new AcceptHeaders(headers);
+        assertSame(a.getAcceptableMediaTypes(), a.getAcceptableMediaTypes());
+        assertEquals(2, a.getMediaTypes().size());
+        assertEquals(Arrays.asList(Locale.ENGLISH, Locale.FRENCH), a.getLocales());
+
+        Variant json = new Variant(MediaType.APPLICATION_JSON_TYPE, Locale.FRENCH, null);
+        Variant xml = new Variant(MediaType.APPLICATION_XML_TYPE, Locale.ENGLISH, null);
+        Variant text = new Variant(MediaType.TEXT_PLAIN_TYPE, Locale.ENGLISH, null);
+        assertSame(json, a.selectVariant(new VariantSelector(Arrays.asList(xml, json)), null));
+        assertNull(a.selectVariant(new VariantSelector(Arrays.asList(text)), null));
+    }
+
+    public void testExclusions() {
+        System.out.println("testExclusions");
+        MultivaluedMap<String, String> headers = new CaseInsensitiveMultivaluedMap<String>();
+        headers.putSingle("accept", "text/*, text/html;q=0");
+        AcceptHeaders a = new AcceptHeaders(headers);
+        Variant html = new Variant(MediaType.TEXT_HTML_TYPE, null, null);
+        Variant text = new Variant(MediaType.TEXT_PLAIN_TYPE, null, null);
+        assertNull(a.selectVariant(new VariantSelector(Arrays.asList(html)), null));
+        assertSame(text, a.selectVariant(new VariantSelector(Arrays.asList(html, text)), null));
+
+        headers.putSingle("accept", "*/*");
+        headers.putSingle("accept-language", "en-gb, *;q=0");
+        a = new AcceptHeaders(headers);
+        Variant en = new Variant(null, Locale.ENGLISH, null);
+        Variant gb = new Variant(null, Locale.UK, null);
+        assertNull(a.selectVariant(new VariantSelector(Arrays.asList(en)), null));
+        assertSame(gb, a.selectVariant(new VariantSelector(Arrays.asList(en, gb)), null));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class CaseInsensitiveMultivaluedMapTest extends TestCase {
+
+    public CaseInsensitiveMultivaluedMapTest(String testName) {
+        super(testName);
+    }
+
+    public void testSingleValues() {
+        System.out.println("testSingleValues");
+        MultivaluedMap<String, String> m = new CaseInsensitiveMultivaluedMap<String>();
+        m.putSingle("Content-Type", "text/plain");
+        assertEquals("text/plain", m.getFirst("content-type"));
+        assertEquals("text/plain", m.getFirst("CONTENT-TYPE"));
+        m.putSingle("content-type", "text/html");
+        assertEquals(1, m.size());
+        assertEquals("text/html", m.getFirst("Content-Type"));
+        assertEquals("Content-Type", m.keySet().iterator().next());
+        assertNull(m.getFirst("Accept"));
+        assertNull(m.get("Accept"));
+        assertFalse(m.containsKey(null));
+    }
+
+    public void testMultipleValues() {
+        System.out.println("testMultipleValues");
+        MultivaluedMap<String, String> m = new CaseInsensitiveMultivaluedMap<String>();
+        m.add("Accept", "text/html");
+        m.add("ACCEPT", "text/plain");
+        List<String> l = m.get("accept");
+        assertEquals(2, l.size());
+        assertEquals("text/html", l.get(0));
+        assertEquals("text/plain", l.get(1));
+        l.add("*/*");
+        assertEquals(3, m.get("Accept").size());
+
+        m.putSingle("Vary", "Accept");
+        List<String> vary = m.get("vary");
+        vary.add("Accept-Language");
+        assertEquals(2, m.get("Vary").size());
+        assertEquals("Accept", m.getFirst("Vary"));
+
+        List<String> replaced = m.put("Vary", new ArrayList<String>());
+        assertEquals(2, replaced.size());
+        assertNull(m.getFirst("Vary"));
+    }
+
+    public void testGrowAndRemove() {
+        System.out.println("testGrowAndRemove");
+        CaseInsensitiveMultivaluedMap<Integer> m = new CaseInsensitiveMultivaluedMap<Integer>();
+        Map<String, List<Integer>> expected = new HashMap<String, List<Integer>>();
+        for (int i = 0; i < 200; i++) {
+            m.putSingle("X-Header-" + i, i);
+            List<Integer> l = new ArrayList<Integer>();
+            l.add(i);
+            expected.put("x-header-" + i, l);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            assertEquals(Integer.valueOf(i), m.remove("x-HEADER-" + i).get(0));
+            expected.remove("x-header-" + i);
+        }
+        for (int i = 200; i < 300; i++) {
+            m.add("X-Header-" + i, i);
+            List<Integer> l = new ArrayList<Integer>();
+            l.add(i);
+            expected.put("x-header-" + i, l);
+        }
+        assertEquals(expected.size(), m.size());
+        for (Map.Entry<String, List<Integer>> e : m.entrySet()) {
+            assertEquals(expected.get(e.getKey().toLowerCase()), e.getValue());
+        }
+        int previous = -1;
+        for (Iterator<String> i = m.keySet().iterator(); i.hasNext(); ) {
+            int n = Integer.parseInt(i.next().substring("X-Header-".length()));
+            assertTrue(n > previous);
+            previous = n;
+            if (n % 3 == 0)
+                i.remove();
+        }
+        for (int i = 0; i < 300; i++) {
+            boolean present = i % 2 == 1 || i >= 200;
+            assertEquals(present && i % 3 != 0, m.containsKey("X-HEADER-" + i));
+        }
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertNull(m.getFirst("X-Header-1"));
+    }
+
+    public void testCopyConstructor() {
+        System.out.println("testCopyConstructor");
+        Map<String, List<String>> source = new HashMap<String, List<String>>();
+        List<String> l = new ArrayList<String>();
+        l.add("a");
+        l.add("b");
+        source.put("Cache-Control", l);
+        CaseInsensitiveMultivaluedMap<String> m = new CaseInsensitiveMultivaluedMap<String>(source);
+        assertEquals(l, m.get("cache-control"));
+        assertEquals(source, m);
+    }
+}
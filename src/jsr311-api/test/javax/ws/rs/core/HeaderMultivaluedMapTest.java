@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class HeaderMultivaluedMapTest extends TestCase {
+
+    public HeaderMultivaluedMapTest(String testName) {
+        super(testName);
+    }
+
+    public void testHeaderNames() throws Exception {
+        System.out.println("testHeaderNames");
+        assertEquals(HeaderNames.CONTENT_TYPE, HeaderNames.idOf(HttpHeaders.CONTENT_TYPE));
+        assertEquals(HeaderNames.CONTENT_TYPE, HeaderNames.idOf("content-TYPE"));
+        assertEquals(-1, HeaderNames.idOf("X-Custom"));
+        assertEquals(-1, HeaderNames.idOf((String) null));
+        for (int id = 0; id < HeaderNames.COUNT; id++) {
+            String name = HeaderNames.nameOf(id);
+            assertEquals(id, HeaderNames.idOf(name.toUpperCase()));
+            byte[] b = ("  " + name.toLowerCase() + ": value").getBytes("US-ASCII");
+            assertEquals(id, HeaderNames.idOf(b, 2, name.length()));
+            assertEquals(-1, HeaderNames.idOf(b, 2, name.length() - 1));
+        }
+        assertEquals(HttpHeaders.ETAG, HeaderNames.nameOf(HeaderNames.ETAG));
+        try {
+            HeaderNames.nameOf(HeaderNames.COUNT);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testKnownAndOtherHeaders() {
+        System.out.println("testKnownAndOtherHeaders");
+        HeaderMultivaluedMap<String> m = new HeaderMultivaluedMap<String>();
+        m.putSingle("X-Request-Id", "42");
+        m.putSingle("content-type", "text/plain");
+        m.add(HeaderNames.ACCEPT, "text/html");
+        m.add("ACCEPT", "*/*");
+        assertEquals(3, m.size());
+        assertEquals("text/plain", m.getFirst(HeaderNames.CONTENT_TYPE));
+        assertEquals("text/plain", m.getFirst(HttpHeaders.CONTENT_TYPE));
+        assertEquals("42", m.getFirst("x-request-id"));
+        List<String> accept = m.get(HttpHeaders.ACCEPT);
+        assertEquals(2, accept.size());
+        accept.add("text/plain");
+        assertEquals(3, m.get(HeaderNames.ACCEPT).size());
+
+        Iterator<Map.Entry<String, List<String>>> i = m.entrySet().iterator();
+        assertEquals(HttpHeaders.ACCEPT, i.next().getKey());
+        assertEquals(HttpHeaders.CONTENT_TYPE, i.next().getKey());
+        Map.Entry<String, List<String>> e = i.next();
+        assertEquals("X-Request-Id", e.getKey());
+        i.remove();
+        assertFalse(i.hasNext());
+        assertFalse(m.containsKey("X-Request-Id"));
+
+        assertEquals("text/plain", m.remove(HttpHeaders.CONTENT_TYPE).get(0));
+        assertFalse(m.containsKey(HeaderNames.CONTENT_TYPE));
+        assertEquals(1, m.size());
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertNull(m.getFirst(HeaderNames.ACCEPT));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import javax.ws.rs.ext.RuntimeDelegate;
+import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
+import junit.framework.TestCase;
+
+public class MediaTypeCacheTest extends TestCase {
+
+    private int parsed;
+
+    private final HeaderDelegate<MediaType> delegate = new HeaderDelegate<MediaType>() {
+        public MediaType fromString(String value) {
+            if (value == null)
+                throw new IllegalArgumentException("value==null");
+            parsed++;
+            int slash = value.indexOf('/');
+            return new MediaType(value.substring(0, slash), value.substring(slash+1));
+        }
+
+        public String toString(MediaType value) {
+            return value.getType() + "/" + value.getSubtype();
+        }
+    };
+
+    public MediaTypeCacheTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+        parsed = 0;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        RuntimeDelegate.setInstance(null);
+    }
+
+    public void testHit() {
+        System.out.println("testHit");
+        MediaTypeCache cache = new MediaTypeCache(4);
+        MediaType m1 = cache.get("text/plain", delegate);
+        MediaType m2 = cache.get("text/plain", delegate);
+        assertSame(m1, m2);
+        assertEquals(1, parsed);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    public void testEviction() {
+        System.out.println("testEviction");
+        MediaTypeCache cache = new MediaTypeCache(2);
+        cache.get("text/plain", delegate);
+        cache.get("text/html", delegate);
+        cache.get("text/xml", delegate);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    public void testNull() {
+        System.out.println("testNull");
+        MediaTypeCache cache = new MediaTypeCache(2);
+        try {
+            cache.get(null, delegate);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(0, cache.size());
+    }
+
+    public void testScopedToRuntimeDelegate() {
+        System.out.println("testScopedToRuntimeDelegate");
+        MediaType m = MediaType.valueOf("text/plain");
+        assertSame(m, MediaType.valueOf("text/plain"));
+        MediaTypeCache cache = MediaTypeCache.getInstance();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+        assertNotSame(cache, MediaTypeCache.getInstance());
+        assertNotSame(m, MediaType.valueOf("text/plain"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.ws.rs.ext.RuntimeDelegate;
+import junit.framework.TestCase;
+
+public class MediaTypeTest extends TestCase {
+
+    public MediaTypeTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        RuntimeDelegate.setInstance(null);
+    }
+
+    public void testEquals() {
+        System.out.println("equals");
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("Charset", "UTF-8");
+        MediaType m1 = new MediaType("Text", "Plain", params);
+        MediaType m2 = new MediaType("text", "plain", params);
+        MediaType m3 = new MediaType("text", "plain");
+        assertTrue(m1.equals(m2));
+        assertEquals(m1.hashCode(), m2.hashCode());
+        assertFalse(m1.equals(m3));
+        assertFalse(m1.equals(null));
+        assertEquals("Text", m1.getType());
+    }
+
+    public void testIsCompatible() {
+        System.out.println("isCompatible");
+        MediaType image = new MediaType("image", null);
+        MediaType png = new MediaType("Image", "PNG");
+        assertTrue(image.isWildcardSubtype());
+        assertFalse(image.isWildcardType());
+        assertTrue(image.isCompatible(png));
+        assertTrue(png.isCompatible(image));
+        assertTrue(png.isCompatible(new MediaType("image", "png")));
+        assertTrue(MediaType.WILDCARD_TYPE.isCompatible(png));
+        assertFalse(png.isCompatible(MediaType.TEXT_PLAIN_TYPE));
+        assertFalse(png.isCompatible(new MediaType("text", null)));
+        assertFalse(png.isCompatible(null));
+    }
+
+    public void testDefaultLocale() {
+        System.out.println("defaultLocale");
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            MediaType gif = new MediaType("IMAGE", "GIF");
+            assertEquals(new MediaType("image", "gif"), gif);
+            assertEquals(new MediaType("image", "gif").hashCode(), gif.hashCode());
+            assertTrue(gif.isCompatible(new MediaType("image", "gif")));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.lang.reflect.Method;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import junit.framework.TestCase;
+
+public class PathAnnotationsTest extends TestCase {
+
+    public PathAnnotationsTest(String testName) {
+        super(testName);
+    }
+
+    @Path("/customers")
+    public static class CustomerResource {
+        @GET
+        public String list() { return null; }
+
+        @Path("{id}")
+        public String get() { return null; }
+
+        @Path("{id}/orders")
+        public String orders() { return null; }
+
+        @Path("{id}/orders/{order}")
+        public String orders(String order) { return null; }
+    }
+
+    public void testClass() {
+        System.out.println("testClass");
+        assertEquals("/customers", PathAnnotations.getPath(CustomerResource.class));
+        assertNull(PathAnnotations.getPath(String.class));
+        assertEquals("/customers", PathAnnotations.getPath(CustomerResource.class));
+        try {
+            PathAnnotations.getPath((Class<?>) null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testMethod() throws Exception {
+        System.out.println("testMethod");
+        Method get = CustomerResource.class.getMethod("get");
+        assertEquals("{id}", PathAnnotations.getPath(get));
+        assertEquals("{id}", PathAnnotations.getPath(get));
+        assertNull(PathAnnotations.getPath(CustomerResource.class.getMethod("list")));
+        assertEquals("{id}", PathAnnotations.getPath(CustomerResource.class, "get"));
+        String[] invalid = {"list", "orders", "missing"};
+        for (String name : invalid) {
+            try {
+                PathAnnotations.getPath(CustomerResource.class, name);
+                fail("Expected IllegalArgumentException for " + name);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        PathAnnotations.clear();
+        assertEquals("{id}", PathAnnotations.getPath(CustomerResource.class, "get"));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class PathIndexTest extends TestCase {
+
+    public PathIndexTest(String testName) {
+        super(testName);
+    }
+
+    private static PathIndex<String> index(String... templates) {
+        PathIndex<String> index = new PathIndex<String>();
+        for (String t : templates)
+            index.add(t, t);
+        return index;
+    }
+
+    private static void assertMatch(PathIndex<String> index, String path, String template, String remainder) {
+        PathIndex.Match<String> m = index.match(path);
+        assertNotNull("No match for " + path, m);
+        assertEquals(template, m.getValue());
+        assertEquals(template, m.getTemplate());
+        assertEquals(remainder, m.getRemainder());
+    }
+
+    public void testLiteral() {
+        System.out.println("testLiteral");
+        PathIndex<String> index = index("/", "customers", "/customers/vip/", "orders");
+        assertEquals(4, index.size());
+        assertMatch(index, "/customers", "customers", "");
+        assertMatch(index, "customers/", "customers", "/");
+        assertMatch(index, "/customers/vip", "/customers/vip/", "");
+        assertMatch(index, "/customers/vip/x/y", "/customers/vip/", "/x/y");
+        assertMatch(index, "/customers/123", "customers", "/123");
+        assertMatch(index, "/customersx", "/", "/customersx");
+        assertMatch(index, "/", "/", "/");
+        assertMatch(index, "", "/", "/");
+        assertEquals("/customers", index.match("/customers/123").getMatched());
+        assertTrue(index.match("/orders").getParameters().isEmpty());
+        assertNull(index("a").match("/b"));
+        assertMatch(index("a b"), "/a%20b", "a b", "");
+    }
+
+    public void testParameters() {
+        System.out.println("testParameters");
+        PathIndex<String> index = index("customers/{id}", "customers/{id}/orders/{order}",
+                "customers/vip", "{type}/{id}/orders");
+        assertMatch(index, "/customers/vip", "customers/vip", "");
+        assertMatch(index, "/customers/12", "customers/{id}", "");
+        assertMatch(index, "/customers/12/orders", "customers/{id}", "/orders");
+        assertMatch(index, "/items/12/orders", "{type}/{id}/orders", "");
+        PathIndex.Match<String> m = index.match("/customers/12/orders/A%207/lines");
+        assertEquals("customers/{id}/orders/{order}", m.getValue());
+        assertEquals("/lines", m.getRemainder());
+        Map<String, String> p = m.getParameters();
+        assertEquals(2, p.size());
+        assertEquals("12", p.get("id"));
+        assertEquals("A%207", p.get("order"));
+        assertEquals("[id, order]", p.keySet().toString());
+        assertNull(index.match("/items"));
+        assertNull(index.match("/customers//orders"));
+    }
+
+    public void testRegex() {
+        System.out.println("testRegex");
+        PathIndex<String> index = index("customers/{id: [0-9]+}", "customers/{name}",
+                "files/{path: .+}", "files/{name}.{ext}", "{a}/{a}", "items/{id: \\d{2}(\\d)?}/{x}");
+        assertMatch(index, "/customers/12", "customers/{id: [0-9]+}", "");
+        assertMatch(index, "/customers/bob", "customers/{name}", "");
+        assertMatch(index, "/customers/12/x", "customers/{id: [0-9]+}", "/x");
+        assertEquals("12", index.match("/customers/12").getParameters().get("id"));
+        assertMatch(index, "/files/a/b.txt", "files/{path: .+}", "");
+        PathIndex.Match<String> m = index.match("/files/b.txt");
+        assertEquals("files/{name}.{ext}", m.getValue());
+        assertEquals("b", m.getParameters().get("name"));
+        assertEquals("txt", m.getParameters().get("ext"));
+        assertMatch(index, "/x/x", "{a}/{a}", "");
+        assertNull(index.match("/x/y"));
+        m = index.match("/items/123/z");
+        assertEquals("123", m.getParameters().get("id"));
+        assertEquals("z", m.getParameters().get("x"));
+    }
+
+    public void testLiteralRanking() {
+        System.out.println("testLiteralRanking");
+        // same literal characters, more parameters
+        PathIndex<String> index = index("customers", "customers{x: .*}");
+        assertMatch(index, "/customers", "customers{x: .*}", "");
+        assertTrue(index.match("/customers").getParameters().containsKey("x"));
+        // more literal characters
+        index = index("customers", "customers/{x: .*}");
+        assertMatch(index, "/customers/", "customers/{x: .*}", "");
+        assertMatch(index, "/customers", "customers", "");
+        // regular expressions that cannot match empty text do not win
+        index = index("customers", "customers{x: [0-9]+}");
+        assertMatch(index, "/customers", "customers", "");
+        assertMatch(index, "/customers12", "customers{x: [0-9]+}", "");
+    }
+
+    public void testInvalid() {
+        System.out.println("testInvalid");
+        PathIndex<String> index = index("customers/{id}", "a/{x: [0-9]+}");
+        String[] invalid = {"customers/{name}", "/customers/{id}/", "a/{y: [0-9]+}", "{", "a/{}"};
+        for (String t : invalid) {
+            try {
+                index.add(t, t);
+                fail("Expected IllegalArgumentException for " + t);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        assertEquals(2, index.size());
+        try {
+            index.match(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testManyTemplates() {
+        System.out.println("testManyTemplates");
+        PathIndex<Integer> index = new PathIndex<Integer>();
+        for (int i = 0; i < 1400; i++) {
+            index.add("resource" + i, i);
+            index.add("resource" + i + "/{id}", -i);
+        }
+        assertEquals(Integer.valueOf(700), index.match("/resource700").getValue());
+        assertEquals(Integer.valueOf(-700), index.match("/resource700/1").getValue());
+        assertEquals("1", index.match("/resource700/1").getParameters().get("id"));
+    }
+}
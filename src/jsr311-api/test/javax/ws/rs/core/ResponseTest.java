@@ -0,0 +1,76 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Response.Status.Family;
+import junit.framework.TestCase;
+
+public class ResponseTest extends TestCase {
+
+    public ResponseTest(String testName) {
+        super(testName);
+    }
+
+    public void testFromStatusCode() {
+        System.out.println("fromStatusCode");
+        for (Status s : Status.values()) {
+            assertSame(s, Status.fromStatusCode(s.getStatusCode()));
+        }
+        assertNull(Status.fromStatusCode(299));
+        assertNull(Status.fromStatusCode(99));
+        assertNull(Status.fromStatusCode(600));
+        assertNull(Status.fromStatusCode(-1));
+    }
+
+    public void testFamilyOf() {
+        System.out.println("familyOf");
+        assertEquals(Family.INFORMATIONAL, Family.familyOf(100));
+        assertEquals(Family.SUCCESSFUL, Family.familyOf(299));
+        assertEquals(Family.REDIRECTION, Family.familyOf(304));
+        assertEquals(Family.CLIENT_ERROR, Family.familyOf(418));
+        assertEquals(Family.SERVER_ERROR, Family.familyOf(599));
+        assertEquals(Family.OTHER, Family.familyOf(99));
+        assertEquals(Family.OTHER, Family.familyOf(600));
+        assertEquals(Family.OTHER, Family.familyOf(-200));
+        assertEquals(Family.CLIENT_ERROR, Status.NOT_FOUND.getFamily());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class UriBuilderTest extends TestCase {
+
+    public UriBuilderTest(String testName) {
+        super(testName);
+    }
+
+    public void testBuildString() throws Exception {
+        System.out.println("testBuildString");
+        UriBuilder b = new TemplateUriBuilder("/orders/{id}", true);
+        assertEquals("/orders/a%20b", b.buildString("a b"));
+        assertEquals("/orders/1",
+                b.buildStringFromMap(Collections.singletonMap("id", 1)));
+        StringBuilder sb = new StringBuilder("<");
+        assertSame(sb, b.appendTo(sb, 2));
+        assertEquals("</orders/2", sb.toString());
+        StringWriter w = new StringWriter();
+        b.appendTo(w, 3).append('>');
+        assertEquals("/orders/3>", w.toString());
+    }
+
+    public void testFallback() throws Exception {
+        System.out.println("testFallback");
+        UriBuilder b = new TemplateUriBuilder("/orders/{id}", false);
+        assertEquals("/built", b.buildString("a b"));
+        assertEquals("/built", b.buildStringFromMap(Collections.singletonMap("id", 1)));
+        assertEquals("/built", b.appendTo(new StringBuilder(), 2).toString());
+    }
+
+    public void testBuildAll() {
+        System.out.println("testBuildAll");
+        Object[][] tuples = {{1}, {"a b"}};
+        UriBuffer buffer = new TemplateUriBuilder("/orders/{id}", true).buildAll(Arrays.asList(tuples), null);
+        assertEquals(Arrays.asList("/orders/1", "/orders/a%20b"), buffer);
+        buffer = new TemplateUriBuilder("/orders/{id}", false).buildAll(Arrays.asList(tuples), buffer);
+        assertEquals(Arrays.asList("/orders/1", "/orders/a%20b", "/built", "/built"), buffer);
+    }
+
+    /**
+     * Minimal builder whose build methods return a fixed URI so the tests can
+     * tell whether the compiled template or the fallback was used.
+     */
+    private static class TemplateUriBuilder extends UriBuilder {
+        private final String template;
+        private final boolean compiled;
+
+        TemplateUriBuilder(String template, boolean compiled) {
+            this.template = template;
+            this.compiled = compiled;
+        }
+
+        @Override
+        public UriTemplate toUriTemplate() {
+            return compiled ? UriTemplate.compile(template) : null;
+        }
+
+        @Override
+        public URI buildFromMap(Map<String, ? extends Object> values) {
+            return URI.create("/built");
+        }
+
+        @Override
+        public URI buildFromEncodedMap(Map<String, ? extends Object> values) {
+            return URI.create("/built");
+        }
+
+        @Override
+        public URI build(Object... values) {
+            return URI.create("/built");
+        }
+
+        @Override
+        public URI buildFromEncoded(Object... values) {
+            return URI.create("/built");
+        }
+
+        @Override
+        public UriBuilder clone() {
+            return new TemplateUriBuilder(template, compiled);
+        }
+
+        @Override
+        public UriBuilder uri(URI uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder scheme(String scheme) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder schemeSpecificPart(String ssp) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder userInfo(String ui) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder host(String host) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder port(int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder replacePath(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder path(String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder path(Class resource) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder path(Class resource, String method) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder path(Method method) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder segment(String... segments) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder replaceMatrix(String matrix) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder matrixParam(String name, Object... values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder replaceMatrixParam(String name, Object... values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder replaceQuery(String query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder queryParam(String name, Object... values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder replaceQueryParam(String name, Object... values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UriBuilder fragment(String fragment) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
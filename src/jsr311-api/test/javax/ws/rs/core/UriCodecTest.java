@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import javax.ws.rs.core.UriCodec.Component;
+import junit.framework.TestCase;
+
+public class UriCodecTest extends TestCase {
+
+    public UriCodecTest(String testName) {
+        super(testName);
+    }
+
+    public void testEncode() {
+        System.out.println("testEncode");
+        String plain = "customers/123;v=1";
+        assertSame(plain, UriCodec.encode(plain, Component.PATH));
+        assertEquals("customers%2F123;v=1", UriCodec.encode(plain, Component.PATH_SEGMENT));
+        assertEquals("a%3Bb%3Dc", UriCodec.encode("a;b=c", Component.MATRIX_PARAM));
+        assertEquals("a+b%26c%3Dd%2Be", UriCodec.encode("a b&c=d+e", Component.QUERY_PARAM));
+        assertEquals("a%20b&c=d", UriCodec.encode("a b&c=d", Component.QUERY));
+        assertEquals("100%25", UriCodec.encode("100%", Component.PATH));
+        assertEquals("%2541", UriCodec.encode("%41", Component.PATH));
+        assertEquals("%41%20", UriCodec.contextualEncode("%41 ", Component.PATH));
+        assertEquals("%25", UriCodec.contextualEncode("%", Component.PATH));
+        assertEquals("caf%C3%A9%E2%82%AC%F0%9F%98%80",
+                UriCodec.encode("caf\u00e9\u20ac\ud83d\ude00", Component.PATH));
+        assertEquals("%EF%BF%BD", UriCodec.encode("\ud83d", Component.PATH));
+        StringBuilder b = UriCodec.encode(new StringBuilder(">"), "x y z", 1, 4, Component.PATH, false);
+        assertEquals(">%20y%20", b.toString());
+    }
+
+    public void testDecode() {
+        System.out.println("testDecode");
+        String plain = "a+b/c";
+        assertSame(plain, UriCodec.decode(plain));
+        assertEquals("a b/c", UriCodec.decode(plain, Component.QUERY_PARAM));
+        assertEquals("a+b c", UriCodec.decode("a+b%20c", Component.PATH));
+        assertEquals("caf\u00e9\u20ac\ud83d\ude00",
+                UriCodec.decode("caf%C3%A9%e2%82%ac%F0%9F%98%80"));
+        assertEquals("\ufffdx", UriCodec.decode("%C3x"));
+        assertEquals("\ufffd\ufffd", UriCodec.decode("%C3%FF"));
+        assertEquals("\ufffd", UriCodec.decode("%E2%82"));
+        assertEquals("q=a b", UriCodec.decode("?q=a+b&r=1", 1, 6, true));
+        assertEquals("b c", UriCodec.decode(new StringBuilder("a=b%20c"), 2, 7, false));
+        assertEquals("[b c", UriCodec.decode(new StringBuilder("["), "a=b+c", 2, 5, true).toString());
+        String[] invalid = {"%", "%4", "%4g", "a%zz"};
+        for (String s : invalid) {
+            try {
+                UriCodec.decode(s);
+                fail("Expected IllegalArgumentException for " + s);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        try {
+            UriCodec.decode("abc", 2, 4, false);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+public class UriTemplateTest extends TestCase {
+
+    public UriTemplateTest(String testName) {
+        super(testName);
+    }
+
+    public void testCompile() {
+        System.out.println("testCompile");
+        UriTemplate t = UriTemplate.compile("/customers/{id: [0-9]{1,6}}/orders/{order}/{id}");
+        assertSame(t, UriTemplate.compile("/customers/{id: [0-9]{1,6}}/orders/{order}/{id}"));
+        assertEquals(Arrays.asList("id", "order"), t.getNames());
+        assertEquals("[0-9]{1,6}", t.getRegex(0));
+        assertNull(t.getRegex(1));
+        assertEquals("/customers/12/orders/a%20b/12", t.expand(12, "a b", "ignored"));
+        try {
+            UriTemplate.compile("/customers/{id");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            t.expand(12);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            t.expand(12, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testComponents() {
+        System.out.println("testComponents");
+        UriTemplate t = UriTemplate.compile("http://{host}:8080/a b/{path}?q={q}&r=1#{frag}");
+        assertEquals("http://ex%2Fample:8080/a%20b/x/y%23z?q=a+b%26c%3Dd&r=1#f/?%23",
+                t.expand("ex/ample", "x/y#z", "a b&c=d", "f/?#"));
+        assertEquals(URI.create("http://h:8080/a%20b/%25?q=%2541&r=1#f"),
+                t.build("h", "%", "%41", "f"));
+        assertEquals("http://h:8080/a%20b/%41?q=%41&r=1#f", t.expandEncoded("h", "%41", "%41", "f"));
+        assertEquals("/p?q=a+b%26c%3Dd%2Be", UriTemplate.compile("/p?q={q}").expand("a b&c=d+e"));
+        assertEquals("/p?a+b%26c=%3D", UriTemplate.compile("/p?{name}={value}").expand("a b&c", "="));
+        assertEquals("/p?a%20b&c=d+e#f", UriTemplate.compile("/p?{query}#f").expand("a b&c=d+e"));
+        assertEquals("/p?a=1&b=2", UriTemplate.compile("/p?{query}").expand("a=1&b=2"));
+        assertEquals("/caf%C3%A9/%F0%9F%98%80",
+                UriTemplate.compile("/{a}/{b}").expand("caf\u00e9", "\ud83d\ude00"));
+    }
+
+    public void testMap() {
+        System.out.println("testMap");
+        UriTemplate t = UriTemplate.compile("{a}/{b}/{a}");
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("a", "x");
+        values.put("b", 1);
+        assertEquals("x/1/x", t.expandFromMap(values));
+        StringBuilder b = new StringBuilder("<");
+        t.appendFromMap(b, false, values).append('>');
+        assertEquals("<x/1/x>", b.toString());
+        values.remove("b");
+        try {
+            t.expandFromMap(values);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testExpandAll() throws Exception {
+        System.out.println("testExpandAll");
+        UriTemplate t = UriTemplate.compile("/orders/{id}/items/{item}");
+        List<Object[]> tuples = new ArrayList<Object[]>();
+        tuples.add(new Object[] {1, "a"});
+        tuples.add(new Object[] {2, "b c"});
+        UriBuffer buffer = t.expandAll(tuples, null);
+        assertEquals(Arrays.asList("/orders/1/items/a", "/orders/2/items/b%20c"), buffer);
+        assertEquals("/orders/1/items/a/orders/2/items/b%20c", buffer.getBuffer().toString());
+        assertEquals(17, buffer.start(1));
+        assertEquals("[/orders/2/items/b%20c]", buffer.appendTo(1, new StringBuilder("[")).append(']').toString());
+
+        tuples.add(new Object[] {3, null});
+        try {
+            t.expandAll(tuples, buffer);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(4, buffer.size());
+        assertEquals("/orders/2/items/b%20c", buffer.get(3));
+
+        buffer.clear();
+        UriTemplate single = UriTemplate.compile("/orders/{id}#{id}");
+        assertSame(buffer, single.expandEach(Arrays.<Object>asList(7, "x/y"), buffer));
+        assertEquals(Arrays.asList("/orders/7#7", "/orders/x/y#x/y"), buffer);
+        try {
+            t.expandEach(Arrays.asList(1), buffer);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
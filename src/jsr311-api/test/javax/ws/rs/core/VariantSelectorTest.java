@@ -0,0 +1,129 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.ws.rs.ext.RuntimeDelegate;
+import junit.framework.TestCase;
+
+public class VariantSelectorTest extends TestCase {
+
+    private Variant jsonEn;
+    private Variant xmlEn;
+    private Variant xmlFr;
+    private Variant html;
+    private Variant htmlGzip;
+
+    public VariantSelectorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+        jsonEn = new Variant(new MediaType("application", "json"), Locale.ENGLISH, null);
+        xmlEn = new Variant(new MediaType("application", "xml"), Locale.ENGLISH, null);
+        xmlFr = new Variant(new MediaType("application", "xml"), Locale.FRENCH, null);
+        html = new Variant(new MediaType("text", "html"), null, null);
+        htmlGzip = new Variant(new MediaType("text", "html"), null, "gzip");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        RuntimeDelegate.setInstance(null);
+    }
+
+    private static List<MediaType> accept(MediaType... types) {
+        return Arrays.asList(types);
+    }
+
+    public void testMediaType() {
+        System.out.println("testMediaType");
+        VariantSelector s = new VariantSelector(Arrays.asList(jsonEn, xmlEn, html));
+        assertSame(xmlEn, s.select(accept(new MediaType("Application", "XML")), null, null));
+        assertSame(jsonEn, s.select(accept(new MediaType("application", null)), null, null));
+        assertSame(html, s.select(accept(MediaType.TEXT_PLAIN_TYPE, new MediaType("text", "html"),
+                MediaType.APPLICATION_JSON_TYPE), null, null));
+        assertSame(jsonEn, s.select(null, null, null));
+        assertNull(s.select(accept(MediaType.TEXT_PLAIN_TYPE), null, null));
+    }
+
+    public void testLanguage() {
+        System.out.println("testLanguage");
+        VariantSelector s = new VariantSelector(Arrays.asList(xmlEn, xmlFr));
+        assertSame(xmlFr, s.select(null, Arrays.asList(Locale.FRANCE, Locale.FRENCH), null));
+        assertSame(xmlFr, s.select(null, Arrays.asList(Locale.GERMAN, Locale.FRENCH), null));
+        assertSame(xmlEn, s.select(null, Arrays.asList(new Locale("*")), null));
+        assertNull(s.select(null, Arrays.asList(Locale.GERMAN), null));
+    }
+
+    public void testEncodingAndExplicitness() {
+        System.out.println("testEncodingAndExplicitness");
+        VariantSelector s = new VariantSelector(Arrays.asList(html, htmlGzip));
+        assertSame(htmlGzip, s.select(null, null, Collections.<String>emptyList()));
+        assertSame(htmlGzip, s.select(null, null, Arrays.asList("GZIP")));
+        assertSame(html, s.select(null, null, Arrays.asList("deflate")));
+    }
+
+    public void testVary() {
+        System.out.println("testVary");
+        assertEquals("Accept,Accept-Language",
+                new VariantSelector(Arrays.asList(jsonEn, xmlFr)).getVary());
+        assertEquals("Accept-Encoding",
+                new VariantSelector(Arrays.asList(html, htmlGzip)).getVary());
+        assertNull(new VariantSelector(Arrays.asList(html)).getVary());
+    }
+
+    public void testEmpty() {
+        System.out.println("testEmpty");
+        try {
+            new VariantSelector(new ArrayList<Variant>());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import junit.framework.TestCase;
+
+public class CachingProvidersTest extends TestCase {
+
+    private static class StringReader implements MessageBodyReader<String> {
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == String.class;
+        }
+
+        public String readFrom(Class<String> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                MultivaluedMap<String, String> httpHeaders, InputStream entityStream) {
+            return null;
+        }
+    }
+
+    private static class CountingProviders implements Providers {
+        int lookups;
+        CachingProviders invalidated;
+        final MessageBodyReader<String> reader = new StringReader();
+
+        @SuppressWarnings("unchecked")
+        public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            lookups++;
+            return reader.isReadable(type, genericType, annotations, mediaType) ? (MessageBodyReader<T>) reader : null;
+        }
+
+        public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            lookups++;
+            if (invalidated != null)
+                invalidated.invalidate();
+            return null;
+        }
+
+        public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+            lookups++;
+            return null;
+        }
+
+        public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+            lookups++;
+            return null;
+        }
+    }
+
+    public CachingProvidersTest(String testName) {
+        super(testName);
+    }
+
+    public void testReader() {
+        System.out.println("testReader");
+        CountingProviders p = new CountingProviders();
+        CachingProviders c = new CachingProviders(p);
+        Annotation[] none = new Annotation[0];
+        assertSame(p.reader, c.getMessageBodyReader(String.class, String.class, none, null));
+        assertSame(p.reader, c.getMessageBodyReader(String.class, String.class, new Annotation[0], null));
+        assertEquals(1, p.lookups);
+        assertNull(c.getMessageBodyReader(Integer.class, Integer.class, none, null));
+        assertNull(c.getMessageBodyReader(Integer.class, Integer.class, none, null));
+        assertEquals(2, p.lookups);
+        c.invalidate();
+        c.getMessageBodyReader(String.class, String.class, none, null);
+        assertEquals(3, p.lookups);
+    }
+
+    public void testCapacity() {
+        System.out.println("testCapacity");
+        CountingProviders p = new CountingProviders();
+        CachingProviders c = new CachingProviders(p, 1);
+        c.getExceptionMapper(RuntimeException.class);
+        c.getExceptionMapper(Exception.class);
+        c.getExceptionMapper(Exception.class);
+        assertEquals(2, p.lookups);
+        c.getExceptionMapper(RuntimeException.class);
+        assertEquals(3, p.lookups);
+    }
+
+    public void testInvalidateDuringLookup() {
+        System.out.println("testInvalidateDuringLookup");
+        CountingProviders p = new CountingProviders();
+        CachingProviders c = new CachingProviders(p);
+        p.invalidated = c;
+        c.getMessageBodyWriter(String.class, String.class, null, null);
+        c.getMessageBodyWriter(String.class, String.class, null, null);
+        assertEquals(2, p.lookups);
+        p.invalidated = null;
+        c.getMessageBodyWriter(String.class, String.class, null, null);
+        c.getMessageBodyWriter(String.class, String.class, null, null);
+        assertEquals(3, p.lookups);
+    }
+
+    public void testAnnotationIdentity() {
+        System.out.println("testAnnotationIdentity");
+        CountingProviders p = new CountingProviders();
+        CachingProviders c = new CachingProviders(p);
+        Annotation[] deprecated = Deprecated1.class.getAnnotations();
+        c.getMessageBodyReader(String.class, String.class, deprecated, null);
+        c.getMessageBodyReader(String.class, String.class, deprecated.clone(), null);
+        assertEquals(1, p.lookups);
+        // equal but distinct annotation instances are cached separately
+        c.getMessageBodyReader(String.class, String.class, Deprecated2.class.getAnnotations(), null);
+        assertEquals(2, p.lookups);
+    }
+
+    @Deprecated
+    private static class Deprecated1 { }
+
+    @Deprecated
+    private static class Deprecated2 { }
+}
@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import javax.ws.rs.core.RuntimeDelegateStub;
+import junit.framework.TestCase;
+
+public class FactoryFinderTest extends TestCase {
+
+    private static final String FACTORY_ID = "javax.ws.rs.ext.FactoryFinderTest";
+
+    private File dir;
+    private File service;
+
+    public FactoryFinderTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = File.createTempFile("factoryfinder", "");
+        dir.delete();
+        File services = new File(dir, "META-INF/services");
+        services.mkdirs();
+        service = new File(services, FACTORY_ID);
+        FileWriter w = new FileWriter(service);
+        w.write(RuntimeDelegateStub.class.getName());
+        w.close();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        service.delete();
+        service.getParentFile().delete();
+        service.getParentFile().getParentFile().delete();
+        dir.delete();
+        FactoryFinder.clear();
+    }
+
+    public void testCachedLookup() throws Exception {
+        System.out.println("testCachedLookup");
+        ClassLoader cl = new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                getClass().getClassLoader());
+        Object o = FactoryFinder.find(FACTORY_ID, null, cl);
+        assertTrue(o instanceof RuntimeDelegateStub);
+
+        // the service file is not read again
+        service.delete();
+        o = FactoryFinder.find(FACTORY_ID, null, cl);
+        assertTrue(o instanceof RuntimeDelegateStub);
+
+        // the missing service file is remembered after clearing
+        FactoryFinder.clear(cl);
+        try {
+            FactoryFinder.find(FACTORY_ID, null, cl);
+            fail("Expected ClassNotFoundException");
+        } catch (ClassNotFoundException e) {
+        }
+        o = FactoryFinder.find(FACTORY_ID, Object.class.getName(), cl);
+        assertEquals(Object.class, o.getClass());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.RuntimeDelegateStub;
+import junit.framework.TestCase;
+
+public class HeaderDelegateTableTest extends TestCase {
+
+    private static class EntityTagDelegate implements RuntimeDelegate.HeaderDelegate<EntityTag> {
+        public EntityTag fromString(String value) {
+            return new EntityTag(value);
+        }
+
+        public String toString(EntityTag value) {
+            return value.getValue();
+        }
+    }
+
+    private static class CountingRuntimeDelegate extends RuntimeDelegateStub {
+        int created;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> HeaderDelegate<T> createHeaderDelegate(Class<T> type) {
+            created++;
+            if (type == EntityTag.class)
+                return (HeaderDelegate<T>) new EntityTagDelegate();
+            return null;
+        }
+    }
+
+    public HeaderDelegateTableTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        RuntimeDelegate.setInstance(null);
+    }
+
+    public void testCreatedOnce() {
+        System.out.println("testCreatedOnce");
+        CountingRuntimeDelegate rd = new CountingRuntimeDelegate();
+        RuntimeDelegate.setInstance(rd);
+        assertEquals(0, rd.created);
+        assertEquals("foo", EntityTag.valueOf("foo").getValue());
+        assertEquals("foo", new EntityTag("foo").toString());
+        assertEquals(1, rd.created);
+        assertSame(HeaderDelegateTable.getHeaderDelegate(EntityTag.class),
+                HeaderDelegateTable.getHeaderDelegate(EntityTag.class));
+        assertNull(HeaderDelegateTable.getHeaderDelegate(String.class));
+        assertNull(HeaderDelegateTable.getHeaderDelegate(String.class));
+        assertEquals(3, rd.created);
+    }
+
+    public void testSwap() {
+        System.out.println("testSwap");
+        CountingRuntimeDelegate rd1 = new CountingRuntimeDelegate();
+        CountingRuntimeDelegate rd2 = new CountingRuntimeDelegate();
+        RuntimeDelegate.setInstance(rd1);
+        RuntimeDelegate.HeaderDelegate<EntityTag> d1 = HeaderDelegateTable.getHeaderDelegate(EntityTag.class);
+        RuntimeDelegate.setInstance(rd2);
+        RuntimeDelegate.HeaderDelegate<EntityTag> d2 = HeaderDelegateTable.getHeaderDelegate(EntityTag.class);
+        assertNotSame(d1, d2);
+        assertEquals(1, rd1.created);
+        assertEquals(1, rd2.created);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import junit.framework.TestCase;
+
+public class InvokerFactoryTest extends TestCase {
+
+    public InvokerFactoryTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        InvokerFactory.setInstance(null);
+        super.tearDown();
+    }
+
+    public static class Resource {
+        public String get() {
+            return "get";
+        }
+
+        public String echo(String s) {
+            return s;
+        }
+
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public String join(String a, String b, String c, String d) {
+            return a + b + c + d;
+        }
+
+        public void put(String s) throws IOException {
+            throw new IOException(s);
+        }
+
+        public void fail() {
+            throw new AssertionError("fail");
+        }
+    }
+
+    public static class SubResource extends Resource {
+    }
+
+    static class PackageResource {
+        public String get() {
+            return "package";
+        }
+    }
+
+    private static MethodInvoker invoker(String name) {
+        for (Method m : Resource.class.getMethods()) {
+            if (m.getName().equals(name))
+                return InvokerFactory.getInstance().createInvoker(SubResource.class, m);
+        }
+        throw new AssertionError(name);
+    }
+
+    public void testGetInstance() {
+        System.out.println("testGetInstance");
+        InvokerFactory f = InvokerFactory.getInstance();
+        assertEquals(DefaultInvokerFactory.class, f.getClass());
+        assertSame(f, InvokerFactory.getInstance());
+        InvokerFactory other = new DefaultInvokerFactory();
+        InvokerFactory.setInstance(other);
+        assertSame(other, InvokerFactory.getInstance());
+    }
+
+    public void testReflectiveInvoker() throws Exception {
+        System.out.println("testReflectiveInvoker");
+        Resource r = new SubResource();
+        assertEquals("get", invoker("get").invoke(r));
+        assertEquals("get", invoker("get").invokeWithArguments(r, new Object[0]));
+        assertEquals("x", invoker("echo").invoke(r, "x"));
+        assertEquals(Integer.valueOf(5), invoker("add").invoke(r, 2, 3));
+        assertEquals(Integer.valueOf(5), invoker("add").invokeWithArguments(r, new Object[] {2, 3}));
+        assertEquals("abcd", invoker("join").invokeWithArguments(r, new Object[] {"a", "b", "c", "d"}));
+        assertEquals("abcd", invoker("join").invoke(r, "a", "b", "c", "d"));
+        assertEquals("echo", invoker("echo").getMethod().getName());
+        try {
+            invoker("put").invoke(r, "io");
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("io", e.getMessage());
+        }
+        try {
+            invoker("fail").invoke(r);
+            fail("Expected AssertionError");
+        } catch (AssertionError e) {
+            assertEquals("fail", e.getMessage());
+        }
+        try {
+            invoker("add").invoke(r, 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testAccessible() throws Exception {
+        System.out.println("testAccessible");
+        Method get = PackageResource.class.getMethod("get");
+        MethodInvoker invoker = InvokerFactory.getInstance().createInvoker(PackageResource.class, get);
+        assertEquals("package", invoker.invoke(new PackageResource()));
+        assertSame(get, invoker.getMethod());
+        assertFalse(get.isAccessible());
+    }
+
+    public void testInvalid() throws Exception {
+        System.out.println("testInvalid");
+        InvokerFactory f = InvokerFactory.getInstance();
+        Method get = Resource.class.getMethod("get");
+        try {
+            f.createInvoker(String.class, get);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            f.createInvoker(Resource.class, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
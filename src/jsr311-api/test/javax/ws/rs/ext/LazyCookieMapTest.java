@@ -0,0 +1,101 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.Cookie;
+import junit.framework.TestCase;
+
+public class LazyCookieMapTest extends TestCase {
+
+    public LazyCookieMapTest(String testName) {
+        super(testName);
+    }
+
+    public void testGet() {
+        System.out.println("testGet");
+        LazyCookieMap m = new LazyCookieMap(
+                "$Version=1; a=1; $Path=/; session=\"x;y\\\"z\"; $Domain=.example.com; $Path=/app; b=2");
+        Cookie c = m.get("session");
+        assertEquals(new Cookie("session", "x;y\"z", "/app", ".example.com", 1), c);
+        assertSame(c, m.get("session"));
+        assertEquals(new Cookie("a", "1", "/", null, 1), m.get("a"));
+        assertEquals(new Cookie("b", "2", null, null, 1), m.get("b"));
+        assertNull(m.get("$Path"));
+        assertNull(m.get("missing"));
+        assertFalse(m.containsKey("missing"));
+        assertTrue(m.containsKey("b"));
+    }
+
+    public void testAll() {
+        System.out.println("testAll");
+        List<String> headers = new ArrayList<String>();
+        headers.add("a=1; b=2");
+        headers.add("$Version=0; b=3, c=\"4\"");
+        LazyCookieMap m = new LazyCookieMap(headers);
+        assertEquals(new Cookie("c", "4", null, null, 0), m.get("c"));
+        assertEquals(3, m.size());
+        Iterator<Map.Entry<String, Cookie>> i = m.entrySet().iterator();
+        assertEquals("a", i.next().getKey());
+        Map.Entry<String, Cookie> b = i.next();
+        assertEquals("b", b.getKey());
+        assertEquals("2", b.getValue().getValue());
+        assertEquals("c", i.next().getKey());
+        assertFalse(i.hasNext());
+        try {
+            m.entrySet().clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    public void testMalformed() {
+        System.out.println("testMalformed");
+        LazyCookieMap m = new LazyCookieMap("a=1; b=\"unterminated; c=3");
+        assertEquals("1", m.get("a").getValue());
+        assertNull(m.get("c"));
+        assertEquals(1, m.size());
+        assertTrue(new LazyCookieMap(new ArrayList<String>()).isEmpty());
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedSet;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.CaseInsensitiveMultivaluedMap;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.RuntimeDelegateStub;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.ResourceModel.Parameter;
+import javax.ws.rs.ext.ResourceModel.Parameter.Source;
+import junit.framework.TestCase;
+
+public class ParamExtractorTest extends TestCase {
+
+    public ParamExtractorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub() {
+            @Override
+            public ResponseBuilder createResponseBuilder() {
+                return new StatusResponseBuilder();
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        RuntimeDelegate.setInstance(null);
+        super.tearDown();
+    }
+
+    public enum Color {
+        RED, GREEN
+    }
+
+    public enum Size {
+        SMALL, LARGE;
+
+        public static Size fromString(String s) {
+            return valueOf(s.toUpperCase());
+        }
+    }
+
+    public static class Name {
+        final String value;
+
+        public Name(String value) {
+            if (value.length() == 0)
+                throw new IllegalArgumentException("empty");
+            this.value = value;
+        }
+    }
+
+    public static class Code {
+        final String value;
+
+        private Code(String value) {
+            this.value = value;
+        }
+
+        public static Code valueOf(String value) {
+            if (value.equals("gone"))
+                throw new WebApplicationException(410);
+            return new Code(value);
+        }
+    }
+
+    public static class Tags {
+        public List<String> list;
+        public Set<Color> set;
+        public SortedSet<Integer> sorted;
+        public List<Name> names;
+        public List<?> wildcard;
+        public List<List<String>> nested;
+    }
+
+    private static Type type(String field) throws Exception {
+        return Tags.class.getField(field).getGenericType();
+    }
+
+    private static List<String> values(String... values) {
+        return Arrays.asList(values);
+    }
+
+    private static void assertStatus(ParamExtractor<?> e, List<String> values, int status) {
+        try {
+            e.extract(values);
+            fail("Expected WebApplicationException");
+        } catch (WebApplicationException ex) {
+            assertEquals(status, ex.getResponse().getStatus());
+        }
+    }
+
+    public void testSingle() throws Exception {
+        System.out.println("testSingle");
+        assertEquals("a", ParamExtractor.create(String.class, null, 404).extract(values("a", "b")));
+        assertNull(ParamExtractor.create(String.class, null, 404).extract(null));
+        assertEquals("d", ParamExtractor.create(String.class, "d", 404).extract(values()));
+        assertEquals(Integer.valueOf(0), ParamExtractor.create(int.class, null, 404).extract(null));
+        assertEquals(Integer.valueOf(7), ParamExtractor.create(int.class, "7", 404).extract(null));
+        assertEquals(Integer.valueOf(12), ParamExtractor.create(int.class, "7", 404).extract(values(" 12")));
+        assertNull(ParamExtractor.create(Integer.class, null, 404).extract(null));
+        assertEquals(Boolean.FALSE, ParamExtractor.create(boolean.class, null, 404).extract(null));
+        assertEquals(Boolean.TRUE, ParamExtractor.create(boolean.class, null, 404).extract(values("TRUE")));
+        assertEquals(Character.valueOf('x'), ParamExtractor.create(char.class, null, 404).extract(values("x")));
+        assertEquals(Double.valueOf(1.5), ParamExtractor.create(double.class, null, 404).extract(values("1.5")));
+        assertEquals(new BigDecimal("1.50"), ParamExtractor.create(BigDecimal.class, null, 404).extract(values("1.50")));
+        assertSame(Color.GREEN, ParamExtractor.create(Color.class, "RED", 404).extract(values("GREEN")));
+        assertSame(Color.RED, ParamExtractor.create(Color.class, "RED", 404).extract(null));
+        assertSame(Size.LARGE, ParamExtractor.create(Size.class, null, 404).extract(values("large")));
+        assertEquals("bob", ((Name) ParamExtractor.create(Name.class, null, 404).extract(values("bob"))).value);
+        assertEquals("x", ((Code) ParamExtractor.create(Code.class, null, 404).extract(values("x"))).value);
+        assertEquals(URI.create("a/b"), ParamExtractor.create(URI.class, null, 404).extract(values("a/b")));
+
+        // a default of a type that may be mutable is not shared
+        ParamExtractor<?> e = ParamExtractor.create(Name.class, "anon", 404);
+        Object first = e.extract(null);
+        assertEquals("anon", ((Name) first).value);
+        assertNotSame(first, e.extract(null));
+        // a default of an immutable type is
+        e = ParamExtractor.create(Long.class, "5", 404);
+        assertSame(e.extract(null), e.extract(null));
+
+        MultivaluedMap<String, String> params = new CaseInsensitiveMultivaluedMap<String>();
+        params.add("id", "3");
+        assertEquals(Integer.valueOf(3), ParamExtractor.create(int.class, null, 404).extract(params, "id"));
+        assertEquals(Integer.valueOf(0), ParamExtractor.create(int.class, null, 404).extract(params, "other"));
+    }
+
+    public void testCollections() throws Exception {
+        System.out.println("testCollections");
+        ParamExtractor<?> e = ParamExtractor.create(type("list"), null, 404);
+        assertEquals(Arrays.asList("b", "a", "b"), e.extract(values("b", "a", "b")));
+        assertEquals(Collections.emptyList(), e.extract(null));
+        try {
+            ((List<?>) e.extract(values("a"))).clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+        }
+        assertEquals(Arrays.asList("x"), ParamExtractor.create(type("list"), "x", 404).extract(null));
+        assertEquals(Arrays.asList("a"), ParamExtractor.create(List.class, null, 404).extract(values("a")));
+
+        Set<?> set = (Set<?>) ParamExtractor.create(type("set"), null, 404).extract(values("GREEN", "RED", "GREEN"));
+        assertEquals("[GREEN, RED]", set.toString());
+        SortedSet<?> sorted = (SortedSet<?>) ParamExtractor.create(type("sorted"), "1", 404).extract(values("3", "2"));
+        assertEquals("[2, 3]", sorted.toString());
+        assertEquals("[1]", ParamExtractor.create(type("sorted"), "1", 404).extract(null).toString());
+
+        e = ParamExtractor.create(type("names"), "anon", 404);
+        List<?> names = (List<?>) e.extract(null);
+        assertEquals("anon", ((Name) names.get(0)).value);
+        assertNotSame(names.get(0), ((List<?>) e.extract(null)).get(0));
+        assertEquals(Arrays.asList("a"), ParamExtractor.create(type("wildcard"), null, 404).extract(values("a")));
+    }
+
+    public void testErrors() throws Exception {
+        System.out.println("testErrors");
+        assertStatus(ParamExtractor.create(int.class, null, 404), values("x"), 404);
+        assertStatus(ParamExtractor.create(Color.class, null, 400), values("BLUE"), 400);
+        assertStatus(ParamExtractor.create(Name.class, null, 404), values(""), 404);
+        assertStatus(ParamExtractor.create(type("sorted"), null, 404), values("1", "x"), 404);
+        // a WebApplicationException thrown by the conversion is propagated
+        assertStatus(ParamExtractor.create(Code.class, null, 404), values("gone"), 410);
+
+        assertStatus(ParamExtractor.create(int.class,
+                new Parameter(null, "int", Source.QUERY, "q", null, false)), values("x"), 404);
+        assertStatus(ParamExtractor.create(int.class,
+                new Parameter(null, "int", Source.HEADER, "h", null, false)), values("x"), 400);
+
+        Object[][] invalid = {
+            {null, null},
+            {Object.class, null},
+            {Runnable.class, null},
+            {int.class, "x"},
+            {Name.class, ""},
+            {type("nested"), null},
+        };
+        for (Object[] i : invalid) {
+            try {
+                ParamExtractor.create((Type) i[0], (String) i[1], 404);
+                fail("Expected IllegalArgumentException for " + i[0]);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        try {
+            ParamExtractor.create(String.class, new Parameter(null, "java.lang.String", Source.CONTEXT, null, null, false));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Builds responses with a status only
+     */
+    static class StatusResponseBuilder extends ResponseBuilder {
+        private int status = 200;
+
+        public Response build() {
+            final int s = status;
+            return new Response() {
+                public Object getEntity() {
+                    return null;
+                }
+
+                public int getStatus() {
+                    return s;
+                }
+
+                public MultivaluedMap<String, Object> getMetadata() {
+                    return null;
+                }
+            };
+        }
+
+        public ResponseBuilder clone() {
+            StatusResponseBuilder b = new StatusResponseBuilder();
+            b.status = status;
+            return b;
+        }
+
+        public ResponseBuilder status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public ResponseBuilder entity(Object entity) {
+            return this;
+        }
+
+        public ResponseBuilder type(MediaType type) {
+            return this;
+        }
+
+        public ResponseBuilder type(String type) {
+            return this;
+        }
+
+        public ResponseBuilder variant(Variant variant) {
+            return this;
+        }
+
+        public ResponseBuilder variants(List<Variant> variants) {
+            return this;
+        }
+
+        public ResponseBuilder language(String language) {
+            return this;
+        }
+
+        public ResponseBuilder language(Locale language) {
+            return this;
+        }
+
+        public ResponseBuilder location(URI location) {
+            return this;
+        }
+
+        public ResponseBuilder contentLocation(URI location) {
+            return this;
+        }
+
+        public ResponseBuilder tag(EntityTag tag) {
+            return this;
+        }
+
+        public ResponseBuilder tag(String tag) {
+            return this;
+        }
+
+        public ResponseBuilder lastModified(Date lastModified) {
+            return this;
+        }
+
+        public ResponseBuilder cacheControl(CacheControl cacheControl) {
+            return this;
+        }
+
+        public ResponseBuilder expires(Date expires) {
+            return this;
+        }
+
+        public ResponseBuilder header(String name, Object value) {
+            return this;
+        }
+
+        public ResponseBuilder cookie(NewCookie... cookies) {
+            return this;
+        }
+    }
+}
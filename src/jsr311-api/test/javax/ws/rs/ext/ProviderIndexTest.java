@@ -0,0 +1,109 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.ws.rs.ext.ProviderIndex.Entry;
+import javax.ws.rs.ext.ProviderIndex.Kind;
+import junit.framework.TestCase;
+
+public class ProviderIndexTest extends TestCase {
+
+    public ProviderIndexTest(String testName) {
+        super(testName);
+    }
+
+    private static ProviderIndex index() {
+        return new ProviderIndex(Arrays.asList(
+                new Entry("com.example.JsonProvider", Kind.MESSAGE_BODY_READER, "java.lang.Object",
+                        null, Arrays.asList("application/json", "text/json")),
+                new Entry("com.example.JsonProvider", Kind.MESSAGE_BODY_WRITER, "java.lang.Object",
+                        Arrays.asList("application/json"), null),
+                new Entry("com.example.NotFoundMapper", Kind.EXCEPTION_MAPPER,
+                        "com.example.NotFoundException", null, null),
+                new Entry("com.example.NotFoundMapper", Kind.EXCEPTION_MAPPER,
+                        "java.lang.RuntimeException", null, null)));
+    }
+
+    public void testIndex() {
+        System.out.println("testIndex");
+        ProviderIndex index = index();
+        assertEquals(3, index.getEntries().size());
+        assertEquals(1, index.getEntries(Kind.MESSAGE_BODY_READER).size());
+        assertEquals(Arrays.asList("application/json", "text/json"),
+                index.getEntries(Kind.MESSAGE_BODY_READER).get(0).getConsumes());
+        assertEquals(Collections.emptyList(), index.getEntries(Kind.MESSAGE_BODY_READER).get(0).getProduces());
+        assertTrue(index.getEntries(Kind.CONTEXT_RESOLVER).isEmpty());
+        assertEquals("[com.example.NotFoundMapper EXCEPTION_MAPPER<com.example.NotFoundException>]",
+                index.getEntries(Kind.EXCEPTION_MAPPER).toString());
+        assertSame(MessageBodyWriter.class, Kind.MESSAGE_BODY_WRITER.getInterface());
+    }
+
+    public void testReadWrite() throws Exception {
+        System.out.println("testReadWrite");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index().write(out);
+        ProviderIndex index = ProviderIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(index().getEntries().toString(), index.getEntries().toString());
+        Entry writer = index.getEntries(Kind.MESSAGE_BODY_WRITER).get(0);
+        assertEquals(Arrays.asList("application/json"), writer.getProduces());
+        assertTrue(writer.getConsumes().isEmpty());
+
+        // an index is not a resource model
+        try {
+            ResourceModel.read(new ByteArrayInputStream(out.toByteArray()));
+            fail("Expected IOException");
+        } catch (IOException e) {
+        }
+    }
+
+    public void testLoad() throws Exception {
+        System.out.println("testLoad");
+        assertTrue(ProviderIndex.load(getClass().getClassLoader()).getEntries().isEmpty());
+        Entry e = new Entry(ProviderIndexTest.class.getName(), Kind.CONTEXT_RESOLVER, "java.lang.String", null, null);
+        assertSame(ProviderIndexTest.class, e.load(getClass().getClassLoader()));
+        assertSame(ProviderIndexTest.class, e.load(null));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.ext.ResourceModel.Parameter;
+import javax.ws.rs.ext.ResourceModel.Parameter.Source;
+import javax.ws.rs.ext.ResourceModel.ResourceClass;
+import javax.ws.rs.ext.ResourceModel.ResourceMethod;
+import junit.framework.TestCase;
+
+public class ResourceModelTest extends TestCase {
+
+    public ResourceModelTest(String testName) {
+        super(testName);
+    }
+
+    public static class Customers {
+        private String filter;
+
+        public Customers() {
+        }
+
+        public Customers(String filter) {
+            this.filter = filter;
+        }
+
+        public String get(int id, String format) {
+            return filter;
+        }
+
+        public void post(String[] names) {
+        }
+    }
+
+    private static ResourceModel model() {
+        ResourceMethod get = new ResourceMethod("get", "GET", "{id}", Arrays.asList("application/xml"), null,
+                Arrays.asList(new Parameter(null, "int", Source.PATH, "id", null, false),
+                new Parameter(null, "java.lang.String", Source.QUERY, "format", "xml", true)));
+        ResourceMethod post = new ResourceMethod("post", "POST", null, null, Arrays.asList("text/plain"),
+                Arrays.asList(new Parameter(null, "[Ljava.lang.String;", Source.ENTITY, null, null, false)));
+        ResourceMethod init = new ResourceMethod("<init>", null, null, null, null,
+                Arrays.asList(new Parameter(null, "java.lang.String", Source.HEADER, "X-Filter", null, false)));
+        ResourceClass customers = new ResourceClass(Customers.class.getName(), "customers",
+                Arrays.asList("application/xml", "application/json"), null,
+                Arrays.asList(new Parameter("filter", "java.lang.String", Source.QUERY, "filter", "all", false)),
+                Arrays.asList(init), Arrays.asList(get, post));
+        ResourceClass orders = new ResourceClass("com.example.Orders", null, null, null, null, null,
+                Arrays.asList(new ResourceMethod("items", null, "items", null, null, null)));
+        return new ResourceModel(Arrays.asList(customers, orders));
+    }
+
+    private static byte[] bytes(ResourceModel model) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out);
+        return out.toByteArray();
+    }
+
+    public void testReadWrite() throws Exception {
+        System.out.println("testReadWrite");
+        ResourceModel model = ResourceModel.read(new ByteArrayInputStream(bytes(model())));
+        assertEquals(2, model.getResourceClasses().size());
+        assertNull(model.getResourceClass("com.example.Missing"));
+
+        ResourceClass c = model.getResourceClass(Customers.class.getName());
+        assertEquals("customers", c.getPath());
+        assertEquals(Arrays.asList("application/xml", "application/json"), c.getProduces());
+        assertEquals(Collections.emptyList(), c.getConsumes());
+        assertEquals("[QUERY(filter) java.lang.String filter]", c.getFields().toString());
+        assertEquals("all", c.getFields().get(0).getDefaultValue());
+        assertEquals("[<init>(java.lang.String)]", c.getConstructors().toString());
+        List<ResourceMethod> methods = c.getMethods();
+        assertEquals("[get(int,java.lang.String), post([Ljava.lang.String;)]", methods.toString());
+        ResourceMethod get = methods.get(0);
+        assertEquals("GET", get.getHttpMethod());
+        assertEquals("{id}", get.getPath());
+        assertFalse(get.isSubResourceLocator());
+        Parameter format = get.getParameters().get(1);
+        assertEquals(Source.QUERY, format.getSource());
+        assertEquals("format", format.getName());
+        assertEquals("xml", format.getDefaultValue());
+        assertTrue(format.isEncoded());
+        assertNull(format.getMember());
+        assertEquals(Arrays.asList("text/plain"), methods.get(1).getConsumes());
+
+        ResourceClass orders = model.getResourceClass("com.example.Orders");
+        assertNull(orders.getPath());
+        assertTrue(orders.getMethods().get(0).isSubResourceLocator());
+        assertTrue(orders.getMethods().get(0).getParameters().isEmpty());
+    }
+
+    public void testMembers() throws Exception {
+        System.out.println("testMembers");
+        ResourceClass c = model().getResourceClass(Customers.class.getName());
+        Class<?> type = c.load(getClass().getClassLoader());
+        assertSame(Customers.class, type);
+        assertSame(Customers.class, c.load(null));
+        assertEquals(Customers.class.getMethod("get", int.class, String.class),
+                c.getMethods().get(0).getMethod(type));
+        assertEquals(Customers.class.getMethod("post", String[].class),
+                c.getMethods().get(1).getMethod(type));
+        assertEquals(Customers.class.getConstructor(String.class),
+                c.getConstructors().get(0).getConstructor(type));
+        assertEquals(Customers.class.getDeclaredField("filter"), c.getFields().get(0).getField(type));
+        try {
+            new ResourceMethod("get", "GET", null, null, null, null).getMethod(type);
+            fail("Expected NoSuchMethodException");
+        } catch (NoSuchMethodException e) {
+        }
+        try {
+            c.getMethods().get(0).getParameters().get(0).getField(type);
+            fail("Expected NoSuchFieldException");
+        } catch (NoSuchFieldException e) {
+        }
+    }
+
+    public void testLoad() throws Exception {
+        System.out.println("testLoad");
+        File dir = File.createTempFile("model", "");
+        dir.delete();
+        File file = new File(dir, ResourceModel.RESOURCE_NAME);
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes(model()));
+        } finally {
+            out.close();
+        }
+        try {
+            ClassLoader cl = new URLClassLoader(new URL[] {dir.toURI().toURL()}, null);
+            ResourceModel model = ResourceModel.load(cl);
+            assertEquals(2, model.getResourceClasses().size());
+            assertNotNull(model.getResourceClass("com.example.Orders"));
+
+            model = ResourceModel.load(new URLClassLoader(new URL[0], null));
+            assertTrue(model.getResourceClasses().isEmpty());
+        } finally {
+            file.delete();
+            file.getParentFile().delete();
+            file.getParentFile().getParentFile().delete();
+            dir.delete();
+        }
+    }
+
+    public void testInvalid() throws Exception {
+        System.out.println("testInvalid");
+        byte[] b = bytes(model());
+        b[0] = 0;
+        try {
+            ResourceModel.read(new ByteArrayInputStream(b));
+            fail("Expected IOException");
+        } catch (IOException e) {
+        }
+        b = bytes(model());
+        try {
+            ResourceModel.read(new ByteArrayInputStream(b, 0, b.length - 3));
+            fail("Expected IOException");
+        } catch (IOException e) {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import javax.ws.rs.core.RuntimeDelegateStub;
+import junit.framework.TestCase;
+
+public class RuntimeDelegateRegistryTest extends TestCase {
+
+    private ClassLoader contextClassLoader;
+
+    public RuntimeDelegateRegistryTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        RuntimeDelegate.setInstance(null);
+        System.setProperty(RuntimeDelegate.JAXRS_RUNTIME_DELEGATE_PROPERTY,
+                RuntimeDelegateStub.class.getName());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        System.clearProperty(RuntimeDelegate.JAXRS_RUNTIME_DELEGATE_PROPERTY);
+        RuntimeDelegateRegistry.clear();
+    }
+
+    public void testPerClassLoader() {
+        System.out.println("testPerClassLoader");
+        ClassLoader app1 = new URLClassLoader(new URL[0], contextClassLoader);
+        ClassLoader app2 = new URLClassLoader(new URL[0], contextClassLoader);
+        Thread.currentThread().setContextClassLoader(app1);
+        RuntimeDelegate rd1 = RuntimeDelegate.getInstance();
+        assertSame(rd1, RuntimeDelegate.getInstance());
+        assertEquals(RuntimeDelegateStub.class, RuntimeDelegateRegistry.getDelegateClass(app1));
+        assertTrue(RuntimeDelegateRegistry.getDiscoveryTime(app1) >= 0);
+        assertEquals(-1, RuntimeDelegateRegistry.getDiscoveryTime(app2));
+
+        Thread.currentThread().setContextClassLoader(app2);
+        RuntimeDelegate rd2 = RuntimeDelegate.getInstance();
+        assertNotSame(rd1, rd2);
+
+        Thread.currentThread().setContextClassLoader(app1);
+        assertSame(rd1, RuntimeDelegate.getInstance());
+        RuntimeDelegateRegistry.remove(app1);
+        assertNull(RuntimeDelegateRegistry.getDelegateClass(app1));
+        assertNotSame(rd1, RuntimeDelegate.getInstance());
+    }
+
+    public void testNullClassLoader() {
+        System.out.println("testNullClassLoader");
+        ClassLoader app = new URLClassLoader(new URL[0], contextClassLoader);
+        Thread.currentThread().setContextClassLoader(null);
+        RuntimeDelegate rd = RuntimeDelegate.getInstance();
+        assertSame(rd, RuntimeDelegate.getInstance());
+        assertEquals(RuntimeDelegateStub.class, RuntimeDelegateRegistry.getDelegateClass(null));
+        assertNull(RuntimeDelegateRegistry.getDelegateClass(app));
+
+        Thread.currentThread().setContextClassLoader(app);
+        assertNotSame(rd, RuntimeDelegate.getInstance());
+        RuntimeDelegateRegistry.remove(null);
+        assertNull(RuntimeDelegateRegistry.getDelegateClass(null));
+        assertEquals(RuntimeDelegateStub.class, RuntimeDelegateRegistry.getDelegateClass(app));
+    }
+
+    public void testSetInstance() {
+        System.out.println("testSetInstance");
+        RuntimeDelegate rd = new RuntimeDelegateStub();
+        RuntimeDelegate.setInstance(rd);
+        assertSame(rd, RuntimeDelegate.getInstance());
+        RuntimeDelegate.setInstance(null);
+        assertNotSame(rd, RuntimeDelegate.getInstance());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.NewCookie;
+import javax.ws.rs.core.RuntimeDelegateStub;
+import junit.framework.TestCase;
+
+public class StandardHeaderDelegatesTest extends TestCase {
+
+    public StandardHeaderDelegatesTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        RuntimeDelegate.setInstance(new RuntimeDelegateStub());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        RuntimeDelegate.setInstance(null);
+    }
+
+    public void testMediaType() {
+        System.out.println("testMediaType");
+        MediaType m = MediaType.valueOf(" application/atom+xml ; Charset=\"UTF-8\"; type=entry");
+        assertEquals("application", m.getType());
+        assertEquals("atom+xml", m.getSubtype());
+        assertEquals("UTF-8", m.getParameters().get("charset"));
+        assertEquals("entry", m.getParameters().get("type"));
+        assertEquals(m, MediaType.valueOf(m.toString()));
+        assertEquals("text/plain;a=\"x y\"", MediaType.valueOf("text/plain;a=\"x y\"").toString());
+        assertEquals(MediaType.WILDCARD_TYPE, MediaType.valueOf("*"));
+        assertInvalid(MediaType.class, "text");
+        assertInvalid(MediaType.class, "text/plain;charset");
+        assertInvalid(MediaType.class, "text/plain, text/html");
+        assertInvalid(MediaType.class, null);
+    }
+
+    public void testEntityTag() {
+        System.out.println("testEntityTag");
+        EntityTag e = EntityTag.valueOf("W/\"a\\\"b\"");
+        assertTrue(e.isWeak());
+        assertEquals("a\"b", e.getValue());
+        assertEquals("W/\"a\\\"b\"", e.toString());
+        assertEquals(new EntityTag("*"), EntityTag.valueOf("*"));
+        assertEquals("\"xyzzy\"", new EntityTag("xyzzy").toString());
+        assertInvalid(EntityTag.class, "xyzzy");
+        assertInvalid(EntityTag.class, "\"xyzzy");
+    }
+
+    public void testCacheControl() {
+        System.out.println("testCacheControl");
+        CacheControl cc = CacheControl.valueOf("private=\"foo, bar\", no-cache, max-age=60, S-MAXAGE=30, ext=\"a b\"");
+        assertTrue(cc.isPrivate());
+        assertEquals(2, cc.getPrivateFields().size());
+        assertEquals("bar", cc.getPrivateFields().get(1));
+        assertTrue(cc.isNoCache());
+        assertFalse(cc.isNoTransform());
+        assertEquals(60, cc.getMaxAge());
+        assertEquals(30, cc.getSMaxAge());
+        assertEquals("a b", cc.getCacheExtension().get("ext"));
+        assertEquals(cc, CacheControl.valueOf(cc.toString()));
+        assertEquals("no-transform", new CacheControl().toString());
+        assertInvalid(CacheControl.class, "max-age=x");
+    }
+
+    public void testCookie() {
+        System.out.println("testCookie");
+        Cookie c = Cookie.valueOf("$Version=1; fred=\"a b\"; $Path=/acme; $Domain=.acme.com, other=1");
+        assertEquals("fred", c.getName());
+        assertEquals("a b", c.getValue());
+        assertEquals("/acme", c.getPath());
+        assertEquals(".acme.com", c.getDomain());
+        assertEquals(1, c.getVersion());
+        assertEquals(c, Cookie.valueOf(c.toString()));
+        c = Cookie.valueOf("JSESSIONID=abc/def==; other=1");
+        assertEquals("abc/def==", c.getValue());
+        assertInvalid(Cookie.class, "$Version=1");
+    }
+
+    public void testNewCookie() {
+        System.out.println("testNewCookie");
+        NewCookie c = NewCookie.valueOf("id=a3fWa; Expires=Wed, 21 Oct 2015 07:28:00 GMT; Max-Age=3600; path=/; Secure; HttpOnly");
+        assertEquals("id", c.getName());
+        assertEquals("a3fWa", c.getValue());
+        assertEquals("/", c.getPath());
+        assertEquals(3600, c.getMaxAge());
+        assertTrue(c.isSecure());
+        NewCookie n = new NewCookie("n", "v w", "/p", "d.com", "a comment", 10, true);
+        assertEquals("n=\"v w\";Version=1;Comment=\"a comment\";Domain=d.com;Path=/p;Max-Age=10;Secure", n.toString());
+        assertEquals(n, NewCookie.valueOf(n.toString()));
+    }
+
+    private static void assertInvalid(Class<?> type, String value) {
+        try {
+            StandardHeaderDelegates.get(type).fromString(value);
+            fail("Expected IllegalArgumentException for " + value);
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2010 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://glassfish.dev.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package javax.ws.rs.ext;
+
+import java.lang.ref.WeakReference;
+import junit.framework.TestCase;
+
+public class WeakKeyCacheTest extends TestCase {
+
+    public WeakKeyCacheTest(String testName) {
+        super(testName);
+    }
+
+    public void testCache() {
+        System.out.println("testCache");
+        WeakKeyCache<Object, String> cache = new WeakKeyCache<Object, String>(false);
+        Object key = new Object();
+        assertNull(cache.get(key));
+        assertEquals("a", cache.putIfAbsent(key, "a"));
+        assertEquals("a", cache.putIfAbsent(key, "b"));
+        assertEquals("a", cache.get(key));
+        assertNull(cache.get(null));
+        assertEquals("n", cache.putIfAbsent(null, "n"));
+        assertEquals("n", cache.get(null));
+        assertEquals("a", cache.get(key));
+        cache.remove(key);
+        assertNull(cache.get(key));
+        assertEquals("n", cache.get(null));
+        cache.clear();
+        assertNull(cache.get(null));
+        try {
+            cache.putIfAbsent(key, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testKeysCollected() {
+        System.out.println("testKeysCollected");
+        WeakKeyCache<Object, String> cache = new WeakKeyCache<Object, String>(true);
+        Object key = new Object();
+        cache.putIfAbsent(key, "a");
+        assertEquals("a", cache.get(key));
+        WeakReference<Object> ref = new WeakReference<Object>(key);
+        key = null;
+        for (int i = 0; i < 10 && ref.get() != null; i++)
+            System.gc();
+        assertNull(ref.get());
+    }
+}